@@ -27,11 +27,10 @@ import org.ttzero.excel.manager.Const;
 import org.ttzero.excel.processor.ConversionProcessor;
 import org.ttzero.excel.processor.StyleProcessor;
 import org.ttzero.excel.reader.Cell;
+import org.ttzero.excel.util.ClassMeta;
 import org.ttzero.excel.util.StringUtil;
 
 import java.beans.IntrospectionException;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
 import java.io.IOException;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
@@ -47,8 +46,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import static org.ttzero.excel.util.ReflectUtil.listDeclaredFields;
-import static org.ttzero.excel.util.ReflectUtil.listReadMethods;
 import static org.ttzero.excel.util.StringUtil.EMPTY;
 import static org.ttzero.excel.util.StringUtil.isEmpty;
 import static org.ttzero.excel.util.StringUtil.isNotEmpty;
@@ -419,95 +416,18 @@ public class ListSheet<T> extends Sheet {
         Class<?> clazz = getTClass();
         if (clazz == null) return 0;
 
-        Map<String, Method> tmp = new HashMap<>();
-        try {
-            PropertyDescriptor[] propertyDescriptors = Introspector.getBeanInfo(clazz, Object.class)
-                    .getPropertyDescriptors();
-            for (PropertyDescriptor pd : propertyDescriptors) {
-                Method method = pd.getReadMethod();
-                if (method != null) tmp.put(pd.getName(), method);
-            }
-        } catch (IntrospectionException e) {
-            LOGGER.warn("Get class {} methods failed.", clazz);
-        }
-
-        Field[] declaredFields = listDeclaredFields(clazz, c -> !ignoreColumn(c));
-
+        ClassMeta meta = ClassMeta.of(clazz);
         boolean forceExport = this.forceExport == 1;
 
         if (!hasHeaderColumns()) {
-            // Get ExcelColumn annotation method
-            List<org.ttzero.excel.entity.Column> list = new ArrayList<>(declaredFields.length);
-
-            for (int i = 0; i < declaredFields.length; i++) {
-                Field field = declaredFields[i];
-                field.setAccessible(true);
-                String gs = field.getName();
-
-                // Ignore annotation on read method
-                Method method = tmp.get(gs);
-                if (method != null) {
-                    // Filter all ignore column
-                    if (ignoreColumn(method)) {
-                        declaredFields[i] = null;
-                        continue;
-                    }
-
-                    EntryColumn column = createColumn(method);
-                    // Force export
-                    if (column == null && forceExport) {
-                        column = new EntryColumn(gs, EMPTY, false);
-                    }
-                    if (column != null) {
-                        EntryColumn tail = (EntryColumn) column.getTail();
-                        tail.method = method;
-                        tail.field = field;
-                        tail.clazz = method.getReturnType();
-                        tail.key = gs;
-                        if (isEmpty(tail.name)) {
-                            tail.name = gs;
-                        }
-                        list.add(column);
-
-                        // Attach header style
-                        buildHeaderStyle(method, field, tail);
-                        // Attach header comment
-                        buildHeaderComment(method, field, tail);
-                        continue;
-                    }
-                }
-
-                EntryColumn column = createColumn(field);
-                // Force export
-                if (column == null && forceExport) {
-                    column = new EntryColumn(gs, EMPTY, false);
-                }
-                if (column != null) {
-                    list.add(column);
-                    EntryColumn tail = (EntryColumn) column.getTail();
-                    tail.field = field;
-                    tail.key = gs;
-                    if (isEmpty(tail.name)) {
-                        tail.name = gs;
-                    }
-                    if (method != null) {
-                        tail.clazz = method.getReturnType();
-                        tail.method = method;
-                    } else tail.clazz = field.getType();
-
-                    // Attach header style
-                    buildHeaderStyle(method, field, tail);
-                    // Attach header comment
-                    buildHeaderComment(method, field, tail);
-                }
-            }
-
-            // Attach some custom column
-            List<org.ttzero.excel.entity.Column> attachList = attachOtherColumn(tmp, clazz);
-            if (attachList != null) list.addAll(attachList);
+            org.ttzero.excel.entity.Column[] layout;
+            // The layout only depends on the class and force-export flag if the column hooks are not overridden
+            if (getClass() == ListSheet.class) {
+                layout = meta.computeIfAbsent("ListSheet:" + forceExport, k -> columnLayout(clazz, meta, forceExport));
+            } else layout = columnLayout(clazz, meta, forceExport);
 
             // No column to write
-            if (list.isEmpty()) {
+            if (layout.length == 0) {
                 headerReady = eof = shouldClose = true;
                 this.end = 0;
                 if (java.util.Map.class.isAssignableFrom(clazz))
@@ -515,9 +435,16 @@ public class ListSheet<T> extends Sheet {
                 else LOGGER.warn("Class [{}] do not contains properties to export.", clazz);
                 return 0;
             }
-            columns = new org.ttzero.excel.entity.Column[list.size()];
-            list.toArray(columns);
+            columns = new org.ttzero.excel.entity.Column[layout.length];
+            for (int i = 0; i < layout.length; i++) {
+                columns[i] = copyColumn(layout[i]);
+                EntryColumn tail = (EntryColumn) columns[i].getTail();
+                // Attach header style
+                buildHeaderStyle(tail.method, tail.field, tail);
+            }
         } else {
+            Map<String, Method> tmp = new HashMap<>(meta.getReadMethods());
+            Field[] declaredFields = meta.listDeclaredFields(c -> !ignoreColumn(c));
             Method[] others = filterOthersMethodsCanExport(tmp, clazz);
             Map<String, Method> otherMap = new HashMap<>();
             for (Method m : others) {
@@ -580,6 +507,114 @@ public class ListSheet<T> extends Sheet {
         return columns.length;
     }
 
+    /**
+     * Create the header columns of class by the annotations, the header
+     * styles are not attached because they are registered in the workbook
+     *
+     * @param clazz Class of &lt;T&gt;
+     * @param meta the metadata of class
+     * @param forceExport export the fields without {@link ExcelColumn} annotation
+     * @return the header columns, empty if no column to write
+     */
+    private org.ttzero.excel.entity.Column[] columnLayout(Class<?> clazz, ClassMeta meta, boolean forceExport) {
+        Map<String, Method> tmp = new HashMap<>(meta.getReadMethods());
+        Field[] declaredFields = meta.listDeclaredFields(c -> !ignoreColumn(c));
+        // Get ExcelColumn annotation method
+        List<org.ttzero.excel.entity.Column> list = new ArrayList<>(declaredFields.length);
+
+        for (int i = 0; i < declaredFields.length; i++) {
+            Field field = declaredFields[i];
+            ClassMeta.setAccessible(field);
+            String gs = field.getName();
+
+            // Ignore annotation on read method
+            Method method = tmp.get(gs);
+            if (method != null) {
+                // Filter all ignore column
+                if (ignoreColumn(method)) {
+                    declaredFields[i] = null;
+                    continue;
+                }
+
+                EntryColumn column = createColumn(method);
+                // Force export
+                if (column == null && forceExport) {
+                    column = new EntryColumn(gs, EMPTY, false);
+                }
+                if (column != null) {
+                    EntryColumn tail = (EntryColumn) column.getTail();
+                    tail.method = method;
+                    tail.field = field;
+                    tail.clazz = method.getReturnType();
+                    tail.key = gs;
+                    if (isEmpty(tail.name)) {
+                        tail.name = gs;
+                    }
+                    list.add(column);
+
+                    // Attach header comment
+                    buildHeaderComment(method, field, tail);
+                    continue;
+                }
+            }
+
+            EntryColumn column = createColumn(field);
+            // Force export
+            if (column == null && forceExport) {
+                column = new EntryColumn(gs, EMPTY, false);
+            }
+            if (column != null) {
+                list.add(column);
+                EntryColumn tail = (EntryColumn) column.getTail();
+                tail.field = field;
+                tail.key = gs;
+                if (isEmpty(tail.name)) {
+                    tail.name = gs;
+                }
+                if (method != null) {
+                    tail.clazz = method.getReturnType();
+                    tail.method = method;
+                } else tail.clazz = field.getType();
+
+                // Attach header comment
+                buildHeaderComment(method, field, tail);
+            }
+        }
+
+        // Attach some custom column
+        List<org.ttzero.excel.entity.Column> attachList = attachOtherColumn(tmp, clazz);
+        if (attachList != null) list.addAll(attachList);
+
+        return list.toArray(new org.ttzero.excel.entity.Column[0]);
+    }
+
+    /**
+     * Copy the cached header column for this sheet, the number formats and
+     * the style processors are mutable so they are not shared
+     *
+     * @param column the cached header column
+     * @return a new {@link EntryColumn}
+     */
+    private EntryColumn copyColumn(org.ttzero.excel.entity.Column column) {
+        EntryColumn copy = new EntryColumn(column);
+        StyleProcessor<?> sp = null;
+        for (org.ttzero.excel.entity.Column c = copy; c != null; c = c.next) {
+            if (c.numFmt != null) c.setNumFmt(c.numFmt.getCode());
+            if (c.styleProcessor != null) c.styleProcessor = sp != null ? sp : (sp = newStyleProcessor(c.styleProcessor));
+        }
+        return copy;
+    }
+
+    // A new style processor of the same class as the annotation does
+    private StyleProcessor<?> newStyleProcessor(StyleProcessor<?> sp) {
+        try {
+            return sp.getClass().newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            LOGGER.warn("Construct {} error occur, it will be shared.", sp.getClass(), e);
+            return sp;
+        }
+    }
+
     /**
      * Create column from {@link ExcelColumn} annotation
      * <p>
@@ -782,8 +817,6 @@ public class ListSheet<T> extends Sheet {
                         tail.name = method.getName();
                     }
 
-                    // Attach header style
-                    buildHeaderStyle(method, null, tail);
                     // Attach header comment
                     buildHeaderComment(method, null, tail);
                 }
@@ -945,7 +978,7 @@ public class ListSheet<T> extends Sheet {
         Method[] readMethods = null;
         try {
             Collection<Method> values = existsMethodMapper.values();
-            readMethods = listReadMethods(clazz, method -> method.getAnnotation(ExcelColumn.class) != null
+            readMethods = ClassMeta.of(clazz).listReadMethods(method -> method.getAnnotation(ExcelColumn.class) != null
                 && method.getAnnotation(IgnoreExport.class) == null && !values.contains(method));
         } catch (IntrospectionException e) {
             // Ignore
@@ -24,14 +24,14 @@ import org.ttzero.excel.entity.Storable;
 import org.ttzero.excel.manager.Const;
 import org.ttzero.excel.util.FileUtil;
 import org.dom4j.Document;
-import org.dom4j.DocumentException;
 import org.dom4j.DocumentFactory;
 import org.dom4j.Element;
-import org.dom4j.io.SAXReader;
 import org.ttzero.excel.util.StringUtil;
+import org.ttzero.excel.util.XMLPullParser;
 
 import java.awt.Color;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -39,11 +39,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.ttzero.excel.util.StringUtil.isEmpty;
@@ -86,10 +84,10 @@ public class Styles implements Storable {
     private List<Border> borders;
 
     /**
-     * Cache the data/time format style index.
+     * Cache the number format kind of style index, -1 if not tested.
      * It's use for fast test the cell value is a data or time value
      */
-    private Set<Integer> dateFmtCache;
+    private byte[] fmtKinds;
 
     private Styles() {
         map = new HashMap<>();
@@ -147,6 +145,15 @@ public class Styles implements Storable {
     public static final int INDEX_HORIZONTAL = 1;
     public static final int INDEX_WRAP_TEXT = 0;
 
+    /**
+     * The kinds of number format, see {@link #getFormatKind(int)}
+     */
+    public static final int FMT_PLAIN = 0;
+    public static final int FMT_DATE = 1;
+    public static final int FMT_DATETIME = 2;
+    public static final int FMT_TIME = 3;
+    public static final int FMT_PERCENT = 4;
+
     /**
      * Create a general style
      *
@@ -210,23 +217,45 @@ public class Styles implements Storable {
      * @return the {@link Styles} Object
      */
     public static Styles load(Path path) {
+        Path themePath = path.getParent().resolve("theme/theme1.xml");
+        if (Files.exists(themePath) && !Files.isDirectory(themePath)) Theme.load(themePath);
         // load styles.xml
-        SAXReader reader = new SAXReader();
-        Document document;
-        try {
-            document = reader.read(Files.newInputStream(path));
-        } catch (DocumentException | IOException e) {
+        try (InputStream is = Files.newInputStream(path)) {
+            return load(is);
+        } catch (IOException e) {
             LOGGER.warn("Read the style failed and ignore the style to continue.", e);
-            Styles self = forReader();
-            // Add a default font
-            self.addFont(new Font("Arial", 11, Color.black));
-            return self;
+            return damaged();
         }
+    }
 
+    /**
+     * Load the style from a stream, the theme is not loaded
+     *
+     * @param is the {@link InputStream} of style
+     * @return the {@link Styles} Object
+     */
+    public static Styles load(InputStream is) {
         Styles self = new Styles();
-        Path themePath = path.getParent().resolve("theme/theme1.xml");
-        if (Files.exists(themePath) && !Files.isDirectory(themePath)) Theme.load(themePath);
-        Element root = document.getRootElement();
+        Element root = DocumentFactory.getInstance().createElement("styleSheet");
+        int i = 0;
+        try {
+            XMLPullParser parser = new XMLPullParser(is);
+            for (int e; (e = parser.next()) != XMLPullParser.END_DOCUMENT; ) {
+                if (e != XMLPullParser.START_TAG || parser.getDepth() != 2) continue;
+                switch (parser.getName()) {
+                    // These fragments are small, build them as dom to reuse the parsers
+                    case "numFmts":
+                    case "fonts"  :
+                    case "fills"  :
+                    case "borders": root.add(parser.toElement()); break;
+                    case "cellXfs": i = self.parseCellXfs(parser);  break;
+                    default: parser.skip();
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Read the style failed and ignore the style to continue.", e);
+            return damaged();
+        }
 
         // Parse Number format
         self.numFmts = NumFmt.domToNumFmt(root);
@@ -240,60 +269,74 @@ public class Styles implements Storable {
         // Parse Borders
         self.borders = Border.domToBorder(root);
 
-        // Cell xf
-        Element cellXfs = root.element("cellXfs");
-        List<Element> sub = cellXfs.elements();
-        int i = 0;
-        for (Element e : sub) {
+        self.counter.set(i);
+        // Test number format, the kinds are read-only after loaded
+        for (int j = 0; j < i; j++) {
+            self.getFormatKind(j);
+        }
+
+        return self;
+    }
+
+    // Parse the cell xf, returns the number of xf
+    private int parseCellXfs(XMLPullParser parser) throws IOException {
+        int i = 0, depth = parser.getDepth();
+        for (int e; (e = parser.next()) != XMLPullParser.END_DOCUMENT && !(e == XMLPullParser.END_TAG && parser.getDepth() == depth); ) {
+            if (e != XMLPullParser.START_TAG) continue;
             int style = 0;
             // NumFmt
-            String numFmtId = getAttr(e, "numFmtId"); // applyNumberFormat = getAttr(e, "applyNumberFormat");
+            String numFmtId = parser.getAttribute("numFmtId"); // applyNumberFormat = getAttr(e, "applyNumberFormat");
             if (StringUtil.isNotEmpty(numFmtId) && !"0".equals(numFmtId)) {
                 style |= Integer.parseInt(numFmtId) << INDEX_NUMBER_FORMAT;
             }
             // Font
-            String fontId = getAttr(e, "fontId"); // applyFont = getAttr(e, "applyFont");
+            String fontId = parser.getAttribute("fontId"); // applyFont = getAttr(e, "applyFont");
             if (StringUtil.isNotEmpty(fontId) && !"0".equals(fontId)) {
                 style |= Integer.parseInt(fontId) << INDEX_FONT;
             }
             // Fill
-            String fillId = getAttr(e, "fillId"); // applyFill = getAttr(e, "applyFill");
+            String fillId = parser.getAttribute("fillId"); // applyFill = getAttr(e, "applyFill");
             if (StringUtil.isNotEmpty(fillId) && !"0".equals(fillId)) {
                 style |= Integer.parseInt(fillId) << INDEX_FILL;
             }
             // Border
-            String borderId = getAttr(e, "borderId"); // applyBorder = getAttr(e, "applyBorder");
+            String borderId = parser.getAttribute("borderId"); // applyBorder = getAttr(e, "applyBorder");
             if (StringUtil.isNotEmpty(borderId) && !"0".equals(borderId)) {
                 style |= Integer.parseInt(borderId) << INDEX_BORDER;
             }
             // Alignment
-            Element alignment = e.element("alignment");
-            if (alignment != null) {
-                String horizontal = getAttr(alignment, "horizontal");
-                int index;
-                if (StringUtil.isNotEmpty(horizontal) && (index = StringUtil.indexOf(Horizontals._names, horizontal)) >= 0) {
-                    style |= index << INDEX_HORIZONTAL;
+            for (int xf = parser.getDepth(); (e = parser.next()) != XMLPullParser.END_DOCUMENT && !(e == XMLPullParser.END_TAG && parser.getDepth() == xf); ) {
+                if (e != XMLPullParser.START_TAG) continue;
+                if (parser.getDepth() == xf + 1 && parser.is("alignment")) {
+                    String horizontal = parser.getAttribute("horizontal");
+                    int index;
+                    if (StringUtil.isNotEmpty(horizontal) && (index = StringUtil.indexOf(Horizontals._names, horizontal)) >= 0) {
+                        style |= index << INDEX_HORIZONTAL;
+                    }
+                    String vertical = parser.getAttribute("vertical");
+                    if (StringUtil.isNotEmpty(vertical) && (index = StringUtil.indexOf(Verticals._names, vertical)) >= 0) {
+                        style |= index << INDEX_VERTICAL;
+                    } else style |= Verticals.BOTTOM;
+                    String wrapText = parser.getAttribute("wrapText");
+                    style |= ("1".equals(wrapText) || "true".equalsIgnoreCase(wrapText) ? 1 : 0) << INDEX_WRAP_TEXT;
                 }
-                String vertical = getAttr(alignment, "vertical");
-                if (StringUtil.isNotEmpty(vertical) && (index = StringUtil.indexOf(Verticals._names, vertical)) >= 0) {
-                    style |= index << INDEX_VERTICAL;
-                } else style |= Verticals.BOTTOM;
-                String wrapText = getAttr(alignment, "wrapText");
-                style |= ("1".equals(wrapText) || "true".equalsIgnoreCase(wrapText) ? 1 : 0) << INDEX_WRAP_TEXT;
+                parser.skip();
             }
-            self.map.put(style, i);
-            if (i >= self.styleIndex.length) {
-                self.styleIndex = Arrays.copyOf(self.styleIndex, self.styleIndex.length << 1);
+            map.put(style, i);
+            if (i >= styleIndex.length) {
+                styleIndex = Arrays.copyOf(styleIndex, styleIndex.length << 1);
             }
-            self.styleIndex[i] = style;
+            styleIndex[i] = style;
             i++;
         }
-        self.counter.set(i);
-        // Test number format
-        for (Integer styleIndex : self.map.values()) {
-            self.isDate(styleIndex);
-        }
+        return i;
+    }
 
+    // Returns a reader style with a default font
+    private static Styles damaged() {
+        Styles self = forReader();
+        // Add a default font
+        self.addFont(new Font("Arial", 11, Color.black));
         return self;
     }
 
@@ -735,33 +778,93 @@ public class Styles implements Storable {
      * @return true if the style content data format
      */
     public boolean isDate(int styleIndex) {
+        return isDateKind(getFormatKind(styleIndex));
+    }
+
+    /**
+     * Returns the kind of number format, the result is cached by style index
+     *
+     * @param styleIndex the style index
+     * @return one of {@link #FMT_PLAIN}, {@link #FMT_DATE}, {@link #FMT_DATETIME},
+     * {@link #FMT_TIME} and {@link #FMT_PERCENT}
+     */
+    public int getFormatKind(int styleIndex) {
         // Test from cache
-        if (fastTestDateFmt(styleIndex)) return true;
+        if (fmtKinds != null && styleIndex >= 0 && styleIndex < fmtKinds.length && fmtKinds[styleIndex] >= 0)
+            return fmtKinds[styleIndex];
 
-        if (styleIndex > counter.get()) return false;
+        if (styleIndex < 0 || styleIndex >= counter.get()) return FMT_PLAIN;
         int style = this.styleIndex[styleIndex];
-        int nf = style >> INDEX_NUMBER_FORMAT & 0xFF;
-
-        // No number format
-        if (nf == 0) return false;
-
-        boolean isDate;
-        NumFmt numFmt;
+        int nf = style >> INDEX_NUMBER_FORMAT & 0xFF, kind = FMT_PLAIN;
 
         // Test by numFmt code
-        if (!(isDate = isBuildInDateFormat(nf))
-            && (numFmt = findFmtById(nf)) != null
-            && (isNotEmpty(numFmt.getCode()))) {
-            isDate = testCodeIsDate(numFmt.getCode());
+        if (nf > 0 && (kind = buildInFormatKind(nf)) == FMT_PLAIN) {
+            NumFmt numFmt = findFmtById(nf);
+            if (numFmt != null && isNotEmpty(numFmt.getCode())) {
+                kind = formatKind(numFmt.getCode());
+            }
         }
 
-        // Put into data/time format cache
+        // Put into cache
         // Ignore the style code, Uniform use of 'yyyy-mm-dd hh:mm:ss' format output
-        if (isDate) {
-            if (dateFmtCache == null) dateFmtCache = new HashSet<>();
-            dateFmtCache.add(styleIndex);
+        ensureKinds(styleIndex + 1)[styleIndex] = (byte) kind;
+        return kind;
+    }
+
+    // Test the kind is date or time
+    private static boolean isDateKind(int kind) {
+        return kind >= FMT_DATE && kind <= FMT_TIME;
+    }
+
+    // Grow the kinds cache, the new elements are marked untested
+    private byte[] ensureKinds(int size) {
+        if (fmtKinds == null || fmtKinds.length < size) {
+            int n = fmtKinds != null ? fmtKinds.length : 0;
+            fmtKinds = fmtKinds != null ? Arrays.copyOf(fmtKinds, Math.max(size, counter.get())) : new byte[Math.max(size, counter.get())];
+            Arrays.fill(fmtKinds, n, fmtKinds.length, (byte) -1);
+        }
+        return fmtKinds;
+    }
+
+    // The kind of built-in format
+    private static int buildInFormatKind(int nf) {
+        if (!isBuildInDateFormat(nf)) return nf == 9 || nf == 10 ? FMT_PERCENT : FMT_PLAIN;
+        return nf >= 18 && nf <= 21 || nf >= 45 && nf <= 47 ? FMT_TIME : nf == 22 ? FMT_DATETIME : FMT_DATE;
+    }
+
+    /**
+     * Returns the kind of number format code
+     *
+     * @param code the number format code
+     * @return one of {@link #FMT_PLAIN}, {@link #FMT_DATE}, {@link #FMT_DATETIME},
+     * {@link #FMT_TIME} and {@link #FMT_PERCENT}
+     */
+    public static int formatKind(String code) {
+        if (!testCodeIsDate(code)) {
+            return code.indexOf('%') >= 0 ? FMT_PERCENT : FMT_PLAIN;
+        }
+        boolean date = false, time = false;
+        for (int i = 0, n = code.length(); i < n; i++) {
+            char c = code.charAt(i);
+            switch (c) {
+                // Quoted text
+                case '"': for (i++; i < n && code.charAt(i) != '"'; i++) ; break;
+                // Escaped char
+                case '\\': i++; break;
+                // Color, locale or elapsed time such as [h]
+                case '[':
+                    if (i + 1 < n) {
+                        char b = Character.toLowerCase(code.charAt(i + 1));
+                        time |= b == 'h' || b == 'm' || b == 's';
+                    }
+                    for (i++; i < n && code.charAt(i) != ']'; i++) ;
+                    break;
+                case 'y': case 'Y': case 'd': case 'D': date = true; break;
+                case 'h': case 'H': case 's': case 'S': time = true; break;
+                default:
+            }
         }
-        return isDate;
+        return date && time ? FMT_DATETIME : time ? FMT_TIME : FMT_DATE;
     }
 
     // All indexes from 0 to 163 are reserved for built-in formats.
@@ -900,7 +1003,7 @@ public class Styles implements Storable {
      * @return true if the style content data format
      */
     public boolean fastTestDateFmt(int styleIndex) {
-        return dateFmtCache != null && dateFmtCache.contains(styleIndex);
+        return fmtKinds != null && styleIndex >= 0 && styleIndex < fmtKinds.length && isDateKind(fmtKinds[styleIndex]);
     }
 
     /**
@@ -909,8 +1012,9 @@ public class Styles implements Storable {
      * @param xf the XFRecord id
      */
     public void addDateFmtCache(int xf) {
-        if (dateFmtCache == null) dateFmtCache = new HashSet<>();
-        dateFmtCache.add(xf);
+        if (xf < 0) return;
+        byte[] kinds = ensureKinds(xf + 1);
+        if (!isDateKind(kinds[xf])) kinds[xf] = FMT_DATE;
     }
 
     /**
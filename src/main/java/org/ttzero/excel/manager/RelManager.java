@@ -23,10 +23,12 @@ import org.ttzero.excel.annotation.TopNS;
 import org.ttzero.excel.entity.Relationship;
 import org.ttzero.excel.util.FileUtil;
 import org.ttzero.excel.util.StringUtil;
+import org.ttzero.excel.util.XMLPullParser;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
@@ -55,6 +57,26 @@ public class RelManager implements Serializable {
         return relManager;
     }
 
+    /**
+     * Parse the relationships part
+     *
+     * @param is the {@link InputStream} of {@code .rels} part
+     * @return the {@link RelManager}
+     * @throws IOException if I/O error occur or the part is incorrect
+     */
+    public static RelManager load(InputStream is) throws IOException {
+        XMLPullParser parser = new XMLPullParser(is);
+        List<Relationship> list = new ArrayList<>();
+        for (int e; (e = parser.next()) != XMLPullParser.END_DOCUMENT; ) {
+            if (e == XMLPullParser.START_TAG && parser.getDepth() == 2) {
+                list.add(new Relationship(parser.getAttribute("Id"), parser.getAttribute("Target"), parser.getAttribute("Type")));
+            }
+        }
+        RelManager relManager = new RelManager();
+        relManager.relationships = list;
+        return relManager;
+    }
+
     public synchronized void add(Relationship rel) {
         if (relationships == null) {
             relationships = new ArrayList<>();
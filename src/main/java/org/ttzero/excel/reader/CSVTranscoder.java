@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import org.ttzero.excel.entity.style.Styles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.ttzero.excel.reader.SharedStrings.toInt;
+import static org.ttzero.excel.reader.SharedStrings.unescape;
+import static org.ttzero.excel.util.DateUtil.toLocalDate;
+import static org.ttzero.excel.util.DateUtil.toTimestamp;
+
+/**
+ * Transcode the worksheet xml to UTF-8 CSV bytes, no {@link Row} or
+ * {@link Cell} is materialized.
+ * <p>
+ * The layout is the same as {@link Sheet#saveAsCSV(java.io.BufferedWriter)},
+ * each {@code <row>} is a line and the columns start from {@code A}.
+ * The shared strings are resolved by index, the number is copied
+ * verbatim as it stored in {@code <v>} except it is formatted as date,
+ * so {@code 1E-3} is not converted to {@code 0.001}.
+ *
+ * @author guanquan.wang at 2023-03-21 09:20
+ */
+class CSVTranscoder {
+    private static final byte COMMA = ',', QUOTE = '"';
+    private static final byte[] TRUE = "TRUE".getBytes(StandardCharsets.US_ASCII)
+        , FALSE = "FALSE".getBytes(StandardCharsets.US_ASCII)
+        , LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private final SharedStrings sst;
+    private final Styles styles;
+    private final StringBuilder buf = new StringBuilder();
+    // Input
+    private byte[] cb = new byte[1 << 16];
+    private int nChar, length;
+    // Output
+    private final OutputStream os;
+    private final byte[] ob = new byte[1 << 16];
+    private int offset;
+    // The number of columns written in current line
+    private int column;
+
+    CSVTranscoder(SharedStrings sst, Styles styles, OutputStream os) {
+        this.sst = sst;
+        this.styles = styles;
+        this.os = os;
+    }
+
+    /**
+     * Transcode the worksheet, the input stream is not closed
+     *
+     * @param is the worksheet stream
+     * @throws IOException if I/O error occur
+     */
+    void transcode(InputStream is) throws IOException {
+        length = XMLSheet.read(is, cb, 0, cb.length);
+        if (length <= 0) return;
+        // Locate the <sheetData>
+        int i;
+        for (; (i = find("<sheetData")) < 0; ) if (!fill(is)) return;
+        nChar = i + 10;
+        for (; ; ) {
+            int start = nextRow(is);
+            if (start < 0) break;
+            row(start, nChar);
+        }
+        flush();
+    }
+
+    // Find the next row and returns its start index, the nChar is moved to the end of row
+    private int nextRow(InputStream is) throws IOException {
+        for (; ; ) {
+            int i = nChar;
+            for (; i < length - 4 && !(cb[i] == '<' && cb[i + 1] == 'r' && cb[i + 2] == 'o' && cb[i + 3] == 'w'
+                && cb[i + 4] <= ' '); i++) {
+                // End of sheetData
+                if (cb[i] == '<' && cb[i + 1] == '/' && cb[i + 2] == 's') return -1;
+            }
+            if (i < length - 4) {
+                int e = i + 4;
+                for (; e < length && cb[e] != '>'; e++) ;
+                if (e < length) {
+                    // Empty row
+                    if (cb[e - 1] == '/') {
+                        nChar = e + 1;
+                        return i;
+                    }
+                    for (; e < length - 5; e++) {
+                        if (cb[e] == '<' && cb[e + 1] == '/' && cb[e + 2] == 'r' && cb[e + 3] == 'o'
+                            && cb[e + 4] == 'w' && cb[e + 5] == '>') {
+                            nChar = e + 6;
+                            return i;
+                        }
+                    }
+                }
+            }
+            // Load more, keep the unread bytes from the row
+            nChar = i;
+            if (!fill(is)) return -1;
+        }
+    }
+
+    // Transcode a row in range [from, to)
+    private void row(int from, int to) throws IOException {
+        int i = from + 4, lc = 0;
+        // The spans of empty row is ignored
+        boolean empty = cb[to - 2] == '/';
+        // Row attributes
+        for (; !empty && cb[i] != '>'; i++) {
+            if (cb[i] <= ' ' && cb[i + 1] == 's' && cb[i + 2] == 'p' && cb[i + 3] == 'a' && cb[i + 4] == 'n'
+                && cb[i + 5] == 's' && cb[i + 6] == '=') {
+                int a = i += 8;
+                for (; cb[i] != '"' && cb[i] != '\'' && cb[i] != '>'; i++) ;
+                int b = i - 1;
+                for (; b > a && cb[b] != ':'; b--) ;
+                if (b > a && b + 1 < i) lc = toInt(cb, b + 1, i);
+            }
+        }
+        column = 0;
+        int col = 0;
+        for (; ; ) {
+            // Find the next cell
+            for (; i < to && !(cb[i] == '<' && cb[i + 1] == 'c' && cb[i + 2] <= ' '); i++) ;
+            if (i >= to) break;
+            i += 2;
+            char t = 'n';
+            int xf = 0;
+            for (; cb[i] != '>'; i++) {
+                if (cb[i] > ' ' || cb[i + 2] != '=') continue;
+                byte k = cb[i + 1];
+                if (k != 'r' && k != 't' && k != 's') continue;
+                int a = i += 4;
+                for (; cb[i] != '"' && cb[i] != '\''; i++) ;
+                switch (k) {
+                    case 'r': col = Row.toCellIndex(cb, a, i) - 1; break;
+                    case 's': xf = toInt(cb, a, i);                 break;
+                    default :
+                        // s, n, b, e, d, str and inlineStr
+                        t = i - a == 1 ? (char) cb[a] : i - a == 3 ? 'f' : i - a == 9 ? 'i' : 'n';
+                }
+            }
+            int e = i + 1;
+            // Self-closed cell has no value
+            if (cb[i - 1] == '/') {
+                i = e;
+                col++;
+                continue;
+            }
+            for (; e < to - 3 && !(cb[e] == '<' && cb[e + 1] == '/' && cb[e + 2] == 'c' && cb[e + 3] == '>'); e++) ;
+            cell(t, xf, col, i + 1, e);
+            i = e;
+            col++;
+        }
+        if (col > lc) lc = col;
+        // Padding empty columns
+        if (lc > 0) for (; column < lc; ) separator();
+        write(LINE_SEPARATOR, 0, LINE_SEPARATOR.length);
+    }
+
+    // Transcode a cell, the value is between [a, b)
+    private void cell(char t, int xf, int col, int a, int b) throws IOException {
+        // Find the value tag, <t> for inline string and <v> for others
+        byte tag = (byte) (t == 'i' ? 't' : 'v');
+        int i = a;
+        for (; i < b - 2 && !(cb[i] == '<' && cb[i + 1] == tag && (cb[i + 2] == '>' || cb[i + 2] <= ' ')); i++) ;
+        if (i >= b - 2) return;
+        for (; cb[i] != '>'; i++) ;
+        if (cb[i - 1] == '/') return;
+        int v = ++i;
+        for (; i < b - 1 && !(cb[i] == '<' && cb[i + 1] == '/'); i++) ;
+        if (i == v) return;
+
+        // Write the separators until the cell
+        for (; column <= col; ) separator();
+        switch (t) {
+            case 's': text(sst.get(toInt(cb, v, i)));          break;
+            case 'i':
+            case 'f': text(unescape(buf, cb, v, i));           break;
+            case 'b': bytes(i - v == 1 && cb[v] == '1' ? TRUE : FALSE); break;
+            // Numeric, error and ISO 8601 date
+            default : number(xf, v, i);
+        }
+    }
+
+    // Copy the number verbatim, it is formatted if the style is date
+    private void number(int xf, int a, int b) throws IOException {
+        if (styles != null && styles.fastTestDateFmt(xf)) {
+            boolean integer = true;
+            for (int i = cb[a] == '-' ? a + 1 : a; i < b && integer; i++) integer = cb[i] >= '0' && cb[i] <= '9';
+            String s = null;
+            try {
+                if (integer) {
+                    long n = Long.parseLong(new String(cb, a, b - a, StandardCharsets.US_ASCII));
+                    if (n >= Integer.MIN_VALUE && n <= Integer.MAX_VALUE) s = toLocalDate((int) n).toString();
+                } else s = toTimestamp(Double.parseDouble(new String(cb, a, b - a, StandardCharsets.US_ASCII))).toString();
+            } catch (NumberFormatException e) {
+                // Not a number, copy it as string
+            }
+            if (s != null) {
+                text(s);
+                return;
+            }
+        }
+        escape(cb, a, b);
+    }
+
+    private void text(String s) throws IOException {
+        if (s == null || s.isEmpty()) return;
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        escape(bytes, 0, bytes.length);
+    }
+
+    private void bytes(byte[] bytes) throws IOException {
+        write(bytes, 0, bytes.length);
+    }
+
+    /*
+     * The same rules as CSVUtil.Writer, quoted if it contains the double-quote,
+     * line-feed, tab or comma, and a double-quote is represented by two double-quotes.
+     * All of them are ASCII so the UTF-8 bytes can be tested one by one.
+     */
+    private void escape(byte[] bytes, int a, int b) throws IOException {
+        boolean quoted = false;
+        for (int i = a; i < b; i++) {
+            byte c = bytes[i];
+            if (c == QUOTE || c == '\n' || c == '\t' || c == COMMA) {
+                quoted = true;
+                break;
+            }
+        }
+        if (!quoted) {
+            write(bytes, a, b - a);
+            return;
+        }
+        write(QUOTE);
+        for (int i = a, last = a; ; i++) {
+            if (i == b || bytes[i] == QUOTE) {
+                write(bytes, last, i - last);
+                if (i == b) break;
+                write(QUOTE);
+                write(QUOTE);
+                last = i + 1;
+            }
+        }
+        write(QUOTE);
+    }
+
+    // Start a new column
+    private void separator() throws IOException {
+        if (column++ > 0) write(COMMA);
+    }
+
+    private void write(byte b) throws IOException {
+        if (offset == ob.length) flush();
+        ob[offset++] = b;
+    }
+
+    private void write(byte[] bytes, int off, int len) throws IOException {
+        if (len > ob.length - offset) {
+            flush();
+            if (len > ob.length) {
+                os.write(bytes, off, len);
+                return;
+            }
+        }
+        System.arraycopy(bytes, off, ob, offset, len);
+        offset += len;
+    }
+
+    private void flush() throws IOException {
+        if (offset > 0) {
+            os.write(ob, 0, offset);
+            offset = 0;
+        }
+    }
+
+    // Returns the index of key in buffer, or -1 if not found
+    private int find(String key) {
+        for (int i = nChar, n = length - key.length(); i <= n; i++) {
+            int j = 0;
+            for (; j < key.length() && cb[i + j] == key.charAt(j); j++) ;
+            if (j == key.length()) return i;
+        }
+        // Keep the tail which may contains part of key
+        nChar = Math.max(nChar, length - key.length());
+        return -1;
+    }
+
+    /**
+     * Keep the unread bytes from {@code nChar} and read more, the buffer is
+     * doubled if it is full.
+     *
+     * @return false if end of stream
+     */
+    private boolean fill(InputStream is) throws IOException {
+        int n = length - nChar;
+        if (nChar == 0) {
+            if (n == cb.length) cb = Arrays.copyOf(cb, cb.length << 1);
+        } else {
+            System.arraycopy(cb, nChar, cb, 0, n);
+        }
+        nChar = 0;
+        int len = XMLSheet.read(is, cb, n, cb.length - n);
+        if (len <= 0) {
+            length = n;
+            return false;
+        }
+        length = n + len;
+        return true;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import java.util.Arrays;
+
+/**
+ * A block of rows stored by columns, each column of {@link Schema} is
+ * decoded into a primitive vector and a validity bitmap.
+ * <p>
+ * The vectors are allocated once with the batch size and reused by the
+ * next batch, so copy the values if they are needed after the iterator
+ * moves. The value at a null position is undefined.
+ *
+ * @author guanquan.wang at 2023-03-13 11:25
+ */
+public class ColumnBatch {
+    private final Schema schema;
+    private final SharedStrings sst;
+    private final Object[] vectors;
+    // The inline strings and the strings are not in SST
+    private final String[][] strings;
+    // One bit per row, set if the value is not null
+    private final long[][] validity;
+    private final int[] rowNums;
+    int size;
+
+    ColumnBatch(Schema schema, int capacity, SharedStrings sst) {
+        if (schema.size() == 0) {
+            throw new IllegalArgumentException("The schema must not be empty.");
+        }
+        this.schema = schema;
+        this.sst = sst;
+        int n = schema.size();
+        vectors = new Object[n];
+        strings = new String[n][];
+        validity = new long[n][(capacity + 63) >>> 6];
+        rowNums = new int[capacity];
+        for (int i = 0; i < n; i++) {
+            switch (schema.getType(i)) {
+                case INT:
+                case STRING:  vectors[i] = new int[capacity];     break;
+                case LONG:    vectors[i] = new long[capacity];    break;
+                case DOUBLE:  vectors[i] = new double[capacity];  break;
+                case BOOLEAN: vectors[i] = new boolean[capacity]; break;
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link Schema} of this batch
+     *
+     * @return the schema
+     */
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Returns the number of rows in this batch
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the row number (one base) of the row in batch
+     *
+     * @param row the row index in batch
+     * @return the row number
+     */
+    public int getRowNum(int row) {
+        return rowNums[row];
+    }
+
+    /**
+     * Test the value is null
+     *
+     * @param i   the vector index
+     * @param row the row index in batch
+     * @return true if the cell is empty or can not be converted to the vector type
+     */
+    public boolean isNull(int i, int row) {
+        return (validity[i][row >>> 6] & 1L << row) == 0L;
+    }
+
+    /**
+     * Returns the validity bitmap, the bit {@code row & 63} of
+     * {@code bitmap[row >>> 6]} is set if the value is not null
+     *
+     * @param i the vector index
+     * @return the validity bitmap
+     */
+    public long[] getValidity(int i) {
+        return validity[i];
+    }
+
+    /**
+     * Returns the vector of {@link Schema.Type#INT} or the Shared String Table
+     * indexes of {@link Schema.Type#STRING}
+     *
+     * @param i the vector index
+     * @return the int vector
+     */
+    public int[] getInts(int i) {
+        return (int[]) vector(i, Schema.Type.INT, Schema.Type.STRING);
+    }
+
+    /**
+     * Returns the vector of {@link Schema.Type#LONG}
+     *
+     * @param i the vector index
+     * @return the long vector
+     */
+    public long[] getLongs(int i) {
+        return (long[]) vector(i, Schema.Type.LONG, Schema.Type.LONG);
+    }
+
+    /**
+     * Returns the vector of {@link Schema.Type#DOUBLE}
+     *
+     * @param i the vector index
+     * @return the double vector
+     */
+    public double[] getDoubles(int i) {
+        return (double[]) vector(i, Schema.Type.DOUBLE, Schema.Type.DOUBLE);
+    }
+
+    /**
+     * Returns the vector of {@link Schema.Type#BOOLEAN}
+     *
+     * @param i the vector index
+     * @return the boolean vector
+     */
+    public boolean[] getBooleans(int i) {
+        return (boolean[]) vector(i, Schema.Type.BOOLEAN, Schema.Type.BOOLEAN);
+    }
+
+    /**
+     * Returns the string value of {@link Schema.Type#STRING}, the
+     * shared string is read from the Shared String Table
+     *
+     * @param i   the vector index
+     * @param row the row index in batch
+     * @return the string value, or null if the value is null
+     */
+    public String getString(int i, int row) {
+        int[] indexes = (int[]) vector(i, Schema.Type.STRING, Schema.Type.STRING);
+        if (isNull(i, row)) return null;
+        int index = indexes[row];
+        return index >= 0 ? sst.get(index) : strings[i][row];
+    }
+
+    private Object vector(int i, Schema.Type a, Schema.Type b) {
+        Schema.Type type = schema.getType(i);
+        if (type != a && type != b) {
+            throw new IllegalArgumentException("The vector[" + i + "] is " + type);
+        }
+        return vectors[i];
+    }
+
+    /////////////////////////////Fill by row/////////////////////////////
+
+    // Reset for the next batch
+    void clear() {
+        size = 0;
+        for (long[] bits : validity) Arrays.fill(bits, 0L);
+    }
+
+    Schema.Type typeOf(int i) {
+        return schema.getType(i);
+    }
+
+    void setRowNum(int row, int rowNum) {
+        rowNums[row] = rowNum;
+    }
+
+    void setLong(int i, int row, long v) {
+        switch (schema.getType(i)) {
+            case INT:     ((int[]) vectors[i])[row] = (int) v;        break;
+            case LONG:    ((long[]) vectors[i])[row] = v;             break;
+            case DOUBLE:  ((double[]) vectors[i])[row] = v;           break;
+            case BOOLEAN: ((boolean[]) vectors[i])[row] = v != 0L;    break;
+            // The same as Row#getString
+            case STRING:  setString(i, row, String.valueOf(v));       return;
+            default: return;
+        }
+        valid(i, row);
+    }
+
+    void setDouble(int i, int row, double v) {
+        switch (schema.getType(i)) {
+            case INT:     ((int[]) vectors[i])[row] = (int) v;        break;
+            case LONG:    ((long[]) vectors[i])[row] = (long) v;      break;
+            case DOUBLE:  ((double[]) vectors[i])[row] = v;           break;
+            case BOOLEAN: ((boolean[]) vectors[i])[row] = v != 0.0D;  break;
+            // The same as Row#getString
+            case STRING:  setString(i, row, String.valueOf(v));       return;
+            default: return;
+        }
+        valid(i, row);
+    }
+
+    void setIndex(int i, int row, int index) {
+        ((int[]) vectors[i])[row] = index;
+        valid(i, row);
+    }
+
+    void setString(int i, int row, String v) {
+        String[] array = strings[i];
+        if (array == null) strings[i] = array = new String[rowNums.length];
+        array[row] = v;
+        ((int[]) vectors[i])[row] = -1;
+        valid(i, row);
+    }
+
+    private void valid(int i, int row) {
+        validity[i][row >>> 6] |= 1L << row;
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import org.ttzero.excel.annotation.RowNum;
+import org.ttzero.excel.entity.ListSheet;
+import org.ttzero.excel.util.ClassMeta;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+
+import static org.ttzero.excel.reader.Cell.DOUBLE;
+import static org.ttzero.excel.reader.Cell.LONG;
+import static org.ttzero.excel.reader.Cell.NUMERIC;
+
+/**
+ * A compiled setter of the bean column, the value type is resolved
+ * into a type code once and the value is set by a functional interface
+ * instead of {@code Field.set} or {@code Method.invoke}.
+ * <p>
+ * The public setter methods are spun by {@link LambdaMetafactory} into
+ * {@link ObjIntConsumer}, {@link ObjLongConsumer}, {@link ObjDoubleConsumer}
+ * or {@link BiConsumer}, so the int, long and double values are never boxed.
+ * The fields and the other methods are set by the {@link MethodHandle}
+ * which is adapted to the same interfaces.
+ *
+ * @author guanquan.wang at 2023-03-15 10:20
+ */
+final class ColumnSetter {
+    // Type codes
+    static final byte UNKNOWN = 0, STRING = 1, INTEGER = 2, LONG_OBJ = 3, DATE = 4, TIMESTAMP = 5
+        , DOUBLE_OBJ = 6, FLOAT_OBJ = 7, BOOLEAN_OBJ = 8, DECIMAL = 9, INT = 10, PRIMITIVE_LONG = 11
+        , PRIMITIVE_DOUBLE = 12, FLOAT = 13, BOOLEAN = 14, TIME = 15, LOCAL_DATE_TIME = 16, LOCAL_DATE = 17
+        , LOCAL_TIME = 18, CHARACTER = 19, BYTE_OBJ = 20, SHORT_OBJ = 21, CHAR = 22, BYTE = 23, SHORT = 24
+        , ROW_NUM = 25, ROW_NUM_INT = 26;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * The type code
+     */
+    final byte code;
+    /**
+     * The column index in row
+     */
+    final int colIndex;
+    private final BiConsumer<Object, Object> objectSetter;
+    private final ObjIntConsumer<Object> intSetter;
+    private final ObjLongConsumer<Object> longSetter;
+    private final ObjDoubleConsumer<Object> doubleSetter;
+
+    @SuppressWarnings("unchecked")
+    private ColumnSetter(byte code, int colIndex, Object setter) {
+        this.code = code;
+        this.colIndex = colIndex;
+        this.intSetter = setter instanceof ObjIntConsumer ? (ObjIntConsumer<Object>) setter : null;
+        this.longSetter = setter instanceof ObjLongConsumer ? (ObjLongConsumer<Object>) setter : null;
+        this.doubleSetter = setter instanceof ObjDoubleConsumer ? (ObjDoubleConsumer<Object>) setter : null;
+        this.objectSetter = setter instanceof BiConsumer ? (BiConsumer<Object, Object>) setter : null;
+    }
+
+    /**
+     * Compile the setter of column
+     *
+     * @param ec the column with a setter method or field
+     * @return the {@link ColumnSetter}, or null if it can not be compiled
+     */
+    static ColumnSetter of(ListSheet.EntryColumn ec) {
+        if (ec.method == null && ec.field == null) return null;
+        Class<?> type = ec.method != null ? ec.method.getParameterTypes()[0] : ec.field.getType();
+        byte code = typeCode(ec.clazz);
+        if (code == ROW_NUM && (type == int.class || type == long.class)) code = ROW_NUM_INT;
+        if (code == UNKNOWN) return null;
+        Class<?> sam;
+        MethodType samType;
+        switch (code) {
+            case INT:
+            case ROW_NUM_INT:
+                sam = ObjIntConsumer.class;
+                samType = MethodType.methodType(void.class, Object.class, int.class);
+                break;
+            case PRIMITIVE_LONG:
+                sam = ObjLongConsumer.class;
+                samType = MethodType.methodType(void.class, Object.class, long.class);
+                break;
+            case PRIMITIVE_DOUBLE:
+                sam = ObjDoubleConsumer.class;
+                samType = MethodType.methodType(void.class, Object.class, double.class);
+                break;
+            default:
+                sam = BiConsumer.class;
+                samType = MethodType.methodType(void.class, Object.class, Object.class);
+        }
+        Method method = ec.method;
+        Field field = ec.field;
+        Member member = method != null ? method : field;
+        // The accessor is shared by all header rows of the class
+        Object setter = ClassMeta.of(member.getDeclaringClass()).computeIfAbsent(Arrays.asList(ColumnSetter.class, member, sam)
+            , k -> compile(method, field, sam, samType));
+        // Fallback to reflect
+        return setter != null ? new ColumnSetter(code, ec.colIndex, setter) : null;
+    }
+
+    private static Object compile(Method method, Field field, Class<?> sam, MethodType samType) {
+        try {
+            Object setter = method != null ? spin(method, sam, samType) : null;
+            if (setter == null) {
+                MethodHandle mh = method != null ? LOOKUP.unreflect(method) : LOOKUP.unreflectSetter(field);
+                setter = adapt(mh.asType(samType), sam);
+            }
+            return setter;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    // Spin the public setter method into the functional interface
+    private static Object spin(Method method, Class<?> sam, MethodType samType) throws Throwable {
+        Class<?> declaring = method.getDeclaringClass();
+        // The lambda is defined in the loader of this class, the bean class must be visible
+        if (!Modifier.isPublic(declaring.getModifiers()) || !Modifier.isPublic(method.getModifiers())
+            || !isVisible(declaring)) return null;
+        MethodHandle impl = LOOKUP.unreflect(method);
+        Class<?> p = method.getParameterTypes()[0];
+        MethodType instantiated = MethodType.methodType(void.class, declaring
+            , sam == BiConsumer.class ? MethodType.methodType(p).wrap().returnType() : samType.parameterType(1));
+        return LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(sam)
+            , samType, impl, instantiated).getTarget().invoke();
+    }
+
+    private static boolean isVisible(Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, ColumnSetter.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    // Adapt the method handle to the functional interface
+    private static Object adapt(MethodHandle mh, Class<?> sam) {
+        if (sam == ObjIntConsumer.class) return (ObjIntConsumer<Object>) (o, v) -> {
+            try {
+                mh.invokeExact(o, v);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+        if (sam == ObjLongConsumer.class) return (ObjLongConsumer<Object>) (o, v) -> {
+            try {
+                mh.invokeExact(o, v);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+        if (sam == ObjDoubleConsumer.class) return (ObjDoubleConsumer<Object>) (o, v) -> {
+            try {
+                mh.invokeExact(o, v);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+        return (BiConsumer<Object, Object>) (o, v) -> {
+            try {
+                mh.invokeExact(o, v);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    // Throw the original exception, it is wrapped by the callers of set
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException rethrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+    /**
+     * Returns the type code of the column class
+     *
+     * @param clazz the column class
+     * @return the type code, {@link #UNKNOWN} if not support
+     */
+    static byte typeCode(Class<?> clazz) {
+        if (clazz == String.class) return STRING;
+        if (clazz == Integer.class) return INTEGER;
+        if (clazz == Long.class) return LONG_OBJ;
+        if (clazz == java.util.Date.class || clazz == java.sql.Date.class) return DATE;
+        if (clazz == java.sql.Timestamp.class) return TIMESTAMP;
+        if (clazz == Double.class) return DOUBLE_OBJ;
+        if (clazz == Float.class) return FLOAT_OBJ;
+        if (clazz == Boolean.class) return BOOLEAN_OBJ;
+        if (clazz == BigDecimal.class) return DECIMAL;
+        if (clazz == int.class) return INT;
+        if (clazz == long.class) return PRIMITIVE_LONG;
+        if (clazz == double.class) return PRIMITIVE_DOUBLE;
+        if (clazz == float.class) return FLOAT;
+        if (clazz == boolean.class) return BOOLEAN;
+        if (clazz == java.sql.Time.class) return TIME;
+        if (clazz == LocalDateTime.class) return LOCAL_DATE_TIME;
+        if (clazz == LocalDate.class) return LOCAL_DATE;
+        if (clazz == LocalTime.class) return LOCAL_TIME;
+        if (clazz == Character.class) return CHARACTER;
+        if (clazz == Byte.class) return BYTE_OBJ;
+        if (clazz == Short.class) return SHORT_OBJ;
+        if (clazz == char.class) return CHAR;
+        if (clazz == byte.class) return BYTE;
+        if (clazz == short.class) return SHORT;
+        if (clazz == RowNum.class) return ROW_NUM;
+        return UNKNOWN;
+    }
+
+    /**
+     * Read the value from row and set into the object
+     *
+     * @param row the row
+     * @param t   the object to set
+     * @throws InvocationTargetException if the setter throws an exception
+     */
+    void set(Row row, Object t) throws InvocationTargetException {
+        int c = colIndex;
+        Cell cell;
+        switch (code) {
+            case STRING:           setObject(t, row.getString(c));        break;
+            case INTEGER:          setObject(t, row.getInt(c));           break;
+            case LONG_OBJ:         setObject(t, row.getLong(c));          break;
+            case DATE:             setObject(t, row.getDate(c));          break;
+            case TIMESTAMP:        setObject(t, row.getTimestamp(c));     break;
+            case DOUBLE_OBJ:       setObject(t, row.getDouble(c));        break;
+            case FLOAT_OBJ:        setObject(t, row.getFloat(c));         break;
+            case BOOLEAN_OBJ:      setObject(t, row.getBoolean(c));       break;
+            case DECIMAL:          setObject(t, row.getDecimal(c));       break;
+            case INT:
+                cell = row.getCell(c);
+                if (cell.t == NUMERIC) setInt(t, cell.nv);
+                else {
+                    Integer v = row.getInt(cell);
+                    setInt(t, v != null ? v : 0);
+                }
+                break;
+            case PRIMITIVE_LONG:
+                cell = row.getCell(c);
+                if (cell.t == LONG) setLong(t, cell.lv);
+                else if (cell.t == NUMERIC) setLong(t, cell.nv);
+                else {
+                    Long v = row.getLong(cell);
+                    setLong(t, v != null ? v : 0L);
+                }
+                break;
+            case PRIMITIVE_DOUBLE:
+                cell = row.getCell(c);
+                if (cell.t == DOUBLE) setDouble(t, cell.dv);
+                else if (cell.t == NUMERIC) setDouble(t, cell.nv);
+                else {
+                    Double v = row.getDouble(cell);
+                    setDouble(t, v != null ? v : 0.0D);
+                }
+                break;
+            case FLOAT: {
+                Float v = row.getFloat(c);
+                setObject(t, v != null ? v : 0.0F);
+                break;
+            }
+            case BOOLEAN: {
+                Boolean v = row.getBoolean(c);
+                setObject(t, v != null ? v : false);
+                break;
+            }
+            case TIME:             setObject(t, row.getTime(c));          break;
+            case LOCAL_DATE_TIME:  setObject(t, row.getLocalDateTime(c)); break;
+            case LOCAL_DATE:       setObject(t, row.getLocalDate(c));     break;
+            case LOCAL_TIME:       setObject(t, row.getLocalTime(c));     break;
+            case CHARACTER:        setObject(t, row.getChar(c));          break;
+            case BYTE_OBJ:         setObject(t, row.getByte(c));          break;
+            case SHORT_OBJ:        setObject(t, row.getShort(c));         break;
+            case CHAR: {
+                Character v = row.getChar(c);
+                setObject(t, v != null ? v : '\0');
+                break;
+            }
+            case BYTE: {
+                Byte v = row.getByte(c);
+                setObject(t, v != null ? v : (byte) 0);
+                break;
+            }
+            case SHORT: {
+                Short v = row.getShort(c);
+                setObject(t, v != null ? v : (short) 0);
+                break;
+            }
+            case ROW_NUM:          setObject(t, row.getRowNum());         break;
+            case ROW_NUM_INT:      setInt(t, row.getRowNum());            break;
+            default:
+        }
+    }
+
+    // The exceptions thrown by the setter are wrapped like Method#invoke,
+    // the exceptions thrown when reading the value are not
+    private void setObject(Object t, Object v) throws InvocationTargetException {
+        try {
+            objectSetter.accept(t, v);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private void setInt(Object t, int v) throws InvocationTargetException {
+        try {
+            intSetter.accept(t, v);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private void setLong(Object t, long v) throws InvocationTargetException {
+        try {
+            longSetter.accept(t, v);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private void setDouble(Object t, double v) throws InvocationTargetException {
+        try {
+            doubleSetter.accept(t, v);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+}
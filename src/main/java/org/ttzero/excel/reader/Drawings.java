@@ -17,10 +17,26 @@
 
 package org.ttzero.excel.reader;
 
+import org.ttzero.excel.util.FileUtil;
 import org.ttzero.excel.util.StringUtil;
+import org.ttzero.excel.util.ZipIndex;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -48,6 +64,54 @@ public interface Drawings {
             pictures.stream().filter(p -> p.getSheet().getId() == sheet.getId()).collect(Collectors.toList());
     }
 
+    /**
+     * Copy all pictures to the target directory in parallel on the given
+     * {@link Executor}, this method blocks until all pictures are copied.
+     * <p>
+     * The pictures are opened by {@link Picture#openStream()}, so on
+     * {@link ExcelReader#READ_FROM_ZIP} mode only the pictures are inflated,
+     * the worksheets are untouched. The picture shared by several worksheets
+     * is copied once, and the file name is the same as it in the archive,
+     * a number is appended to the name if it is taken by another picture
+     * like {@code image1_1.png}.
+     *
+     * @param dest the target directory
+     * @param executor the executor to run the tasks
+     * @return the copied files in the order of {@link #listPictures()}
+     * @throws IOException if I/O error occur
+     */
+    default List<Path> extractPictures(Path dest, Executor executor) throws IOException {
+        List<Picture> pictures = listPictures();
+        if (pictures == null) return Collections.emptyList();
+        if (!Files.exists(dest)) FileUtil.mkdir(dest);
+        Map<Path, Picture> distinct = new LinkedHashMap<>();
+        for (Picture picture : pictures) distinct.putIfAbsent(picture.localPath.normalize(), picture);
+
+        List<CompletableFuture<Path>> futures = new ArrayList<>(distinct.size());
+        Set<String> names = new HashSet<>();
+        for (Picture picture : distinct.values()) {
+            // The pictures with the same name in different directories are numbered
+            String name = picture.localPath.getFileName().toString();
+            int i = name.lastIndexOf('.');
+            String prefix = i > 0 ? name.substring(0, i) : name, suffix = i > 0 ? name.substring(i) : "";
+            for (int n = 1; !names.add(name.toLowerCase()); n++) name = prefix + "_" + n + suffix;
+            Path target = dest.resolve(name);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try (InputStream is = picture.openStream()) {
+                    Files.copy(is, target, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return target;
+            }, executor));
+        }
+        try {
+            return ExcelReader.joinAll(futures);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
     class Picture {
         /**
          * Specify the {@link Sheet} which contains the picture
@@ -58,7 +122,8 @@ public interface Drawings {
          */
         Dimension dimension;
         /**
-         * The local temporary path
+         * The local temporary path, or the part name relative to the archive
+         * root on {@link ExcelReader#READ_FROM_ZIP} mode
          */
         Path localPath;
         /**
@@ -69,6 +134,10 @@ public interface Drawings {
          * Is background picture
          */
         boolean background;
+        /**
+         * The archive index, the picture is inflated from archive directly if not null
+         */
+        ZipIndex zip;
 
         public Sheet getSheet() {
             return sheet;
@@ -90,6 +159,21 @@ public interface Drawings {
             return background;
         }
 
+        /**
+         * Open the picture stream, it is inflated from the archive directly
+         * on {@link ExcelReader#READ_FROM_ZIP} mode, the streams of different
+         * pictures can be read concurrently.
+         *
+         * @return the {@link InputStream} of picture
+         * @throws IOException if I/O error occur
+         */
+        public InputStream openStream() throws IOException {
+            if (zip == null) return Files.newInputStream(localPath);
+            ZipIndex.Entry entry = zip.getEntry(localPath);
+            if (entry == null) throw new NoSuchFileException(localPath.toString());
+            return zip.getInputStream(entry);
+        }
+
         @Override
         public String toString() {
             return background ? "Background picture [" + localPath + "] in worksheet " + sheet.getName() + (StringUtil.isNotEmpty(srcUrl) ? " from internet url " + srcUrl : "")
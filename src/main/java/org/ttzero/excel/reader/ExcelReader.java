@@ -16,16 +16,8 @@
 
 package org.ttzero.excel.reader;
 
-import org.dom4j.Document;
-import org.dom4j.DocumentException;
-import org.dom4j.Element;
-import org.dom4j.Namespace;
-import org.dom4j.QName;
-import org.dom4j.io.SAXReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.ttzero.excel.annotation.NS;
-import org.ttzero.excel.annotation.TopNS;
 import org.ttzero.excel.entity.IWorkbookWriter;
 import org.ttzero.excel.entity.Relationship;
 import org.ttzero.excel.entity.e7.ContentType;
@@ -37,23 +29,30 @@ import org.ttzero.excel.manager.docProps.App;
 import org.ttzero.excel.manager.docProps.Core;
 import org.ttzero.excel.util.FileUtil;
 import org.ttzero.excel.util.StringUtil;
+import org.ttzero.excel.util.XMLPullParser;
+import org.ttzero.excel.util.ZipIndex;
 import org.ttzero.excel.util.ZipUtil;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.UncheckedIOException;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Date;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -61,6 +60,10 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -103,6 +106,36 @@ public class ExcelReader implements Closeable {
      * Copy value on merge cells
      */
     public static final int COPY_ON_MERGED = 1 << 2;
+    /**
+     * Read parts straight out of the archive, nothing will be unzipped
+     * to the temp directory. The worksheets, shared strings and styles
+     * are opened as inflating streams when they are used, and the
+     * worksheets are located by the index of the central directory,
+     * so reading one sheet costs only one inflate of that part.
+     * <p>
+     * The paths of worksheets and pictures are the part names relative
+     * to the archive root like {@code xl/media/image1.png}, they do not
+     * exist on disk and are read by the reader or {@link Drawings.Picture#openStream()}.
+     */
+    public static final int READ_FROM_ZIP = 1 << 3;
+    /**
+     * Read the {@link InputStream} in a single pass without copying it
+     * to a temp file. The {@code workbook.xml}, {@code sharedStrings.xml}
+     * and {@code styles.xml} are parsed as they pass, only the worksheets
+     * which arrive before the metadata are spilled to disk. The worksheets
+     * read straight from the stream are forward only and must be read in
+     * order, {@link Sheet#reset()} on them throws {@link UnsupportedOperationException},
+     * it only works with {@link #VALUE_ONLY} and is ignored when
+     * reading from a {@link Path}.
+     */
+    public static final int READ_FROM_STREAM = 1 << 4;
+    /**
+     * Read the worksheet ahead in a background thread, the next chunks
+     * are read and inflated into a ring of buffers while the rows of the
+     * current chunk are parsed. It costs one thread per opening worksheet
+     * and is ignored by {@link #READ_FROM_STREAM}.
+     */
+    public static final int READ_AHEAD = 1 << 5;
 
     protected ExcelReader() { }
 
@@ -111,11 +144,19 @@ public class ExcelReader implements Closeable {
     private Path temp;
     private ExcelType type;
     private AppInfo appInfo;
+    /**
+     * Mark the reader closed, guarded by this
+     */
+    protected boolean closed;
 
     /**
      * The Shared String Table
      */
-    private SharedStrings sst;
+    protected SharedStrings sst;
+    /**
+     * The archive index, only used on {@link #READ_FROM_ZIP} mode
+     */
+    protected ZipIndex zip;
 
     /**
      * Reader Option
@@ -123,6 +164,9 @@ public class ExcelReader implements Closeable {
      * <li>0: only parse cell value (default)</li>
      * <li>2: parse cell value and calc</li>
      * <li>4: copy value on merge cells</li>
+     * <li>8: read parts from the archive directly</li>
+     * <li>16: read the input stream in a single pass</li>
+     * <li>32: read the worksheet ahead in a background thread</li>
      * </ul>
      *
      * These attributes can be combined via `|`,
@@ -245,6 +289,20 @@ public class ExcelReader implements Closeable {
      * @throws IOException if I/O error occur
      */
     public static ExcelReader read(InputStream stream, int bufferSize, int cacheSize, int option) throws IOException {
+        // Parse the stream in a single pass, only the Office Open XML is supported
+        if ((option & READ_FROM_STREAM) == READ_FROM_STREAM && (option & (VALUE_AND_CALC | COPY_ON_MERGED)) == 0) {
+            BufferedInputStream bis = stream instanceof BufferedInputStream ? (BufferedInputStream) stream : new BufferedInputStream(stream);
+            byte[] bytes = new byte[8];
+            bis.mark(bytes.length);
+            int len = bis.read(bytes);
+            bis.reset();
+            if (typeOfStream(bytes, len) == ExcelType.XLSX) {
+                ExcelReader er = new ExcelStreamReader(bis, bufferSize, cacheSize, option);
+                er.type = ExcelType.XLSX;
+                return er;
+            }
+            stream = bis;
+        }
         Path temp = FileUtil.mktmp(Const.EEC_PREFIX);
         if (temp == null) {
             throw new IOException("Create temp directory error. Please check your permission");
@@ -290,6 +348,90 @@ public class ExcelReader implements Closeable {
             , Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
 
+    /**
+     * Process the worksheets in parallel on the given {@link Executor}.
+     * Each worksheet is loaded and applied to the function in its own task,
+     * this method blocks until all tasks are done.
+     * <p>
+     * The shared strings and styles are shared by all worksheets, they are
+     * safe to be read concurrently. If any function throws an exception,
+     * it is rethrown after all tasks are done.
+     *
+     * <blockquote><pre>
+     * ExecutorService executor = Executors.newFixedThreadPool(4);
+     * try (ExcelReader reader = ExcelReader.read(path)) {
+     *     List&lt;Long&gt; counts = reader.sheets(executor, sheet -&gt; sheet.dataRows().count());
+     * }</pre></blockquote>
+     *
+     * @param executor the executor to run the tasks
+     * @param function the function to process a worksheet
+     * @param <R> the type of the result
+     * @return the results in the order of worksheets
+     */
+    public <R> List<R> sheets(Executor executor, Function<? super Sheet, ? extends R> function) {
+        List<CompletableFuture<? extends R>> futures = new ArrayList<>(sheets.length);
+        for (Sheet sheet : sheets) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return function.apply(sheet.load());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, executor));
+        }
+        return joinAll(futures);
+    }
+
+    /**
+     * Transcode all worksheets to UTF-8 Comma-Separated Values in parallel
+     * on the given {@link Executor}, each worksheet corresponds to a csv file
+     * named by the worksheet name. This method blocks until all worksheets
+     * are done, see {@link Sheet#transcodeToCSV(java.io.OutputStream)}
+     *
+     * @param path the output directory
+     * @param executor the executor to run the tasks
+     * @return the csv files in the order of worksheets
+     * @throws IOException if I/O error occur.
+     */
+    public List<Path> saveAsCSV(Path path, Executor executor) throws IOException {
+        if (!exists(path)) {
+            FileUtil.mkdir(path);
+        }
+        List<CompletableFuture<Path>> futures = new ArrayList<>(sheets.length);
+        for (Sheet sheet : sheets) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    sheet.transcodeToCSV(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return path.resolve(sheet.getName() + Const.Suffix.CSV);
+            }, executor));
+        }
+        try {
+            return joinAll(futures);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Wait for all tasks done and returns the results, the first exception is rethrown
+    static <R> List<R> joinAll(List<? extends CompletableFuture<? extends R>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new ExcelReadException(cause);
+        }
+        List<R> list = new ArrayList<>(futures.size());
+        for (CompletableFuture<? extends R> future : futures) {
+            list.add(future.join());
+        }
+        return list;
+    }
+
     /**
      * get by index
      *
@@ -348,6 +490,10 @@ public class ExcelReader implements Closeable {
      */
     @Override
     public void close() throws IOException {
+        // Wait for the parsing general information
+        synchronized (this) {
+            closed = true;
+        }
         // Close all opened sheet
         for (Sheet st : sheets) {
             st.close();
@@ -357,9 +503,13 @@ public class ExcelReader implements Closeable {
         if (sst != null)
             sst.close();
 
+        // Close the archive
+        if (zip != null) {
+            zip.close();
+        }
         // Delete temp files
-        if (self != null) {
-            FileUtil.rm_rf(self.toFile(), true);
+        else if (self != null) {
+            removeTemp(self);
         }
         if (temp != null) {
             FileUtil.rm(temp);
@@ -367,12 +517,20 @@ public class ExcelReader implements Closeable {
     }
 
     /**
-     * General information like title,subject and creator
+     * General information like title,subject and creator, it is parsed
+     * on the first call and cached, so call it before {@link #close()}
+     * if the information is required
      *
      * @return the information
+     * @throws IllegalStateException if the reader is closed before the
+     *     information is parsed
      */
-    public AppInfo getAppInfo() {
-        return appInfo != null ? appInfo : (appInfo = getGeneralInfo(self));
+    public synchronized AppInfo getAppInfo() {
+        if (appInfo == null) {
+            if (closed) throw new IllegalStateException("The general information was not parsed before the reader closed.");
+            appInfo = getGeneralInfo(self);
+        }
+        return appInfo;
     }
 
     /**
@@ -398,7 +556,13 @@ public class ExcelReader implements Closeable {
     public ExcelReader parseFormula() {
         if (hasFormula) {
             // Formula string if exists
-            long[][] calcArray = parseCalcChain(self);
+            long[][] calcArray;
+            try (InputStream is = openPart(self.resolve("xl/calcChain.xml"))) {
+                calcArray = parseCalcChain(is);
+            } catch (IOException e) {
+                LOGGER.warn("Part of `calcChain` has be damaged, It will be ignore all formulas.");
+                calcArray = null;
+            }
 
             if (calcArray == null) return this;
             int i = 0;
@@ -454,23 +618,17 @@ public class ExcelReader implements Closeable {
             , Const.ContentType.SHAREDSTRING, Const.ContentType.SHEET, Const.ContentType.STYLE));
 
     protected ContentType checkContentType(Path root) {
-        SAXReader reader = new SAXReader();
-        Document document;
-        // Read [Content_Types].xml
-        try {
-            document = reader.read(Files.newInputStream(root.resolve("[Content_Types].xml")));
-        } catch (DocumentException | IOException e) {
-            FileUtil.rm_rf(root.toFile(), true);
-            throw new ExcelReadException("The file format is incorrect or corrupted. [[Content_Types].xml]");
-        }
         ContentType contentType = new ContentType();
-        List<Element> list = document.getRootElement().elements();
-        for (Element e : list) {
-            if ("Override".equals(e.getName())) {
-                ContentType.Override override = new ContentType.Override(e.attributeValue("ContentType"), e.attributeValue("PartName"));
-                if (!Files.exists(root.resolve(override.getPartName().substring(1)))) {
+        // Read [Content_Types].xml
+        try (InputStream is = openPart(root.resolve("[Content_Types].xml"))) {
+            XMLPullParser parser = new XMLPullParser(is);
+            if (parser.next() != XMLPullParser.START_TAG) throw new IOException("Missing root element.");
+            for (int e; (e = parser.next()) != XMLPullParser.END_DOCUMENT; ) {
+                if (e != XMLPullParser.START_TAG || parser.getDepth() != 2 || !parser.is("Override")) continue;
+                ContentType.Override override = new ContentType.Override(parser.getAttribute("ContentType"), parser.getAttribute("PartName"));
+                if (!existsPart(root.resolve(override.getPartName().substring(1)))) {
                     if (MUST_CHECK_PART.contains(override.getContentType())) {
-                        FileUtil.rm_rf(root.toFile(), true);
+                        removeTemp(root);
                         throw new ExcelReadException("The file format is incorrect or corrupted. [" + override.getPartName() + "]");
                     } else {
                         LOGGER.warn("{} is configured in [Content_Types].xml, but the corresponding file is missing.", override.getKey());
@@ -478,10 +636,32 @@ public class ExcelReader implements Closeable {
                 }
                 contentType.add(override);
             }
+        } catch (IOException e) {
+            removeTemp(root);
+            throw new ExcelReadException("The file format is incorrect or corrupted. [[Content_Types].xml]");
         }
         return contentType;
     }
 
+    /**
+     * Parse the worksheets in {@code workbook.xml}
+     *
+     * @param is the {@link InputStream} of {@code workbook.xml}
+     * @return each item contains the name, sheetId, state and relationship id
+     * @throws IOException if I/O error occur or the part is incorrect
+     */
+    static List<String[]> parseWorkbook(InputStream is) throws IOException {
+        XMLPullParser parser = new XMLPullParser(is);
+        List<String[]> list = new ArrayList<>();
+        for (int e; (e = parser.next()) != XMLPullParser.END_DOCUMENT; ) {
+            if (e == XMLPullParser.START_TAG && parser.getDepth() == 3 && parser.is("sheet")) {
+                list.add(new String[] { parser.getAttribute("name"), parser.getAttribute("sheetId")
+                    , parser.getAttribute("state"), parser.getAttribute("id") });
+            }
+        }
+        return list;
+    }
+
     public ExcelReader(InputStream is) throws IOException {
         this(is, 0, 0, VALUE_ONLY);
     }
@@ -513,71 +693,79 @@ public class ExcelReader implements Closeable {
     }
 
     protected ExcelReader init(Path path, int bufferSize, int cacheSize, int option) throws IOException {
-        // Store template stream as zip file
-        Path tmp = FileUtil.mktmp(Const.EEC_PREFIX);
-        LOGGER.debug("Unzip file to：{}", tmp);
-        ZipUtil.unzip(Files.newInputStream(path), tmp);
-        LOGGER.debug("Finished decompress. start to check the file integrity.");
+        Path tmp;
+        // Index the central directory once, all parts are inflated on demand
+        if ((option & READ_FROM_ZIP) == READ_FROM_ZIP) {
+            LOGGER.debug("Read from archive：{}", path);
+            zip = ZipIndex.open(path);
+            // The parts are named relative to the archive root
+            tmp = Paths.get("");
+        } else {
+            // Store template stream as zip file
+            tmp = FileUtil.mktmp(Const.EEC_PREFIX);
+            LOGGER.debug("Unzip file to：{}", tmp);
+            ZipUtil.unzip(Files.newInputStream(path), tmp);
+            LOGGER.debug("Finished decompress. start to check the file integrity.");
+        }
 
+        try {
+            return loadParts(tmp, bufferSize, cacheSize, option);
+        } catch (IOException | RuntimeException e) {
+            // Close the archive if it is not closed where the error is checked
+            if (zip != null) removeTemp(tmp);
+            throw e;
+        }
+    }
+
+    // Load the workbook parts in the root path
+    private ExcelReader loadParts(Path tmp, int bufferSize, int cacheSize, int option) throws IOException {
         // Check content-type
         ContentType contentType = checkContentType(tmp);
         if (contentType.hasDrawings()) {
             this.drawings = new XMLDrawings(this);
         }
 
-        // Check the file format and parse general information
-        try {
-            appInfo = getGeneralInfo(tmp);
-        } catch (Exception e) {
-            FileUtil.rm_rf(tmp.toFile(), true);
-            throw e;
-        }
-
         // load workbook.xml
-        SAXReader reader = new SAXReader();
-        Document document;
-        try {
-            document = reader.read(Files.newInputStream(tmp.resolve("xl/_rels/workbook.xml.rels")));
-        } catch (DocumentException | IOException e) {
-            FileUtil.rm_rf(tmp.toFile(), true);
+        RelManager relManager;
+        try (InputStream is = openPart(tmp.resolve("xl/_rels/workbook.xml.rels"))) {
+            relManager = RelManager.load(is);
+        } catch (IOException e) {
+            removeTemp(tmp);
             throw new ExcelReadException("The file format is incorrect or corrupted. [xl/_rels/workbook.xml.rels]");
         }
-        List<Element> list = document.getRootElement().elements();
-        Relationship[] rels = new Relationship[list.size()];
-        int i = 0;
-        for (Element e : list) {
-            rels[i++] = new Relationship(e.attributeValue("Id"), e.attributeValue("Target"), e.attributeValue("Type"));
-        }
-        RelManager relManager = RelManager.of(rels);
 
-        try {
-            document = reader.read(Files.newInputStream(tmp.resolve("xl/workbook.xml")));
-        } catch (DocumentException | IOException e) {
-            // read style file fail.
-            FileUtil.rm_rf(tmp.toFile(), true);
+        List<String[]> sheetList;
+        try (InputStream is = openPart(tmp.resolve("xl/workbook.xml"))) {
+            sheetList = parseWorkbook(is);
+        } catch (IOException e) {
+            removeTemp(tmp);
             throw new ExcelReadException("The file format is incorrect or corrupted. [xl/workbook.xml]");
         }
-        Element root = document.getRootElement();
-        Namespace ns = root.getNamespaceForPrefix("r");
 
         // Load SharedString
         Path ss = tmp.resolve("xl/sharedStrings.xml");
-        if (exists(ss)) {
-            sst = new SharedStrings(ss, bufferSize, cacheSize).load();
+        if (zip == null) {
+            if (exists(ss)) sst = new SharedStrings(ss, bufferSize, cacheSize).load();
+        } else if (existsPart(ss)) {
+            sst = new SharedStrings((Path) null, bufferSize, cacheSize)
+                .load(new BufferedReader(new InputStreamReader(openPart(ss), StandardCharsets.UTF_8)));
         }
 
         // Load Styles
         Path s = tmp.resolve("xl/styles.xml");
 
-        if (exists(s)) {
+        if (existsPart(s)) {
             try {
-                styles = Styles.load(s);
+                if (zip == null) styles = Styles.load(s);
+                else try (InputStream is = openPart(s)) {
+                    styles = Styles.load(is);
+                }
             } catch (Exception ex) {
                 LOGGER.warn("Parse style failed.", ex);
             }
         }
 //        else {
-//            FileUtil.rm_rf(tmp.toFile(), true);
+//            removeTemp(tmp);
 //            throw new ExcelReadException("The file format is incorrect or corrupted. [xl/styles.xml]");
 //        }
         // Construct a empty Styles
@@ -588,25 +776,24 @@ public class ExcelReader implements Closeable {
         // TODO Parse theme
 
         this.option = option;
-        hasFormula = exists(tmp.resolve("xl/calcChain.xml"));
+        hasFormula = existsPart(tmp.resolve("xl/calcChain.xml"));
 
         List<Sheet> sheets = new ArrayList<>();
-        Iterator<Element> sheetIter = root.element("sheets").elementIterator();
         int index = 0;
-        for (; sheetIter.hasNext(); ) {
-            Element e = sheetIter.next();
+        for (String[] e : sheetList) {
             XMLSheet sheet = (XMLSheet) sheetFactory(option);
-            sheet.setName(e.attributeValue("name"));
-            sheet.setId(Integer.parseInt(e.attributeValue("sheetId")));
-            String state = e.attributeValue("state");
-            sheet.setHidden("hidden".equals(state));
-            Relationship r = relManager.getById(e.attributeValue(QName.get("id", ns)));
+            sheet.setName(e[0]);
+            sheet.setId(Integer.parseInt(e[1]));
+            sheet.setHidden("hidden".equals(e[2]));
+            Relationship r = relManager.getById(e[3]);
             if (r == null) {
-                FileUtil.rm_rf(tmp.toFile(), true);
+                removeTemp(tmp);
                 sheet.close();
                 throw new ExcelReadException("The file format is incorrect or corrupted.");
             }
             sheet.setPath(tmp.resolve("xl").resolve(r.getTarget()));
+            sheet.setZip(zip);
+            sheet.setReadAhead((option & READ_AHEAD) == READ_AHEAD);
             // put shared string
             sheet.setSst(sst);
             // Setting styles
@@ -618,7 +805,7 @@ public class ExcelReader implements Closeable {
         }
 
         if (sheets.isEmpty()) {
-            FileUtil.rm_rf(tmp.toFile(), true);
+            removeTemp(tmp);
             throw new ExcelReadException("The file format is incorrect or corrupted. [There has no worksheet]");
         }
 
@@ -702,7 +889,7 @@ public class ExcelReader implements Closeable {
      */
     protected Sheet sheetFactory(int option) {
         XMLSheet sheet;
-        switch (option) {
+        switch (option & (VALUE_AND_CALC | COPY_ON_MERGED)) {
             case VALUE_AND_CALC: sheet = new XMLSheet().asCalcSheet(); break;
             case COPY_ON_MERGED: sheet = new XMLSheet().asMergeSheet(); break;
             // TODO full reader
@@ -758,59 +945,102 @@ public class ExcelReader implements Closeable {
         return excelType;
     }
 
+    /**
+     * Delete the unzipped temp files, or close the archive if
+     * the parts are read from the zip file directly
+     *
+     * @param root the root path of temp files
+     */
+    void removeTemp(Path root) {
+        if (zip != null) {
+            try {
+                zip.close();
+            } catch (IOException e) {
+                LOGGER.warn("Close archive {} failed.", zip, e);
+            }
+        } else FileUtil.rm_rf(root.toFile(), true);
+    }
+
+    /**
+     * Open a part of workbook, the part is inflated from the archive
+     * on {@link #READ_FROM_ZIP} mode
+     *
+     * @param path the path of part, it is relative to the archive root
+     *             on {@link #READ_FROM_ZIP} mode
+     * @return the {@link InputStream} of part
+     * @throws IOException if the part not exists or I/O error occur
+     */
+    protected InputStream openPart(Path path) throws IOException {
+        if (zip == null) return Files.newInputStream(path);
+        ZipIndex.Entry entry = zip.getEntry(path);
+        if (entry == null) throw new NoSuchFileException(path.toString());
+        return zip.getInputStream(entry);
+    }
+
+    /**
+     * Test if the part of workbook exists
+     *
+     * @param path the path of part, it is relative to the archive root
+     *             on {@link #READ_FROM_ZIP} mode
+     * @return true if the part exists
+     */
+    protected boolean existsPart(Path path) {
+        return zip == null ? exists(path) : zip.getEntry(path) != null;
+    }
+
     protected AppInfo getGeneralInfo(Path tmp) {
-        // load workbook.xml
-        SAXReader reader = new SAXReader();
-        Document document;
-        try {
-            document = reader.read(Files.newInputStream(tmp.resolve("docProps/app.xml")));
-        } catch (DocumentException | IOException e) {
+        App app = new App();
+        try (InputStream is = openPart(tmp.resolve("docProps/app.xml"))) {
+            XMLPullParser parser = new XMLPullParser(is);
+            for (int e; (e = parser.next()) != XMLPullParser.END_DOCUMENT; ) {
+                if (e != XMLPullParser.START_TAG || parser.getDepth() != 2) continue;
+                switch (parser.getName()) {
+                    case "Company"    : app.setCompany(parser.getText());     break;
+                    case "Application": app.setApplication(parser.getText()); break;
+                    case "AppVersion" :
+                        String v = parser.getText();
+                        if (StringUtil.isNotEmpty(v)) app.setAppVersion(v);
+                        break;
+                    default: parser.skip();
+                }
+            }
+        } catch (IOException e) {
             throw new ExcelReadException("The file format is incorrect or corrupted. [docProps/app.xml]");
         }
-        Element root = document.getRootElement();
-        App app = new App();
-        app.setCompany(root.elementText("Company"));
-        app.setApplication(root.elementText("Application"));
-        String v = root.elementText("AppVersion");
-        if (StringUtil.isNotEmpty(v)) app.setAppVersion(v);
 
-        try {
-            document = reader.read(Files.newInputStream(tmp.resolve("docProps/core.xml")));
-        } catch (DocumentException | IOException e) {
-            throw new ExcelReadException("The file format is incorrect or corrupted. [docProps/core.xml]");
-        }
-        root = document.getRootElement();
         Core core = new Core();
-        Class<Core> clazz = Core.class;
-        TopNS topNS = clazz.getAnnotation(TopNS.class);
-        String[] prefixs = topNS.prefix(), urls = topNS.uri();
-        Field[] fields = clazz.getDeclaredFields();
-        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'hh:mm:ss'Z'");
-        for (Field f : fields) {
-            NS ns = f.getAnnotation(NS.class);
-            if (ns == null) continue;
-
-            f.setAccessible(true);
-            int nsIndex = StringUtil.indexOf(prefixs, ns.value());
-            if (nsIndex < 0) continue;
-
-            Namespace namespace = new Namespace(ns.value(), urls[nsIndex]);
-            Class<?> type = f.getType();
-            v = root.elementText(new QName(f.getName(), namespace));
-            if (isEmpty(v)) continue;
-            if (type == String.class) {
-                try {
-                    f.set(core, v);
-                } catch (IllegalAccessException e) {
-                    LOGGER.warn("Set field ({}) error.", f);
-                }
-            } else if (type == Date.class) {
-                try {
-                    f.set(core, format.parse(v));
-                } catch (ParseException | IllegalAccessException e) {
-                    LOGGER.warn("Set field ({}) error.", f);
+        try (InputStream is = openPart(tmp.resolve("docProps/core.xml"))) {
+            XMLPullParser parser = new XMLPullParser(is);
+            SimpleDateFormat format = null;
+            for (int e; (e = parser.next()) != XMLPullParser.END_DOCUMENT; ) {
+                if (e != XMLPullParser.START_TAG || parser.getDepth() != 2) continue;
+                String name = parser.getName(), v = parser.getText();
+                if (isEmpty(v)) continue;
+                switch (name) {
+                    case "title"         : core.setTitle(v);          break;
+                    case "subject"       : core.setSubject(v);        break;
+                    case "creator"       : core.setCreator(v);        break;
+                    case "description"   : core.setDescription(v);    break;
+                    case "keywords"      : core.setKeywords(v);       break;
+                    case "lastModifiedBy": core.setLastModifiedBy(v); break;
+                    case "version"       : core.setVersion(v);        break;
+                    case "revision"      : core.setRevision(v);       break;
+                    case "category"      : core.setCategory(v);       break;
+                    case "created"       :
+                    case "modified"      :
+                        if (format == null) format = new SimpleDateFormat("yyyy-MM-dd'T'hh:mm:ss'Z'");
+                        try {
+                            if ("created".equals(name)) core.setCreated(format.parse(v));
+                            else core.setModified(format.parse(v));
+                        } catch (ParseException ex) {
+                            LOGGER.warn("Parse {} ({}) error.", name, v);
+                        }
+                        break;
+                    default:
                 }
             }
+        } catch (IOException e) {
+            throw new ExcelReadException("The file format is incorrect or corrupted. [docProps/core.xml]");
         }
 
         return new AppInfo(app, core);
@@ -820,46 +1050,80 @@ public class ExcelReader implements Closeable {
     static long[][] parseCalcChain(Path root) {
         Path calcPath = root.resolve("xl/calcChain.xml");
         if (!FileUtil.exists(calcPath)) return null;
-        Element calcChain;
-        try {
-            SAXReader reader = new SAXReader();
-            calcChain = reader.read(Files.newInputStream(calcPath)).getRootElement();
-        } catch (DocumentException | IOException e) {
+        try (InputStream is = Files.newInputStream(calcPath)) {
+            return parseCalcChain(is);
+        } catch (IOException e) {
             LOGGER.warn("Part of `calcChain` has be damaged, It will be ignore all formulas.");
             return null;
         }
+    }
 
-        Iterator<Element> ite = calcChain.elementIterator();
+    // Parse the stream of `calcChain`
+    static long[][] parseCalcChain(InputStream is) throws IOException {
         int i = 1, n = 10;
         long[][] array = new long[n][];
         int[] indices = new int[n];
-        for (; ite.hasNext(); ) {
-            Element e = ite.next();
-            String si = e.attributeValue("i"), r = e.attributeValue("r");
-            if (isNotEmpty(si)) {
-                i = toInt(si.toCharArray(), 0, si.length());
+        byte[] cb = new byte[8192];
+        int nChar = 0, length = XMLSheet.read(is, cb, 0, cb.length);
+        for (; length > 0; ) {
+            // Find the start tag
+            for (; nChar < length && cb[nChar] != '<'; nChar++) ;
+            int start = nChar, end = nChar;
+            for (; end < length && cb[end] != '>'; end++) ;
+            // Load more when not found the end of tag
+            if (end >= length) {
+                int left = length - start;
+                if (left >= cb.length) cb = Arrays.copyOf(cb, cb.length << 1);
+                System.arraycopy(cb, start, cb, 0, left);
+                int len = XMLSheet.read(is, cb, left, cb.length - left);
+                if (len <= 0) break;
+                length = left + len;
+                nChar = 0;
+                continue;
             }
-            if (isNotEmpty(r)) {
-                if (n < i) {
-                    n <<= 1;
-                    indices = Arrays.copyOf(indices, n);
-                    long[][] _array = new long[n][];
-                    for (int j = 0; j < n; j++) _array[j] = array[j]; // Do not copy hear.
-                    array = _array;
-                }
-                long[] sub = array[i - 1];
-                if (sub == null) {
-                    sub = new long[10];
-                    array[i - 1] = sub;
+            nChar = end + 1;
+
+            // Only the `c` element, ignore the namespace prefix
+            int p = start + 1, q = p;
+            for (; p < end && cb[p] > ' ' && cb[p] != '/'; p++) if (cb[p] == ':') q = p + 1;
+            if (p - q != 1 || cb[q] != 'c') continue;
+
+            long r = -1L;
+            // Parse attributes
+            for (; ; ) {
+                for (; p < end && cb[p] <= ' '; p++) ;
+                if (p >= end || cb[p] == '/') break;
+                int name = p;
+                for (; p < end && cb[p] != '=' && cb[p] > ' '; p++) ;
+                int nameLen = p - name;
+                for (; p < end && cb[p] != '"' && cb[p] != '\''; p++) ;
+                if (p >= end) break;
+                byte quote = cb[p];
+                int v = ++p;
+                for (; p < end && cb[p] != quote; p++) ;
+                if (nameLen == 1 && p > v) {
+                    if (cb[name] == 'i') i = toInt(cb, v, p);
+                    else if (cb[name] == 'r') r = cellRangeToLong(cb, v, p);
                 }
+                p++;
+            }
+            if (r < 0L) continue;
 
-                if (++indices[i - 1] > sub.length) {
-                    long[] _sub = new long[sub.length << 1];
-                    System.arraycopy(sub, 0, _sub, 0, sub.length);
-                    array[i - 1] = sub = _sub;
-                }
-                sub[indices[i - 1] - 1] = cellRangeToLong(r);
+            if (n < i) {
+                for (; n < i; n <<= 1) ;
+                indices = Arrays.copyOf(indices, n);
+                array = Arrays.copyOf(array, n);
+            }
+            long[] sub = array[i - 1];
+            if (sub == null) {
+                sub = new long[10];
+                array[i - 1] = sub;
+            }
+
+            if (++indices[i - 1] > sub.length) {
+                array[i - 1] = sub = Arrays.copyOf(sub, sub.length << 1);
             }
+            sub[indices[i - 1] - 1] = r;
         }
 
         i = 0;
@@ -873,6 +1137,27 @@ public class ExcelReader implements Closeable {
         return array;
     }
 
+    // Cell range bytes convert to long, see #cellRangeToLong(String)
+    private static long cellRangeToLong(byte[] cb, int a, int b) {
+        long v = 0L;
+        int n = 0;
+        for (int i = a; i < b; i++) {
+            byte value = cb[i];
+            if (value >= 'A' && value <= 'Z') {
+                v = v * 26 + value - 'A' + 1;
+            }
+            else if (value >= 'a' && value <= 'z') {
+                v = v * 26 + value - 'a' + 1;
+            }
+            else if (value >= '0' && value <= '9') {
+                n = n * 10 + value - '0';
+            }
+            else
+                throw new ExcelReadException("Column mark out of range: " + new String(cb, a, b - a, StandardCharsets.US_ASCII));
+        }
+        return (v & 0x7FFF) | ((long) n) << 16;
+    }
+
     /**
      * Cell range string convert to long
      * 0-16: column number
@@ -915,6 +1200,19 @@ public class ExcelReader implements Closeable {
         return drawings != null ? drawings.listPictures() : null;
     }
 
+    /**
+     * Copy all pictures to the target directory in parallel, see
+     * {@link Drawings#extractPictures(Path, Executor)}
+     *
+     * @param dest the target directory
+     * @param executor the executor to run the tasks
+     * @return the copied files, or an empty list if not exists
+     * @throws IOException if I/O error occur
+     */
+    public List<Path> extractPictures(Path dest, Executor executor) throws IOException {
+        return drawings != null ? drawings.extractPictures(dest, executor) : Collections.emptyList();
+    }
+
     /**
      * Returns a global {@link Styles}
      *
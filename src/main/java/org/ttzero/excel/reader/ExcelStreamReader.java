@@ -0,0 +1,440 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ttzero.excel.entity.Relationship;
+import org.ttzero.excel.entity.style.Styles;
+import org.ttzero.excel.manager.Const;
+import org.ttzero.excel.manager.RelManager;
+import org.ttzero.excel.util.FileUtil;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Read the workbook from a non-seekable {@link InputStream} in a single pass.
+ * <p>
+ * The entries of the archive are visited in the order they are stored,
+ * {@code workbook.xml}, {@code sharedStrings.xml} and {@code styles.xml} are
+ * parsed as they pass. A worksheet is read straight from the stream when the
+ * shared strings and styles have already passed, otherwise the worksheet
+ * is spilled to the temp directory and read from there later. With the
+ * usual order of Excel the rows start flowing while the rest of the
+ * stream is still being received.
+ * <p>
+ * Worksheets read straight from the stream are forward only, they can not be
+ * {@link Sheet#reset()}, the entries behind them are skipped or spilled when
+ * a later worksheet is loaded, so please read the worksheets in order.
+ * Merged cells, formulas and pictures are not supported in this mode.
+ *
+ * @author guanquan.wang at 2023-03-06 10:20
+ */
+class ExcelStreamReader extends ExcelReader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExcelStreamReader.class);
+    private final ZipInputStream zis;
+    private final int bufferSize, cacheSize;
+    private boolean sstReady, stylesReady;
+    private List<String[]> workbook;
+    private RelManager relManager;
+    /**
+     * The name of entry which the stream positioned at, and the
+     * serial number increase on each entry
+     */
+    private String current;
+    private int serial;
+
+    ExcelStreamReader(InputStream stream, int bufferSize, int cacheSize, int option) throws IOException {
+        this.zis = new ZipInputStream(stream);
+        this.bufferSize = bufferSize;
+        this.cacheSize = cacheSize;
+        this.option = option;
+        self = FileUtil.mktmp(Const.EEC_PREFIX);
+        if (self == null) {
+            throw new IOException("Create temp directory error. Please check your permission");
+        }
+        LOGGER.debug("Read from stream, spill worksheets to：{}", self);
+        try {
+            init0();
+        } catch (IOException | RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    private void init0() throws IOException {
+        // Walk until the workbook and its relationships have passed
+        for (; (workbook == null || relManager == null) && nextEntry(); ) {
+            if (isWorksheet(current)) spill();
+        }
+        if (workbook == null) {
+            throw new ExcelReadException("The file format is incorrect or corrupted. [xl/workbook.xml]");
+        }
+        if (relManager == null) {
+            throw new ExcelReadException("The file format is incorrect or corrupted. [xl/_rels/workbook.xml.rels]");
+        }
+        if (relManager.getByType(Const.Relationship.SHARED_STRING) == null) sstReady = true;
+        if (relManager.getByType(Const.Relationship.STYLE) == null) stylesReady = true;
+        if (styles == null) styles = Styles.forReader();
+
+        List<Sheet> sheets = new ArrayList<>();
+        int index = 0;
+        for (String[] e : workbook) {
+            Relationship r = relManager.getById(e[3]);
+            if (r == null) {
+                throw new ExcelReadException("The file format is incorrect or corrupted.");
+            }
+            StreamSheet sheet = new StreamSheet();
+            sheet.setName(e[0]);
+            sheet.setId(Integer.parseInt(e[1]));
+            sheet.setHidden("hidden".equals(e[2]));
+            sheet.setPath(self.resolve("xl").resolve(r.getTarget()).normalize());
+            sheet.setIndex(index++);
+            sheets.add(sheet);
+        }
+        if (sheets.isEmpty()) {
+            throw new ExcelReadException("The file format is incorrect or corrupted. [There has no worksheet]");
+        }
+        this.sheets = sheets.toArray(new Sheet[0]);
+    }
+
+    /**
+     * Move the stream to the next entry, the metadata are parsed
+     * and the general information are spilled as they pass.
+     *
+     * @return false if end of stream
+     * @throws IOException if I/O error occur
+     */
+    private boolean nextEntry() throws IOException {
+        ZipEntry entry;
+        do entry = zis.getNextEntry();
+        while (entry != null && entry.isDirectory());
+        serial++;
+        if (entry == null) {
+            current = null;
+            // The metadata are missing, nothing to wait for
+            sstReady = stylesReady = true;
+            return false;
+        }
+        current = entry.getName();
+        LOGGER.debug("Entry: {}", current);
+        switch (current) {
+            case "xl/workbook.xml":
+                try {
+                    workbook = parseWorkbook(entryStream());
+                } catch (IOException e) {
+                    throw new ExcelReadException("The file format is incorrect or corrupted. [" + current + "]", e);
+                }
+                break;
+            case "xl/_rels/workbook.xml.rels":
+                try {
+                    relManager = RelManager.load(entryStream());
+                } catch (IOException e) {
+                    throw new ExcelReadException("The file format is incorrect or corrupted. [" + current + "]", e);
+                }
+                break;
+            case "xl/sharedStrings.xml":
+                sst = new SharedStrings((Path) null, bufferSize, cacheSize)
+                    .load(new BufferedReader(new InputStreamReader(entryStream(), StandardCharsets.UTF_8)));
+                sstReady = true;
+                break;
+            case "xl/styles.xml":
+                styles = Styles.load(entryStream());
+                stylesReady = true;
+                break;
+            case "docProps/app.xml":
+            case "docProps/core.xml":
+                spill(); break;
+            default:
+        }
+        return true;
+    }
+
+    /**
+     * Locate the worksheet part in the stream, the stream will be moved to
+     * the worksheet and all metadata it depend on. The passing worksheets
+     * are spilled to the temp directory.
+     *
+     * @param name the part name of worksheet
+     * @return true if the worksheet can be read straight from the stream,
+     * false if it has been spilled.
+     * @throws IOException if I/O error occur
+     */
+    private boolean locate(String name) throws IOException {
+        boolean spilled = Files.exists(self.resolve(name));
+        for (; !(spilled || name.equals(current)) || !(sstReady && stylesReady); ) {
+            // Arrived before the metadata
+            if (name.equals(current)) {
+                spill();
+                spilled = true;
+            }
+            if (!nextEntry()) break;
+            if (isWorksheet(current) && !name.equals(current)) spill();
+        }
+        if (!spilled && !name.equals(current)) {
+            throw new ExcelReadException("The worksheet [" + name + "] has been passed or not exists in the stream.");
+        }
+        return !spilled;
+    }
+
+    // Copy the current entry to the temp directory
+    private void spill() throws IOException {
+        Path path = self.resolve(current);
+        if (Files.exists(path)) return;
+        LOGGER.debug("Spill {} to disk", current);
+        FileUtil.mkdir(path.getParent());
+        Files.copy(entryStream(), path);
+    }
+
+    /**
+     * Returns the stream of current entry, it can not be read
+     * after the {@link ZipInputStream} moved to next entry and
+     * the close operation is ignored
+     *
+     * @return the stream of current entry
+     */
+    private InputStream entryStream() {
+        final int s = serial;
+        return new FilterInputStream(zis) {
+            @Override
+            public int read() throws IOException {
+                check();
+                return super.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                check();
+                return super.read(b, off, len);
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                check();
+                return super.skip(n);
+            }
+
+            @Override
+            public void close() { }
+
+            private void check() throws IOException {
+                if (s != serial) throw new IOException("The stream has been moved to the next entry.");
+            }
+        };
+    }
+
+    static boolean isWorksheet(String name) {
+        return name != null && name.startsWith("xl/worksheets/") && name.endsWith(".xml")
+            && name.indexOf('/', 14) < 0;
+    }
+
+    /**
+     * General information like title,subject and creator, the rest
+     * of the stream will be spilled if the information has not passed.
+     *
+     * @return the information
+     * @throws IllegalStateException if the reader is closed before the
+     *     information is parsed
+     */
+    @Override
+    public synchronized AppInfo getAppInfo() {
+        if (!closed) {
+            try {
+                for (; !(Files.exists(self.resolve("docProps/app.xml")) && Files.exists(self.resolve("docProps/core.xml")))
+                    && nextEntry(); ) {
+                    if (isWorksheet(current)) spill();
+                }
+            } catch (IOException e) {
+                throw new ExcelReadException("Read general information failed.", e);
+            }
+        }
+        return super.getAppInfo();
+    }
+
+    /**
+     * The worksheets arrive one after another in the stream, so they are
+     * processed in order on the calling thread and the executor is not used.
+     */
+    @Override
+    public <R> List<R> sheets(Executor executor, Function<? super Sheet, ? extends R> function) {
+        return sheets().map(function).collect(Collectors.toList());
+    }
+
+    /**
+     * The worksheets arrive one after another in the stream, so they are
+     * transcoded in order on the calling thread and the executor is not used.
+     */
+    @Override
+    public List<Path> saveAsCSV(Path path, Executor executor) throws IOException {
+        if (!Files.exists(path)) {
+            FileUtil.mkdir(path);
+        }
+        List<Path> list = new ArrayList<>(sheets.length);
+        for (Sheet sheet : sheets) {
+            Path csv = path.resolve(sheet.getName() + Const.Suffix.CSV);
+            sheet.transcodeToCSV(csv);
+            list.add(csv);
+        }
+        return list;
+    }
+
+    @Override
+    public ExcelReader parseFormula() {
+        throw new UnsupportedOperationException("Parse formula is not supported when reading from stream.");
+    }
+
+    @Override
+    public ExcelReader copyOnMergeCells() {
+        throw new UnsupportedOperationException("Copy on merged cells is not supported when reading from stream.");
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+        zis.close();
+    }
+
+    private void closeQuietly() {
+        try {
+            if (sst != null) sst.close();
+            zis.close();
+        } catch (IOException e) {
+            LOGGER.warn("Close stream failed.", e);
+        }
+        removeTemp(self);
+    }
+
+    /**
+     * A worksheet read straight from the stream or from the spilled file
+     */
+    class StreamSheet extends XMLSheet {
+        // The worksheet is read straight from the stream
+        private boolean live;
+        private int liveSerial;
+
+        @Override
+        public XMLSheet load() throws IOException {
+            if (sRow == null) {
+                String name = self.relativize(path).toString().replace('\\', '/');
+                live = locate(name);
+                liveSerial = serial;
+                setSst(ExcelStreamReader.this.sst);
+                setStyles(ExcelStreamReader.this.styles);
+            }
+            return super.load();
+        }
+
+        @Override
+        protected InputStream newInputStream() throws IOException {
+            if (!live) return super.newInputStream();
+            if (liveSerial != serial || sRow != null) {
+                throw new IOException("The worksheet [" + getName() + "] has been passed in the stream.");
+            }
+            return entryStream();
+        }
+
+        @Override
+        protected SeekableByteChannel newChannel() throws IOException {
+            if (live) throw new IOException("The worksheet [" + getName() + "] read from stream is not seekable.");
+            return super.newChannel();
+        }
+
+        @Override
+        boolean splittable() {
+            return !live && super.splittable();
+        }
+
+        // The dimension can not be read from the tail of stream
+        @Override
+        void parseDimension() {
+            if (!live) super.parseDimension();
+        }
+
+        /**
+         * The stream can not be re-opened, so look ahead the next row in
+         * the current buffer instead of reading from the beginning
+         */
+        @Override
+        protected Row findRow0(HeaderRowFunc func) {
+            if (!live) return super.findRow0(func);
+            if (eof) {
+                heof = true;
+                return null;
+            }
+            int i = nChar;
+            try {
+                for (; ; ) {
+                    for (; i < length - 6; i++) {
+                        if (cb[i] == '<' && cb[i + 1] == '/' && cb[i + 2] == 'r'
+                            && cb[i + 3] == 'o' && cb[i + 4] == 'w' && cb[i + 5] == '>') {
+                            return func.accept(cb, nChar, i + 6 - nChar);
+                        }
+                    }
+                    // Load more, keep the unread characters
+                    int n = length - nChar;
+                    if (nChar == 0) cb = Arrays.copyOf(cb, cb.length << 1);
+                    else System.arraycopy(cb, nChar, cb, 0, n);
+                    i -= nChar;
+                    nChar = 0;
+                    int len = read(reader, cb, n, cb.length - n);
+                    if (len < 0) {
+                        length = n;
+                        eof = heof = true;
+                        return null;
+                    }
+                    position += len;
+                    length = n + len;
+                }
+            } catch (IOException e) {
+                LOGGER.error("Read header row error.");
+                return null;
+            }
+        }
+
+        // The worksheet must be located in the stream
+        @Override
+        public void transcodeToCSV(OutputStream os) throws IOException {
+            if (sRow == null) load();
+            saveAsCSV(os);
+        }
+
+        @Override
+        public XMLSheet reset() {
+            if (live) {
+                throw new UnsupportedOperationException("The worksheet [" + getName() + "] read from stream can not be reset.");
+            }
+            return super.reset();
+        }
+    }
+}
@@ -22,11 +22,10 @@ import org.ttzero.excel.annotation.IgnoreImport;
 import org.ttzero.excel.annotation.RowNum;
 import org.ttzero.excel.entity.ListSheet;
 import org.ttzero.excel.manager.Const;
+import org.ttzero.excel.util.ClassMeta;
 import org.ttzero.excel.util.StringUtil;
 
 import java.beans.IntrospectionException;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
@@ -42,8 +41,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
@@ -55,8 +56,6 @@ import static org.ttzero.excel.entity.IWorksheetWriter.isLocalDate;
 import static org.ttzero.excel.entity.IWorksheetWriter.isLocalDateTime;
 import static org.ttzero.excel.entity.IWorksheetWriter.isLocalTime;
 import static org.ttzero.excel.entity.Sheet.int2Col;
-import static org.ttzero.excel.util.ReflectUtil.listDeclaredFields;
-import static org.ttzero.excel.util.ReflectUtil.listDeclaredMethods;
 import static org.ttzero.excel.util.StringUtil.EMPTY;
 
 /**
@@ -70,6 +69,11 @@ public class HeaderRow extends Row {
     protected Map<String, Integer> mapping;
     /* Storage header column */
     protected ListSheet.EntryColumn[] columns;
+    /* The compiled setters of columns, null if the put methods are overridden or can't compile */
+    ColumnSetter[] setters;
+    /* The unique non-null names in column order and their column indexes, shared by map views */
+    private String[] mapKeys;
+    private int[] mapColumns;
 
     // `detailMessage` field declare in Throwable
     protected static final Field detailMessageField;
@@ -101,6 +105,8 @@ public class HeaderRow extends Row {
 
     public HeaderRow with(List<Dimension> mergeCells, int headRows, Row ... rows) {
         this.headRows = headRows;
+        this.mapKeys = null;
+        this.mapColumns = null;
         Row row = rows[rows.length - 1];
         this.names = new String[row.lc];
         this.mapping = new HashMap<>();
@@ -159,28 +165,50 @@ public class HeaderRow extends Row {
      */
     protected HeaderRow setClass(Class<?> clazz) {
         this.clazz = clazz;
+        org.ttzero.excel.entity.Column[] columns;
+        // The layout only depends on the class and header rows if the column hooks are not overridden
+        if (getClass() == HeaderRow.class) {
+            org.ttzero.excel.entity.Column[] layout = ClassMeta.of(clazz).computeIfAbsent("HeaderRow:" + headRows, k -> headerLayout(clazz));
+            columns = new org.ttzero.excel.entity.Column[layout.length];
+            for (int i = 0; i < layout.length; i++) columns[i] = new ListSheet.EntryColumn(layout[i]);
+        } else columns = headerLayout(clazz);
+
+        for (org.ttzero.excel.entity.Column c : columns) {
+            if (c.colIndex < 0) c.colIndex = getIndex(c.name);
+        }
+
+        this.columns = Arrays.stream(columns)
+                .filter(c -> c.colIndex >= 0 || c.clazz == RowNum.class)
+                .sorted(Comparator.comparingInt(a -> a.colIndex))
+                .map(e -> (e instanceof ListSheet.EntryColumn) ? (ListSheet.EntryColumn) e : new ListSheet.EntryColumn(e))
+                .toArray(ListSheet.EntryColumn[]::new);
+
+        this.setters = compileSetters();
+
+        return this;
+    }
+
+    /**
+     * Create the sorted and merged header columns of class, the column
+     * index is not mapped to the header names
+     *
+     * @param clazz the type of binding
+     * @return the header columns
+     */
+    protected org.ttzero.excel.entity.Column[] headerLayout(Class<?> clazz) {
         // Parse Field
-        Field[] declaredFields = listDeclaredFields(clazz, c -> !ignoreColumn(c));
+        ClassMeta meta = ClassMeta.of(clazz);
+        Field[] declaredFields = meta.listDeclaredFields(c -> !ignoreColumn(c));
 
         // Parse Method
-        Map<String, Method> tmp = new HashMap<>();
-        try {
-            PropertyDescriptor[] propertyDescriptors = Introspector.getBeanInfo(clazz, Object.class)
-                    .getPropertyDescriptors();
-            for (PropertyDescriptor pd : propertyDescriptors) {
-                Method method = pd.getWriteMethod();
-                if (method != null) tmp.put(pd.getName(), method);
-            }
-        } catch (IntrospectionException e) {
-            LOGGER.warn("Get class {} methods failed.", clazz);
-        }
+        Map<String, Method> tmp = meta.getWriteMethods();
 
         List<ListSheet.EntryColumn> list = new ArrayList<>();
 //        Map<String, ListSheet.EntryColumn> columnMap = new LinkedHashMap<>();
         ListSheet.EntryColumn column, other;
         for (int i = 0; i < declaredFields.length; i++) {
             Field f = declaredFields[i];
-            f.setAccessible(true);
+            ClassMeta.setAccessible(f);
             String gs = f.getName();
 
             // The setter methods take precedence over property reflection
@@ -289,17 +317,37 @@ public class HeaderRow extends Row {
             } else if (!(c instanceof ListSheet.EntryColumn)) {
                 columns[i] = c = new ListSheet.EntryColumn(c);
             }
-
-            if (c.colIndex < 0) c.colIndex = getIndex(c.name);
         }
 
-        this.columns = Arrays.stream(columns)
-                .filter(c -> c.colIndex >= 0 || c.clazz == RowNum.class)
-                .sorted(Comparator.comparingInt(a -> a.colIndex))
-                .map(e -> (e instanceof ListSheet.EntryColumn) ? (ListSheet.EntryColumn) e : new ListSheet.EntryColumn(e))
-                .toArray(ListSheet.EntryColumn[]::new);
+        return columns;
+    }
 
-        return this;
+    /**
+     * Compile the setters of columns, the custom {@link #fieldPut} and
+     * {@link #methodPut} are still used if they are overridden
+     *
+     * @return the setters, or null if any column can not be compiled
+     */
+    private ColumnSetter[] compileSetters() {
+        if (isOverridden("fieldPut") || isOverridden("methodPut")) return null;
+        ColumnSetter[] setters = new ColumnSetter[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if ((setters[i] = ColumnSetter.of(columns[i])) == null) return null;
+        }
+        return setters;
+    }
+
+    // Test the put method is overridden by sub-class
+    private boolean isOverridden(String name) {
+        for (Class<?> c = getClass(); c != HeaderRow.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, int.class, Row.class, Object.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Continue
+            }
+        }
+        return false;
     }
 
     static boolean isTopRow(List<Dimension> mergeCells, int row, int col) {
@@ -381,6 +429,43 @@ public class HeaderRow extends Row {
         return index != null ? index : -1;
     }
 
+    /**
+     * Returns the unique names in column order, the null name is ignored
+     *
+     * @return the keys of map view
+     */
+    String[] getMapKeys() {
+        if (mapKeys == null) buildMapKeys();
+        return mapKeys;
+    }
+
+    /**
+     * Returns the column indexes of {@link #getMapKeys()}, the last column
+     * is used if the name is duplicated
+     *
+     * @return the column indexes of keys
+     */
+    int[] getMapColumns() {
+        if (mapColumns == null) buildMapKeys();
+        return mapColumns;
+    }
+
+    private void buildMapKeys() {
+        String[] keys = new String[lc - fc];
+        int[] columns = new int[keys.length];
+        Set<String> exists = new HashSet<>();
+        int n = 0;
+        for (int i = fc; i < lc; i++) {
+            String key = names[i];
+            // Ignore null key, the duplicate key keeps the first position and the last value
+            if (key == null || !exists.add(key)) continue;
+            keys[n] = key;
+            columns[n++] = mapping.get(key);
+        }
+        mapColumns = n < columns.length ? Arrays.copyOf(columns, n) : columns;
+        mapKeys = n < keys.length ? Arrays.copyOf(keys, n) : keys;
+    }
+
     @Override
     public String toString() {
         StringJoiner joiner = new StringJoiner(" | ");
@@ -432,7 +517,10 @@ public class HeaderRow extends Row {
     void put(Row row, Object t) throws IllegalAccessException, InvocationTargetException {
         int i = 0;
         try {
-            for (; i < columns.length; i++) {
+            if (setters != null) {
+                for (; i < setters.length; i++) setters[i].set(row, t);
+            }
+            else for (; i < columns.length; i++) {
                 if (columns[i].method != null)
                     methodPut(i, row, t);
                 else
@@ -678,7 +766,7 @@ public class HeaderRow extends Row {
     protected Map<String, Method> attachOtherColumn(Class<?> clazz) {
         Method[] writeMethods;
         try {
-            writeMethods = listDeclaredMethods(clazz, method -> method.getAnnotation(ExcelColumn.class) != null
+            writeMethods = ClassMeta.of(clazz).listDeclaredMethods(method -> method.getAnnotation(ExcelColumn.class) != null
                     || method.getAnnotation(RowNum.class) != null);
         } catch (IntrospectionException e) {
             LOGGER.warn("Get [" + clazz + "] read declared failed.", e);
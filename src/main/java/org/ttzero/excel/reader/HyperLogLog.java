@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+/**
+ * A HyperLogLog sketch to estimate the number of distinct values, the
+ * standard error is about {@code 1.04 / sqrt(2^precision)}. The values
+ * are added as 64-bit hashes, the high {@code precision} bits select a
+ * register and the others give the rank.
+ *
+ * @author guanquan.wang at 2023-03-22 14:30
+ */
+final class HyperLogLog {
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Create a sketch with {@code 2^precision} registers
+     *
+     * @param precision the number of index bits, in range [4, 16]
+     */
+    HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("The precision must be in range [4, 16].");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Add a 64-bit hash value
+     *
+     * @param hash the hash of value
+     */
+    void add(long hash) {
+        int i = (int) (hash >>> (64 - precision));
+        // The sentinel bit limits the rank to 64 - precision + 1
+        byte rank = (byte) (Long.numberOfLeadingZeros(hash << precision | 1L << (precision - 1)) + 1);
+        if (rank > registers[i]) registers[i] = rank;
+    }
+
+    /**
+     * Returns the estimated number of distinct values, the linear counting
+     * is used for the small cardinalities
+     *
+     * @return the estimated cardinality
+     */
+    long estimate() {
+        int m = registers.length, zeros = 0;
+        double sum = 0.0D;
+        for (byte r : registers) {
+            sum += 1.0D / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double e = 0.7213D / (1.0D + 1.079D / m) * m * m / sum;
+        if (e <= 2.5D * m && zeros > 0) e = m * Math.log((double) m / zeros);
+        return Math.round(e);
+    }
+}
@@ -77,9 +77,9 @@ public class IndexSharedStringTable extends SharedStringTable {
     /**
      * Current read/write status
      */
-    private byte status;
+    protected byte status;
 
-    private static final byte READ = 1, WRITE = 0;
+    protected static final byte READ = 1, WRITE = 0;
 
     /**
      * Create a temp file to storage the index
@@ -121,13 +121,14 @@ public class IndexSharedStringTable extends SharedStringTable {
     /**
      * Size of a short-sector in the index stream in power-of-two (sssz),
      * real short-sector size is short_sec_size = 2<sup>sssz</sup> bytes
-     * (maximum value is sector size ssz,
+     * (maximum value is sector size ssz, the value 0 means every
+     * position is stored in the index stream
      *
      * @param sssz the short-sector size
      */
     public void setShortSectorSize(int sssz) {
-        if (sssz < 1) {
-            throw new IllegalArgumentException("The short sector size must large than 1.");
+        if (sssz < 0) {
+            throw new IllegalArgumentException("The short sector size must not be negative.");
         }
         if (sssz > 20) {
             throw new IllegalArgumentException("The short sector size must less than 20.");
@@ -264,7 +265,7 @@ public class IndexSharedStringTable extends SharedStringTable {
      *
      * @throws IOException if I/O error occur
      */
-    private void flush() throws IOException {
+    protected void flush() throws IOException {
         buffer.flip();
         if (buffer.hasRemaining()) {
             channel.write(buffer);
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import java.util.Arrays;
+
+/**
+ * A fix size cache with non-negative int keys, the entries are stored
+ * in an open-addressing table and nothing is allocated after created.
+ * <p>
+ * The victim is chosen by the CLOCK algorithm and a new key is admitted
+ * only if it is used more frequently than the victim (TinyLFU). The
+ * frequencies are estimated by a count-min sketch of 4-bit counters which
+ * are halved periodically, so a large scan can not evict the hot keys.
+ * Keys are only put after they passed a doorkeeper such as
+ * {@link Tester.FixBinaryTester}, so the keys used once never reach
+ * the sketch.
+ *
+ * @author guanquan.wang at 2023-03-11 15:20
+ */
+public class IntLFUCache<V> {
+    private static final int EMPTY = -1;
+    private static final long[] SEED = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+    /**
+     * The elements limit
+     */
+    private final int limit;
+    /**
+     * Open-addressing table, the size is at least double limit
+     */
+    private final int[] keys;
+    private final Object[] values;
+    /**
+     * Referenced bits of CLOCK
+     */
+    private final boolean[] marks;
+    private final int mask;
+    private int size, hand;
+    /**
+     * Count-min sketch, a long contains 16 counters
+     */
+    private final long[] sketch;
+    private final int counterMask, sampleSize;
+    private int additions;
+
+    // Statistics
+    private long hits, misses, admissions, rejections, evictions;
+
+    public static <V> IntLFUCache<V> create() {
+        return new IntLFUCache<>(1 << 9);
+    }
+
+    public static <V> IntLFUCache<V> create(int size) {
+        return new IntLFUCache<>(size);
+    }
+
+    private IntLFUCache(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The limit of cache must be positive.");
+        }
+        this.limit = limit;
+        int n = Integer.highestOneBit(limit - 1 | 1) << 2;
+        keys = new int[n];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[n];
+        marks = new boolean[n];
+        mask = n - 1;
+        // 16 counters per entry
+        sketch = new long[n >> 1];
+        counterMask = (sketch.length << 4) - 1;
+        sampleSize = limit * 10;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this cache contains no mapping for the key.
+     *
+     * @param k the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *      {@code null} if this cache contains no mapping for the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int k) {
+        int i = indexOf(k);
+        if (i < 0) {
+            misses++;
+            return null;
+        }
+        hits++;
+        marks[i] = true;
+        increment(k);
+        return (V) values[i];
+    }
+
+    /**
+     * Associates the specified value with the specified key in this cache.
+     * If the cache is full, the key is admitted only if it is used more
+     * frequently than the victim.
+     *
+     * @param k key with which the specified value is to be associated,
+     *          the key must not be negative
+     * @param v value to be associated with the specified key
+     */
+    public void put(int k, V v) {
+        increment(k);
+        int i = indexOf(k);
+        // Replace the old value
+        if (i >= 0) {
+            values[i] = v;
+            marks[i] = true;
+            return;
+        }
+        if (size >= limit) {
+            int victim = victim();
+            if (frequency(k) <= frequency(keys[victim])) {
+                rejections++;
+                return;
+            }
+            delete(victim);
+            evictions++;
+        }
+        admissions++;
+        for (i = slot(k); keys[i] != EMPTY; i = (i + 1) & mask) ;
+        keys[i] = k;
+        values[i] = v;
+        size++;
+    }
+
+    /**
+     * Removes the mapping for a key from this cache if it is present
+     *
+     * @param k key whose mapping is to be removed from the cache
+     * @return the previous value associated with key, or
+     *      {@code null} if there was no mapping for key.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int k) {
+        int i = indexOf(k);
+        if (i < 0) return null;
+        V v = (V) values[i];
+        delete(i);
+        return v;
+    }
+
+    /**
+     * Removes all of the mappings and frequencies from this cache.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        Arrays.fill(marks, false);
+        Arrays.fill(sketch, 0L);
+        size = hand = additions = 0;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this cache.
+     *
+     * @return the number of key-value mappings in this cache
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of keys admitted
+     */
+    public long getAdmissions() {
+        return admissions;
+    }
+
+    /**
+     * @return the number of keys rejected by the admission policy
+     */
+    public long getRejections() {
+        return rejections;
+    }
+
+    /**
+     * @return the number of keys evicted
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    // Spread the key
+    private int slot(int k) {
+        int h = k * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    // Returns the position of key in table or -1 if not found
+    private int indexOf(int k) {
+        for (int i = slot(k); ; i = (i + 1) & mask) {
+            if (keys[i] == k) return i;
+            if (keys[i] == EMPTY) return -1;
+        }
+    }
+
+    // Returns the first position that is not referenced since last round
+    private int victim() {
+        for (; ; ) {
+            int i = hand;
+            hand = (hand + 1) & mask;
+            if (keys[i] == EMPTY) continue;
+            if (marks[i]) marks[i] = false;
+            else return i;
+        }
+    }
+
+    // Backward shift deletion of linear probing
+    private void delete(int i) {
+        for (int j = i; ; ) {
+            keys[i] = EMPTY;
+            values[i] = null;
+            marks[i] = false;
+            for (; ; ) {
+                j = (j + 1) & mask;
+                if (keys[j] == EMPTY) {
+                    size--;
+                    return;
+                }
+                int h = slot(keys[j]);
+                // The home slot lies cyclically in (i, j]
+                if (i <= j ? i < h && h <= j : i < h || h <= j) continue;
+                keys[i] = keys[j];
+                values[i] = values[j];
+                marks[i] = marks[j];
+                i = j;
+                break;
+            }
+        }
+    }
+
+    // The counter position of the key in row i of sketch
+    private int counterOf(int k, int i) {
+        long h = (k + SEED[i]) * SEED[i];
+        h += h >>> 32;
+        return (int) h & counterMask;
+    }
+
+    // Estimated frequency of the key
+    private int frequency(int k) {
+        int f = 15;
+        for (int i = 0; i < 4; i++) {
+            int p = counterOf(k, i);
+            f = Math.min(f, (int) (sketch[p >>> 4] >>> ((p & 15) << 2)) & 15);
+        }
+        return f;
+    }
+
+    // Increase the counters of the key, all counters are halved when the sample is full
+    private void increment(int k) {
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            int p = counterOf(k, i), shift = (p & 15) << 2;
+            if ((sketch[p >>> 4] >>> shift & 15) < 15) {
+                sketch[p >>> 4] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            for (int i = 0; i < sketch.length; i++) {
+                sketch[i] = (sketch[i] >>> 1) & 0x7777777777777777L;
+            }
+            additions >>>= 1;
+        }
+    }
+}
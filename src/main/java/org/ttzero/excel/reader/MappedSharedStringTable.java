@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import org.ttzero.excel.entity.ExcelWriteException;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An {@link IndexSharedStringTable} with a dense index, the position of
+ * every record is stored in the index file as a fixed 8 bytes stride.
+ * <p>
+ * Both the data file and the index file are memory-mapped region by region
+ * when reading, so any string is located in O(1) without system calls and
+ * the residency is managed by the page cache of OS. The full regions are
+ * mapped once, only the last region is renewed when new records have been
+ * pushed after the last mapping, so the size of files is not limited by
+ * the 2GB of a single mapping.
+ * <p>
+ * The mapped files can not be deleted until the mapping is released by
+ * the GC on Windows, so it is only used on other platforms.
+ *
+ * @author guanquan.wang at 2023-03-10 09:36
+ */
+public class MappedSharedStringTable extends IndexSharedStringTable {
+    /**
+     * The default bits of region size (64MB)
+     */
+    static final int REGION_SHIFT = 26;
+
+    /**
+     * The read only channels of the data file and index file
+     */
+    private final FileChannel dataChannel, indexChannel;
+
+    /**
+     * The mapped regions of data and dense index
+     */
+    private final List<MappedByteBuffer> data = new ArrayList<>(), index = new ArrayList<>();
+
+    /**
+     * The bits and mask of region size
+     */
+    private final int shift, mask;
+
+    /**
+     * The number of mapped records
+     */
+    private int mapped;
+
+    /**
+     * A multiplexing byte array
+     */
+    private byte[] bytes;
+
+    /**
+     * Create temp files to storage the strings and dense index
+     *
+     * @throws IOException if I/O error occur.
+     */
+    MappedSharedStringTable() throws IOException {
+        this(REGION_SHIFT);
+    }
+
+    /**
+     * Create temp files to storage the strings and dense index
+     *
+     * @param shift the bits of region size, it must be greater than 3
+     * @throws IOException if I/O error occur.
+     */
+    MappedSharedStringTable(int shift) throws IOException {
+        super();
+        // Store every position
+        super.setShortSectorSize(0);
+        this.shift = shift;
+        this.mask = (1 << shift) - 1;
+        Path temp = getTemp();
+        dataChannel = FileChannel.open(temp, StandardOpenOption.READ);
+        indexChannel = FileChannel.open(Paths.get(temp.toString() + ".idx"), StandardOpenOption.READ);
+    }
+
+    /**
+     * The index is always dense, the short sector size is ignored
+     *
+     * @param sssz the short-sector size
+     */
+    @Override
+    public void setShortSectorSize(int sssz) { }
+
+    /**
+     * Getting by index
+     *
+     * @param index the value's index in table
+     * @return the string value at index
+     * @throws IOException if I/O error occur
+     */
+    @Override
+    public String get(int index) throws IOException {
+        checkBound(index);
+        if (index >= mapped) map();
+        return parse(index);
+    }
+
+    /**
+     * Batch getting
+     *
+     * @param fromIndex the index of the first element, inclusive, to be sorted
+     * @param array     Destination array
+     * @return The number of string read
+     * @throws IOException if I/O error occur
+     */
+    @Override
+    public int get(int fromIndex, String[] array) throws IOException {
+        checkBound(fromIndex);
+        if (fromIndex + array.length > mapped) map();
+        int n = Math.min(array.length, mapped - fromIndex);
+        for (int i = 0; i < n; i++) {
+            array[i] = parse(fromIndex + i);
+        }
+        return n;
+    }
+
+    /**
+     * Flush the buffered records and map the new regions of data file and index file
+     *
+     * @throws IOException if I/O error occur
+     */
+    private void map() throws IOException {
+        int size = size();
+        if (mapped == size) return;
+        // Flush the data buffer, it will be reset before next pushing
+        if (status == WRITE) {
+            mark();
+            status = READ;
+        }
+        // Flush the index buffer
+        flush();
+
+        map(dataChannel, data, dataChannel.size());
+        map(indexChannel, index, (long) size << 3);
+        mapped = size;
+    }
+
+    // Map the regions in range [0, size), the full regions are kept and the last one is renewed
+    private void map(FileChannel channel, List<MappedByteBuffer> regions, long size) throws IOException {
+        int n = regions.size();
+        if (n > 0 && regions.get(n - 1).capacity() <= mask) regions.remove(--n);
+        for (long position = (long) n << shift; position < size; position += mask + 1) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(mask + 1, size - position));
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            regions.add(buffer);
+        }
+    }
+
+    // Parse string record, the position in index excludes the 4 bytes header of data file
+    private String parse(int i) {
+        long p = (long) i << 3, position = index.get((int) (p >>> shift)).getLong((int) (p & mask)) + 4;
+        if (bytes == null) bytes = new byte[128];
+        int n = readInt(position);
+        if (n < 0) {
+            char c = (char) ~n;
+            return c < 0xFFFF ? String.valueOf(c) : "";
+        }
+        if (bytes.length < n) bytes = new byte[n];
+        read(position + 4, n);
+        return new String(bytes, 0, n, UTF_8);
+    }
+
+    // Read the length of record, it may cross the boundary of regions
+    private int readInt(long position) {
+        MappedByteBuffer region = data.get((int) (position >>> shift));
+        int p = (int) (position & mask);
+        if (p + 4 <= region.capacity()) return region.getInt(p);
+        read(position, 4);
+        return bytes[0] & 0xFF | (bytes[1] & 0xFF) << 8 | (bytes[2] & 0xFF) << 16 | bytes[3] << 24;
+    }
+
+    // Copy n bytes into the multiplexing array, the record may cross the boundary of regions
+    private void read(long position, int n) {
+        for (int off = 0, len; off < n; off += len, position += len) {
+            MappedByteBuffer region = data.get((int) (position >>> shift));
+            int p = (int) (position & mask);
+            len = Math.min(n - off, region.capacity() - p);
+            region.position(p);
+            region.get(bytes, off, len);
+        }
+    }
+
+    // Check the getting index
+    private void checkBound(int index) {
+        int size = size();
+        if (size <= index) {
+            throw new ExcelWriteException("index: " + index + ", size: " + size);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Drop the mappings, they are released by the GC
+        data.clear();
+        index.clear();
+        dataChannel.close();
+        indexChannel.close();
+        super.close();
+    }
+}
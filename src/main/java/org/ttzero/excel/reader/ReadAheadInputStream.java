@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * Read the source stream ahead in a background thread. The thread fills
+ * a ring of buffers with the next chunks while the caller consumes the
+ * current one, so the disk and inflate time overlap with parsing.
+ * <p>
+ * The background thread is never interrupted, the interruption would close
+ * the {@link java.nio.channels.FileChannel} shared by all parts of the
+ * archive, so {@link #close()} waits for the reading chunk at most.
+ *
+ * @author guanquan.wang at 2023-03-18 10:15
+ */
+class ReadAheadInputStream extends InputStream {
+    /**
+     * The default chunk size and number of chunks
+     */
+    static final int CHUNK_SIZE = 1 << 16, CHUNKS = 3;
+    private final InputStream is;
+    private final byte[][] ring;
+    private final int[] lens;
+    private final Thread worker;
+    // Index of the chunk in use and the number of filled chunks (include the one in use)
+    private int head, count;
+    // Position and limit in the chunk in use, the limit is -1 if no chunk in use
+    private int pos, limit = -1;
+    // Set by worker
+    private boolean done;
+    private IOException error;
+    // Set by consumer, the consumer thread reads it without lock
+    private volatile boolean closed;
+
+    ReadAheadInputStream(InputStream is) {
+        this(is, CHUNK_SIZE, CHUNKS);
+    }
+
+    ReadAheadInputStream(InputStream is, int chunkSize, int chunks) {
+        this.is = is;
+        this.ring = new byte[Math.max(chunks, 2)][chunkSize];
+        this.lens = new int[ring.length];
+        this.worker = new Thread(this::fill, "eec-read-ahead");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // Worker loop
+    private void fill() {
+        try {
+            for (; ; ) {
+                int slot;
+                synchronized (this) {
+                    while (count == ring.length && !closed) wait();
+                    if (closed) break;
+                    slot = (head + count) % ring.length;
+                }
+                // The slot is invisible to the consumer until count is increased
+                int n = XMLSheet.read(is, ring[slot], 0, ring[slot].length);
+                synchronized (this) {
+                    if (n > 0) {
+                        lens[slot] = n;
+                        count++;
+                    }
+                    if (n < ring[slot].length) done = true;
+                    notifyAll();
+                    if (done) break;
+                }
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                error = e;
+                notifyAll();
+            }
+        } catch (InterruptedException e) {
+            synchronized (this) {
+                error = new InterruptedIOException("Read ahead is interrupted");
+                notifyAll();
+            }
+        } finally {
+            try {
+                is.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
+    // Release the chunk in use and take the next one, returns false at end of stream
+    private synchronized boolean next() throws IOException {
+        if (limit >= 0) {
+            head = (head + 1) % ring.length;
+            count--;
+            limit = -1;
+            notifyAll();
+        }
+        try {
+            while (count == 0 && !done && error == null) wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        if (count == 0) {
+            if (error != null) throw error;
+            return false;
+        }
+        pos = 0;
+        limit = lens[head];
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (closed) throw new IOException("Stream closed");
+        if (pos >= limit && !next()) return -1;
+        return ring[head][pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) throw new IOException("Stream closed");
+        if (len == 0) return 0;
+        if (pos >= limit && !next()) return -1;
+        int n = Math.min(len, limit - pos);
+        System.arraycopy(ring[head], pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (closed) throw new IOException("Stream closed");
+        long k = 0L;
+        while (k < n && (pos < limit || next())) {
+            int i = (int) Math.min(n - k, limit - pos);
+            pos += i;
+            k += i;
+        }
+        return k;
+    }
+
+    @Override
+    public int available() {
+        return Math.max(limit - pos, 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        // Wait for the worker to close the source stream
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
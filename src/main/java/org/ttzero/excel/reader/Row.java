@@ -81,6 +81,10 @@ public abstract class Row {
 
     // Cache formulas
     private PreCalc[] sharedCalc;
+    // The map view
+    private RowMap view;
+    // The decoder shared by the snapshots
+    private Row decoder;
 
     /**
      * The global styles
@@ -1279,6 +1283,42 @@ public abstract class Row {
         return styles.getStyleByIndex(c.xf);
     }
 
+    /**
+     * Returns the number format kind of cell
+     *
+     * @param columnIndex the cell index from zero
+     * @return one of {@link Styles#FMT_PLAIN}, {@link Styles#FMT_DATE}, {@link Styles#FMT_DATETIME},
+     * {@link Styles#FMT_TIME} and {@link Styles#FMT_PERCENT}
+     */
+    public int getFormatKind(int columnIndex) {
+        Cell c = getCell(columnIndex);
+        return getFormatKind(c);
+    }
+
+    /**
+     * Returns the number format kind of cell
+     *
+     * @param columnName the cell name
+     * @return one of {@link Styles#FMT_PLAIN}, {@link Styles#FMT_DATE}, {@link Styles#FMT_DATETIME},
+     * {@link Styles#FMT_TIME} and {@link Styles#FMT_PERCENT}
+     */
+    public int getFormatKind(String columnName) {
+        Cell c = getCell(columnName);
+        return getFormatKind(c);
+    }
+
+    /**
+     * Returns the number format kind of cell, it is looked up from
+     * the table built when {@link Styles} loaded
+     *
+     * @param c the {@link Cell}
+     * @return one of {@link Styles#FMT_PLAIN}, {@link Styles#FMT_DATE}, {@link Styles#FMT_DATETIME},
+     * {@link Styles#FMT_TIME} and {@link Styles#FMT_PERCENT}
+     */
+    public int getFormatKind(Cell c) {
+        return styles.getFormatKind(c.xf);
+    }
+
     /**
      * Tests the specify cell value is blank
      *
@@ -1487,45 +1527,82 @@ public abstract class Row {
         String[] names = hr.names;
         String key;
         for (int i = hr.fc; i < hr.lc; i++) {
-            Cell c = cells[i];
             key = names[i];
             // Ignore null key
             if (key == null) continue;
-            switch (c.t) {
-                case SST:
-                    if (c.sv == null) {
-                        c.setSv(sst.get(c.nv));
-                    }
-                    // @Mark:=>There is no missing `break`, this is normal logic here
-                case INLINESTR:
-                    data.put(key, c.sv);
-                    break;
-                case BOOL:
-                    data.put(key, c.bv);
-                    break;
-                case NUMERIC:
-                    if (!styles.fastTestDateFmt(c.xf)) data.put(key, c.nv);
-                    else data.put(key, toTimestamp(c.nv));
-                    break;
-                case LONG:
-                    data.put(key, c.lv);
-                    break;
-                case DOUBLE:
-                    if (!styles.fastTestDateFmt(c.xf)) data.put(key, c.dv);
-                    else if (c.dv > 1.00001) data.put(key, toTimestamp(c.dv));
-                    else data.put(key, toTime(c.dv));
-                    break;
-                case BLANK:
-                case EMPTY_TAG:
-                    data.put(key, EMPTY);
-                    break;
-                default:
-                    data.put(key, null);
-            }
+            data.put(key, getMapValue(cells[i]));
         }
         return data;
     }
 
+    /**
+     * Returns a read-only {@link RowMap} view over this row, it is the same
+     * as {@link #toMap()} but the keys are shared by all rows and the
+     * values are decoded on access.
+     * <p>
+     * The view is reused, it always reflects the current row of the
+     * iterator, call {@link RowMap#snapshot()} if the values are
+     * needed after the iterator moves.
+     *
+     * @return the map view of this row
+     */
+    public RowMap asMap() {
+        RowMap view = this.view;
+        if (view == null) this.view = view = new RowMap(this);
+        return view;
+    }
+
+    /**
+     * Returns an immutable and compact copy of this row, it is independent
+     * of the iterator and takes much less memory than {@link #copyCells()}.
+     * The shared strings are resolved when they are accessed.
+     *
+     * @return a {@link RowSnapshot} of this row
+     */
+    public RowSnapshot snapshot() {
+        Row d = decoder;
+        if (d == null || d.sst != sst || d.styles != styles || d.hr != hr) {
+            d = new Row() { };
+            d.sst = sst;
+            d.styles = styles;
+            d.hr = hr;
+            decoder = d;
+        }
+        return new RowSnapshot(this, d);
+    }
+
+    /**
+     * Returns the value of cell in map
+     *
+     * @param c the cell
+     * @return the cell value
+     */
+    Object getMapValue(Cell c) {
+        switch (c.t) {
+            case SST:
+                if (c.sv == null) {
+                    c.setSv(sst.get(c.nv));
+                }
+                // @Mark:=>There is no missing `break`, this is normal logic here
+            case INLINESTR:
+                return c.sv;
+            case BOOL:
+                return c.bv;
+            case NUMERIC:
+                return !styles.fastTestDateFmt(c.xf) ? (Object) c.nv : toTimestamp(c.nv);
+            case LONG:
+                return c.lv;
+            case DOUBLE:
+                if (!styles.fastTestDateFmt(c.xf)) return c.dv;
+                return c.dv > 1.00001 ? toTimestamp(c.dv) : toTime(c.dv);
+            case BLANK:
+            case EMPTY_TAG:
+                return EMPTY;
+            default:
+                return null;
+        }
+    }
+
     /**
      * Add function shared ref
      * <blockquote><pre>
@@ -1679,6 +1756,26 @@ public abstract class Row {
         }
         return n;
     }
+
+    /**
+     * Convert to column index
+     *
+     * @param cb the ASCII bytes
+     * @param a the start index
+     * @param b the end index
+     * @return the cell index
+     */
+    public static int toCellIndex(byte[] cb, int a, int b) {
+        int n = 0;
+        for (; a <= b; a++) {
+            if (cb[a] <= 'Z' && cb[a] >= 'A') {
+                n = n * 26 + cb[a] - '@';
+            } else if (cb[a] <= 'z' && cb[a] >= 'a') {
+                n = n * 26 + cb[a] - '`';
+            } else break;
+        }
+        return n;
+    }
 }
 
 /**
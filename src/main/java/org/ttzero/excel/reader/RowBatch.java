@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A block of consecutive rows, it is the reader side of
+ * {@link org.ttzero.excel.entity.RowBlock}.
+ * <p>
+ * Each position of the batch owns its {@link Row} and {@link Cell}s, so the
+ * rows in one batch are independent of each other and can be processed by
+ * several threads. The rows are reused by the next batch, finish the current
+ * batch or copy the rows before the batch iterator moves.
+ *
+ * @author guanquan.wang at 2023-03-21 15:10
+ */
+public class RowBatch implements Iterator<Row> {
+    final XMLRow[] rows;
+    private int i, n;
+    private boolean eof;
+
+    RowBatch(XMLRow[] rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Clear index mark
+     *
+     * @return the {@link RowBatch}
+     */
+    final RowBatch clear() {
+        i = n = 0;
+        return this;
+    }
+
+    /**
+     * Append the parsed row at the tail, the row number is resolved
+     * before the buffer of worksheet is refilled
+     *
+     * @param row the row at position {@link #size()}
+     */
+    final void append(XMLRow row) {
+        row.getRowNum();
+        n++;
+    }
+
+    /**
+     * End of file mark
+     */
+    final void markEnd() {
+        eof = true;
+    }
+
+    /**
+     * End of file mark
+     *
+     * @return true if it is the last batch
+     */
+    public boolean isEOF() {
+        return eof;
+    }
+
+    /**
+     * The maximum number of rows of a batch
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return rows.length;
+    }
+
+    /**
+     * Returns the number of rows in this batch
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return i < n;
+    }
+
+    @Override
+    public Row next() {
+        if (i >= n) throw new NoSuchElementException();
+        return rows[i++];
+    }
+
+    public Row firstRow() {
+        return get(0);
+    }
+
+    public Row lastRow() {
+        return get(n - 1);
+    }
+
+    public Row get(int position) {
+        if (position < 0 || position >= n)
+            throw new ArrayIndexOutOfBoundsException("Index: " + position + ", Size: " + n);
+        return rows[position];
+    }
+
+    public void position(int position) {
+        if (position < 0 || position > n)
+            throw new ArrayIndexOutOfBoundsException("Index: " + position + ", Size: " + n);
+        i = position;
+    }
+
+    public int position() {
+        return i;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The conditions of data rows for {@link Sheet#filter(RowFilter)}, a row
+ * is kept only if all conditions are matched.
+ * <p>
+ * The conditions are tested with the cell bytes before the row is parsed.
+ * The strings are compared with the string cells only. A shared string
+ * cell is resolved lazily, the string of each distinct index referred by
+ * the filtered columns is read once and the match is cached, so the cost
+ * grows with the distinct shared strings in those columns rather than the
+ * whole Shared String Table.
+ * <p>
+ * Example:
+ * <blockquote><pre>
+ * RowFilter filter = new RowFilter()
+ *     .eq(3, "CLOSED")          // column D
+ *     .between(5, 100, 1000)    // column F
+ *     .isBlank(7);              // column H
+ * </pre></blockquote>
+ *
+ * @author guanquan.wang at 2023-03-23 09:40
+ */
+public class RowFilter {
+    // The operators
+    static final int IN = 1, BETWEEN = 2, BLANK = 3;
+    private Condition[] conditions = new Condition[4];
+    private int size;
+
+    /**
+     * The string value of column equals {@code value}
+     *
+     * @param column the column index (zero base)
+     * @param value  the string value
+     * @return current {@link RowFilter}
+     * @throws IndexOutOfBoundsException if the column index is negative
+     */
+    public RowFilter eq(int column, String value) {
+        return add(new Condition(column, IN, Collections.singleton(value), 0.0D, 0.0D));
+    }
+
+    /**
+     * The string value of column is one of {@code values}
+     *
+     * @param column the column index (zero base)
+     * @param values the string values
+     * @return current {@link RowFilter}
+     * @throws IndexOutOfBoundsException if the column index is negative
+     */
+    public RowFilter in(int column, String... values) {
+        return add(new Condition(column, IN, new HashSet<>(Arrays.asList(values)), 0.0D, 0.0D));
+    }
+
+    /**
+     * The numeric value of column is between {@code min} and {@code max}
+     * (both inclusive), the date is tested with its serial number
+     *
+     * @param column the column index (zero base)
+     * @param min    the minimum value
+     * @param max    the maximum value
+     * @return current {@link RowFilter}
+     * @throws IndexOutOfBoundsException if the column index is negative
+     * @throws IllegalArgumentException if {@code min} is great than {@code max}
+     */
+    public RowFilter between(int column, double min, double max) {
+        if (min > max) throw new IllegalArgumentException("min(" + min + ") > max(" + max + ")");
+        return add(new Condition(column, BETWEEN, null, min, max));
+    }
+
+    /**
+     * The column has no value or the string is blank, the same as
+     * {@link Row#isBlank(int)}
+     *
+     * @param column the column index (zero base)
+     * @return current {@link RowFilter}
+     * @throws IndexOutOfBoundsException if the column index is negative
+     */
+    public RowFilter isBlank(int column) {
+        return add(new Condition(column, BLANK, null, 0.0D, 0.0D));
+    }
+
+    /**
+     * Returns the number of conditions
+     *
+     * @return the number of conditions
+     */
+    public int size() {
+        return size;
+    }
+
+    private RowFilter add(Condition condition) {
+        if (size == conditions.length) conditions = Arrays.copyOf(conditions, size << 1);
+        conditions[size++] = condition;
+        return this;
+    }
+
+    Condition[] getConditions() {
+        return Arrays.copyOf(conditions, size);
+    }
+
+    /**
+     * A condition on one column
+     */
+    static class Condition {
+        final int column, op;
+        final Set<String> values;
+        final double min, max;
+
+        Condition(int column, int op, Set<String> values, double min, double max) {
+            if (column < 0) throw new IndexOutOfBoundsException("Column index: " + column);
+            this.column = column;
+            this.op = op;
+            this.values = values;
+            this.min = min;
+            this.max = max;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import java.util.Arrays;
+
+/**
+ * A sparse index of worksheet rows, it records the byte offset of
+ * the {@code <row} tag every {@code step} rows while the rows are read.
+ * <p>
+ * The row numbers are recorded in ascending order, the rows that are
+ * read again after reset are ignored.
+ *
+ * @author guanquan.wang at 2023-03-12 10:40
+ */
+class RowIndex {
+    /**
+     * The minimum distance between two recorded rows
+     */
+    final int step;
+    private int[] rowNums;
+    private long[] offsets;
+    private int size;
+    // The next row number to be recorded
+    private int next;
+
+    RowIndex(int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("The step of row index must be positive.");
+        }
+        this.step = step;
+        this.next = step;
+        rowNums = new int[16];
+        offsets = new long[16];
+    }
+
+    /**
+     * Record the offset of row if it is far enough from the last one
+     *
+     * @param rowNum the row number (one base)
+     * @param offset the byte offset of {@code <row} tag in worksheet part
+     */
+    void add(int rowNum, long offset) {
+        if (rowNum < next) return;
+        if (size == rowNums.length) {
+            rowNums = Arrays.copyOf(rowNums, size << 1);
+            offsets = Arrays.copyOf(offsets, size << 1);
+        }
+        rowNums[size] = rowNum;
+        offsets[size++] = offset;
+        next = rowNum + step;
+    }
+
+    /**
+     * Returns the offset of the greatest recorded row which number
+     * is less than or equal to the given row number
+     *
+     * @param rowNum the row number (one base)
+     * @return the byte offset, or -1 if not found
+     */
+    long floor(int rowNum) {
+        int i = Arrays.binarySearch(rowNums, 0, size, rowNum);
+        if (i < 0) i = -i - 2;
+        return i >= 0 ? offsets[i] : -1L;
+    }
+
+    /**
+     * Returns the number of recorded rows
+     *
+     * @return the size of index
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A read-only map view over the current row, the keys and their column
+ * indexes are shared by all rows of the header, the value is decoded when
+ * it is accessed, so nothing is copied or boxed until {@link #get(Object)}.
+ * <p>
+ * The keys and values are the same as {@link Row#toMap()}, the view always
+ * reflects the current row, use {@link #snapshot()} to retain the values.
+ *
+ * @author guanquan.wang at 2023-03-17 09:30
+ */
+public class RowMap extends AbstractMap<String, Object> {
+    private final Row row;
+    private Set<String> keySet;
+    private Set<Map.Entry<String, Object>> entrySet;
+
+    RowMap(Row row) {
+        this.row = row;
+    }
+
+    // Returns the header row, or null if the row is empty
+    private HeaderRow header() {
+        return row.hr != null && !row.isEmpty() ? row.hr : null;
+    }
+
+    // Returns the column index of key, -1 if not found
+    private int indexOf(Object key) {
+        HeaderRow hr = header();
+        if (hr == null || key == null) return -1;
+        Integer i = hr.mapping.get(key);
+        return i != null ? i : -1;
+    }
+
+    private Object valueAt(int column) {
+        return row.getMapValue(row.cells[column]);
+    }
+
+    @Override
+    public int size() {
+        HeaderRow hr = header();
+        return hr != null ? hr.getMapKeys().length : 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int i = indexOf(key);
+        return i >= 0 ? valueAt(i) : null;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        HeaderRow hr = header();
+        if (hr == null) return;
+        String[] keys = hr.getMapKeys();
+        int[] columns = hr.getMapColumns();
+        for (int i = 0; i < keys.length; i++) {
+            action.accept(keys[i], valueAt(columns[i]));
+        }
+    }
+
+    @Override
+    public Set<String> keySet() {
+        Set<String> ks = keySet;
+        if (ks == null) {
+            keySet = ks = new AbstractSet<String>() {
+                @Override
+                public Iterator<String> iterator() {
+                    return new Itr<String>() {
+                        @Override
+                        String get(String key, int column) {
+                            return key;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return RowMap.this.size();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsKey(o);
+                }
+            };
+        }
+        return ks;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        Set<Map.Entry<String, Object>> es = entrySet;
+        if (es == null) {
+            entrySet = es = new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new Itr<Map.Entry<String, Object>>() {
+                        @Override
+                        Map.Entry<String, Object> get(String key, int column) {
+                            return new SimpleImmutableEntry<>(key, valueAt(column));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return RowMap.this.size();
+                }
+            };
+        }
+        return es;
+    }
+
+    /**
+     * Copy the current row into a new {@link java.util.LinkedHashMap}
+     * which is independent of the iterator
+     *
+     * @return a copy of the current row
+     */
+    public Map<String, Object> snapshot() {
+        return row.toMap();
+    }
+
+    private abstract class Itr<E> implements Iterator<E> {
+        private final String[] keys;
+        private final int[] columns;
+        private int i;
+
+        Itr() {
+            HeaderRow hr = header();
+            keys = hr != null ? hr.getMapKeys() : new String[0];
+            columns = hr != null ? hr.getMapColumns() : new int[0];
+        }
+
+        abstract E get(String key, int column);
+
+        @Override
+        public boolean hasNext() {
+            return i < keys.length;
+        }
+
+        @Override
+        public E next() {
+            if (i >= keys.length) throw new NoSuchElementException();
+            E e = get(keys[i], columns[i]);
+            i++;
+            return e;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.ttzero.excel.reader.Cell.BOOL;
+import static org.ttzero.excel.reader.Cell.CHARACTER;
+import static org.ttzero.excel.reader.Cell.DECIMAL;
+import static org.ttzero.excel.reader.Cell.DOUBLE;
+import static org.ttzero.excel.reader.Cell.LONG;
+import static org.ttzero.excel.reader.Cell.NUMERIC;
+import static org.ttzero.excel.reader.Cell.SST;
+import static org.ttzero.excel.reader.Cell.UNALLOCATED;
+import static org.ttzero.excel.reader.Cell.UNALLOCATED_CELL;
+
+/**
+ * An immutable and compact copy of {@link Row}, it is created by
+ * {@link Row#snapshot()} to retain rows after the iterator moves.
+ * <p>
+ * The type and style of each cell are packed into an {@code int}, the
+ * value is kept as a primitive {@code long}, the shared strings are kept
+ * as their indexes and resolved on access, only the inline strings and
+ * decimals are kept as objects. The formulas are not copied.
+ * <p>
+ * The shared strings are read from the {@link ExcelReader}, so it must
+ * be kept open until the snapshots are read.
+ * <p>
+ * The getters have the same conversions as the getters of {@link Row},
+ * call {@link #toRow()} to use the other methods of {@link Row}.
+ *
+ * @author guanquan.wang at 2023-03-22 10:05
+ */
+public final class RowSnapshot {
+    private static final int[] EMPTY_META = {};
+    private static final long[] EMPTY_VALUES = {};
+    private final int index, fc, lc;
+    // The column index of the first element of arrays, the cells before it are unallocated
+    private final int base;
+    // The style index << 8 | type
+    private final int[] meta;
+    private final long[] values;
+    // The strings and decimals, null if there is none
+    private final Object[] refs;
+    // Shared with all snapshots of the same row, it only converts the given cells
+    private final Row decoder;
+
+    RowSnapshot(Row row, Row decoder) {
+        this.index = row.getRowNum();
+        this.decoder = decoder;
+        this.fc = row.fc;
+        this.lc = row.lc;
+        // The getters of row can read the cells before fc, keep them if they are allocated
+        int base = 0;
+        for (; base < lc && row.cells[base].t == UNALLOCATED && row.cells[base].xf == 0; base++) ;
+        this.base = base;
+        int n = Math.max(lc - base, 0);
+        if (n == 0) {
+            meta = EMPTY_META;
+            values = EMPTY_VALUES;
+            refs = null;
+            return;
+        }
+        meta = new int[n];
+        values = new long[n];
+        Object[] refs = null;
+        for (int i = 0; i < n; i++) {
+            Cell c = row.cells[base + i];
+            meta[i] = c.xf << 8 | (c.t & 0xFF);
+            switch (c.t) {
+                case SST      : values[i] = c.nv;                             break;
+                case NUMERIC  : values[i] = c.nv;                             break;
+                case LONG     : values[i] = c.lv;                             break;
+                case DOUBLE   : values[i] = Double.doubleToRawLongBits(c.dv); break;
+                case BOOL     : values[i] = c.bv ? 1L : 0L;                   break;
+                case CHARACTER: values[i] = c.cv;                             break;
+                case DECIMAL  :
+                    if (refs == null) refs = new Object[n];
+                    refs[i] = c.mv;
+                    break;
+                default:
+                    if (c.sv != null) {
+                        if (refs == null) refs = new Object[n];
+                        refs[i] = c.sv;
+                    }
+            }
+        }
+        this.refs = refs;
+    }
+
+    /**
+     * The number of row. (one base)
+     *
+     * @return int value
+     */
+    public int getRowNum() {
+        return index;
+    }
+
+    /**
+     * Returns the index of the first column (zero base)
+     *
+     * @return the first column index
+     */
+    public int getFirstColumnIndex() {
+        return fc;
+    }
+
+    /**
+     * Returns the index of the last column (zero base, exclude)
+     *
+     * @return the last column index
+     */
+    public int getLastColumnIndex() {
+        return lc;
+    }
+
+    /**
+     * Test unused row (not contains any filled or formatted or value)
+     *
+     * @return true if unused
+     */
+    public boolean isEmpty() {
+        return lc - fc <= 0;
+    }
+
+    /**
+     * Returns the index of shared string
+     *
+     * @param columnIndex the cell index
+     * @return the index of shared string, -1 if the cell is not a shared string
+     */
+    public int getSstIndex(int columnIndex) {
+        int i = columnIndex - base;
+        return i >= 0 && columnIndex < lc && (char) (meta[i] & 0xFF) == SST ? (int) values[i] : -1;
+    }
+
+    public Boolean getBoolean(int columnIndex) {
+        return decoder.getBoolean(getCell(columnIndex));
+    }
+
+    public Boolean getBoolean(String columnName) {
+        return decoder.getBoolean(getCell(columnName));
+    }
+
+    public Integer getInt(int columnIndex) {
+        return decoder.getInt(getCell(columnIndex));
+    }
+
+    public Integer getInt(String columnName) {
+        return decoder.getInt(getCell(columnName));
+    }
+
+    public Long getLong(int columnIndex) {
+        return decoder.getLong(getCell(columnIndex));
+    }
+
+    public Long getLong(String columnName) {
+        return decoder.getLong(getCell(columnName));
+    }
+
+    public Double getDouble(int columnIndex) {
+        return decoder.getDouble(getCell(columnIndex));
+    }
+
+    public Double getDouble(String columnName) {
+        return decoder.getDouble(getCell(columnName));
+    }
+
+    public BigDecimal getDecimal(int columnIndex) {
+        return decoder.getDecimal(getCell(columnIndex));
+    }
+
+    public BigDecimal getDecimal(String columnName) {
+        return decoder.getDecimal(getCell(columnName));
+    }
+
+    public String getString(int columnIndex) {
+        return decoder.getString(getCell(columnIndex));
+    }
+
+    public String getString(String columnName) {
+        return decoder.getString(getCell(columnName));
+    }
+
+    public Date getDate(int columnIndex) {
+        return decoder.getDate(getCell(columnIndex));
+    }
+
+    public Date getDate(String columnName) {
+        return decoder.getDate(getCell(columnName));
+    }
+
+    public Timestamp getTimestamp(int columnIndex) {
+        return decoder.getTimestamp(getCell(columnIndex));
+    }
+
+    public Timestamp getTimestamp(String columnName) {
+        return decoder.getTimestamp(getCell(columnName));
+    }
+
+    public LocalDate getLocalDate(int columnIndex) {
+        return decoder.getLocalDate(getCell(columnIndex));
+    }
+
+    public LocalDate getLocalDate(String columnName) {
+        return decoder.getLocalDate(getCell(columnName));
+    }
+
+    public LocalDateTime getLocalDateTime(int columnIndex) {
+        return decoder.getLocalDateTime(getCell(columnIndex));
+    }
+
+    public LocalDateTime getLocalDateTime(String columnName) {
+        return decoder.getLocalDateTime(getCell(columnName));
+    }
+
+    public CellType getCellType(int columnIndex) {
+        return decoder.getCellType(getCell(columnIndex));
+    }
+
+    public CellType getCellType(String columnName) {
+        return decoder.getCellType(getCell(columnName));
+    }
+
+    public int getCellStyle(int columnIndex) {
+        return decoder.getCellStyle(getCell(columnIndex));
+    }
+
+    /**
+     * Returns a new {@link Cell} with the value of column, the cell is
+     * not shared so modifying it does not affect this snapshot
+     *
+     * @param columnIndex the cell index
+     * @return the {@link Cell}
+     */
+    public Cell getCell(int columnIndex) {
+        if (columnIndex < 0)
+            throw new IndexOutOfBoundsException("Index: " + columnIndex + " is negative.");
+        int i = columnIndex - base;
+        if (i < 0 || columnIndex >= lc) return columnIndex < lc ? new Cell(columnIndex + 1) : UNALLOCATED_CELL;
+        Cell c = new Cell(columnIndex + 1);
+        c.t = (char) (meta[i] & 0xFF);
+        c.xf = meta[i] >>> 8;
+        long v = values[i];
+        switch (c.t) {
+            case SST      :
+            case NUMERIC  : c.nv = (int) v;                        break;
+            case LONG     : c.lv = v;                              break;
+            case DOUBLE   : c.dv = Double.longBitsToDouble(v);     break;
+            case BOOL     : c.bv = v == 1L;                        break;
+            case CHARACTER: c.cv = (char) v;                       break;
+            case DECIMAL  : c.mv = (BigDecimal) refs[i];           break;
+            default       : if (refs != null) c.sv = (String) refs[i];
+        }
+        return c;
+    }
+
+    /**
+     * Search {@link Cell} by column name
+     *
+     * @param name the column name
+     * @return the {@link Cell}
+     */
+    public Cell getCell(String name) {
+        if (decoder.hr == null) throw new IllegalStateException("The header row is not specified.");
+        return getCell(decoder.hr.getIndex(name));
+    }
+
+    /**
+     * Restore to a {@link Row} with its own cells
+     *
+     * @return a new {@link Row}
+     */
+    public Row toRow() {
+        Row row = new Row() { };
+        row.index = index;
+        row.sst = decoder.sst;
+        row.styles = decoder.styles;
+        row.hr = decoder.hr;
+        Cell[] cells = new Cell[Math.max(lc, 0)];
+        for (int i = 0; i < cells.length; i++) cells[i] = getCell(i);
+        row.cells = cells;
+        row.fc = fc;
+        row.lc = lc;
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return toRow().toString();
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A splittable {@link Spliterator} of worksheet rows.
+ * <p>
+ * It reads rows by the worksheet cursor like a normal iterator until
+ * {@link #trySplit()} is called by a parallel stream, then the remaining
+ * bytes of {@code sheetData} are partitioned at the {@code <row} boundaries,
+ * each part is read from a shared {@link FileChannel} by position and parsed
+ * with its own {@link XMLRow} and buffer on the fork-join pool.
+ * <p>
+ * A part always starts at a row which carries the {@code r} attribute, the
+ * rows without it are numbered after the previous row of the same part.
+ * <p>
+ * The row object is shared inside one part unless {@code copy} is set, the
+ * ordered terminal operations buffer the rows of later parts, so each row
+ * of a part is parsed on a new copy of the row in that case. Only the unzipped
+ * worksheets without formulas and merged-cell copying can be split, the others
+ * are read sequentially.
+ *
+ * @author guanquan.wang at 2023-03-08 14:05
+ */
+class RowSpliterator implements Spliterator<Row> {
+    /**
+     * The minimum bytes of a split part
+     */
+    static final int MIN_SPLIT_SIZE = 1 << 16;
+
+    private final XMLSheet sheet;
+    private final boolean onlyDataRow;
+    // Parse each row of the parts on a new row object
+    private final boolean copy;
+    // Read by the worksheet cursor until split
+    private Iterator<Row> iterator;
+    // The remaining bytes of worksheet
+    private long est = Long.MAX_VALUE;
+
+    // The start tag of rows in range [from, to) belong to this part
+    private FileChannel channel;
+    private long from, to;
+    private HeaderRow hr;
+    private XMLRow row;
+    private byte[] cb;
+    private int nChar, length;
+    // The position of cb[0]
+    private long offset;
+    private boolean end;
+    // The number of previous row, -1 if unknown
+    private int rowNum = -1;
+
+    RowSpliterator(XMLSheet sheet, Iterator<Row> iterator, boolean onlyDataRow) {
+        this(sheet, iterator, onlyDataRow, false);
+    }
+
+    RowSpliterator(XMLSheet sheet, Iterator<Row> iterator, boolean onlyDataRow, boolean copy) {
+        this.sheet = sheet;
+        this.iterator = iterator;
+        this.onlyDataRow = onlyDataRow;
+        this.copy = copy;
+        // Estimate with the remaining bytes
+        if (sheet.splittable()) {
+            try {
+                est = sheet.eof ? 0L : Files.size(sheet.path) - cursor(sheet);
+            } catch (IOException e) {
+                // Unknown size
+            }
+        }
+    }
+
+    private RowSpliterator(RowSpliterator parent, long from, long to) {
+        this.sheet = parent.sheet;
+        this.onlyDataRow = parent.onlyDataRow;
+        this.copy = parent.copy;
+        this.channel = parent.channel;
+        this.hr = parent.hr;
+        this.from = from;
+        this.to = to;
+        this.rowNum = parent.rowNum;
+    }
+
+    // The position of the next unread byte of worksheet
+    private static long cursor(XMLSheet sheet) {
+        return sheet.position - (sheet.length - sheet.nChar);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Row> action) {
+        Row r;
+        if (iterator != null) {
+            if (!iterator.hasNext()) return false;
+            r = iterator.next();
+        } else {
+            for (; (r = nextRow()) != null && onlyDataRow && r.isBlank(); ) ;
+            if (r == null) return false;
+        }
+        action.accept(r);
+        return true;
+    }
+
+    @Override
+    public Spliterator<Row> trySplit() {
+        if (iterator != null && !toRange()) return null;
+        // The part has been read
+        if (cb != null || end || to - from < MIN_SPLIT_SIZE << 1) return null;
+        long p;
+        int r;
+        try {
+            p = findRow(from + ((to - from) >>> 1));
+            if (p < 0L || (r = rowNum(p)) <= 0) return null;
+        } catch (IOException e) {
+            throw new ExcelReadException("Split worksheet[" + sheet.getName() + "] error occur.", e);
+        }
+        RowSpliterator prefix = new RowSpliterator(this, from, p);
+        from = p;
+        rowNum = r - 1;
+        return prefix;
+    }
+
+    /**
+     * Returns the remaining bytes of worksheet instead of the number of rows,
+     * it is only used to balance the parts, the rows are counted when read.
+     *
+     * @return the remaining bytes of this part
+     */
+    @Override
+    public long estimateSize() {
+        return iterator != null ? est : to - from;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+
+    /**
+     * Hand over the remaining rows of worksheet to the range parts,
+     * the cursor of worksheet is moved to the end.
+     *
+     * @return false if the worksheet can not be split
+     */
+    private boolean toRange() {
+        if (sheet.eof) return false;
+        try {
+            if ((channel = sheet.splitChannel()) == null) return false;
+            from = cursor(sheet);
+            to = channel.size();
+            hr = sheet.sRow.hr;
+            // Number of the last read row
+            rowNum = sheet.sRow.cb != null ? sheet.sRow.index : sheet.startRow > 0 ? sheet.startRow - 1 : 0;
+            sheet.eof = true;
+            if (sheet.reader != null) {
+                sheet.reader.close();
+                sheet.reader = null;
+            }
+        } catch (IOException e) {
+            throw new ExcelReadException("Split worksheet[" + sheet.getName() + "] error occur.", e);
+        }
+        iterator = null;
+        return true;
+    }
+
+    /**
+     * Find the first start tag of row which carries the {@code r} attribute
+     * at or after the position, the search gives up after {@link #MIN_SPLIT_SIZE}
+     * bytes if the rows are not numbered.
+     *
+     * @param pos the position to search from
+     * @return the position of {@code <row}, or -1 if not found in range
+     * @throws IOException if I/O error occur
+     */
+    private long findRow(long pos) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+        byte[] b = buffer.array();
+        for (long limit = Math.min(to, pos + MIN_SPLIT_SIZE); pos < limit; ) {
+            buffer.clear();
+            int n = channel.read(buffer, pos), i = 0;
+            if (n < 6) break;
+            for (; i < n - 5; i++) {
+                if (b[i] != '<') continue;
+                if (isRowTag(b, i)) {
+                    if (pos + i >= to) return -1L;
+                    int j = i + 4;
+                    for (; j < n && b[j] != '>'; j++) ;
+                    // The start tag is cut off, read again from it
+                    if (j >= n) {
+                        if (i == 0) return -1L;
+                        break;
+                    }
+                    if (rowNum(b, i, j) > 0) return pos + i;
+                    i = j;
+                    continue;
+                }
+                // End of sheetData
+                if (b[i + 1] == '/' && b[i + 2] == 's') {
+                    to = pos + i;
+                    return -1L;
+                }
+            }
+            pos += i;
+        }
+        return -1L;
+    }
+
+    // The row number of the start tag at the position
+    private int rowNum(long pos) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 8);
+        int n = channel.read(buffer, pos);
+        return n > 0 ? rowNum(buffer.array(), 0, n) : -1;
+    }
+
+    /**
+     * Returns the {@code r} attribute of the row tag starts at {@code from}
+     *
+     * @param b the buffer
+     * @param from the position of {@code <row}
+     * @param to the end of buffer (exclusive)
+     * @return the row number, or -1 if not exists
+     */
+    private static int rowNum(byte[] b, int from, int to) {
+        for (int i = from + 4; i < to - 3 && b[i] != '>'; i++) {
+            if (b[i] <= ' ' && b[i + 1] == 'r' && b[i + 2] == '=') {
+                int a = i += 4;
+                for (; i < to && b[i] != '"'; i++) ;
+                return i > a && i < to ? SharedStrings.toInt(b, a, i) : -1;
+            }
+        }
+        return -1;
+    }
+
+    // Test the start tag of row
+    private static boolean isRowTag(byte[] b, int i) {
+        return b[i] == '<' && b[i + 1] == 'r' && b[i + 2] == 'o' && b[i + 3] == 'w'
+            && (b[i + 4] == '>' || b[i + 4] == '/' || b[i + 4] > 0 && b[i + 4] <= ' ');
+    }
+
+    /**
+     * Read the next row in range
+     *
+     * @return the shared {@link XMLRow} of this part or a new copy of it if
+     * {@code copy} is set, null if end of range
+     */
+    private XMLRow nextRow() {
+        if (end) return null;
+        try {
+            if (cb == null) {
+                cb = new byte[1 << 13];
+                offset = from;
+                row = sheet.createRow().init(sheet.sst, sheet.styles, sheet.startRow > 0 ? sheet.startRow : 1);
+                row.setHr(hr);
+                row.selected = sheet.selected;
+            }
+            for (; ; ) {
+                int i = nChar;
+                // Find the start tag of row
+                for (; i < length - 5 && (cb[i] != '<' || !isRowTag(cb, i)); i++) {
+                    // End of sheetData
+                    if (cb[i] == '<' && cb[i + 1] == '/' && cb[i + 2] == 's') {
+                        end = true;
+                        return null;
+                    }
+                }
+                if (i >= length - 5) {
+                    nChar = i;
+                    if (fill()) continue;
+                    end = true;
+                    return null;
+                }
+                // Belong to the next part
+                if (offset + i >= to) {
+                    end = true;
+                    return null;
+                }
+                int start = i;
+                for (; i < length && cb[i] != '>'; i++) ;
+                // Empty row
+                if (i < length && cb[i - 1] == '/') {
+                    nChar = i + 1;
+                    return number(row().empty(cb, start, nChar - start));
+                }
+                // Find the end tag of row
+                for (; i < length - 5 && (cb[i] != '<' || cb[i + 1] != '/' || cb[i + 2] != 'r'
+                    || cb[i + 3] != 'o' || cb[i + 4] != 'w' || cb[i + 5] != '>'); i++) ;
+                if (i >= length - 5) {
+                    nChar = start;
+                    if (fill()) continue;
+                    end = true;
+                    return null;
+                }
+                nChar = i + 6;
+                return number(row().with(cb, start, nChar - start));
+            }
+        } catch (IOException e) {
+            throw new ExcelReadException("Read worksheet[" + sheet.getName() + "] error occur.", e);
+        }
+    }
+
+    // The row object to parse the next row
+    private XMLRow row() {
+        return copy ? row.copy() : row;
+    }
+
+    // Number the row after the previous one if it has no r attribute
+    private XMLRow number(XMLRow row) {
+        int r = row.getRowNum();
+        if (r > 0) rowNum = r;
+        else if (rowNum >= 0) row.index = ++rowNum;
+        return row;
+    }
+
+    // Keep the unread bytes and read more
+    private boolean fill() throws IOException {
+        int n = length - nChar;
+        // A row is larger than the buffer
+        if (nChar == 0 && length == cb.length) cb = Arrays.copyOf(cb, cb.length << 1);
+        else if (nChar > 0) System.arraycopy(cb, nChar, cb, 0, n);
+        offset += nChar;
+        nChar = 0;
+        length = n;
+        int r = channel.read(ByteBuffer.wrap(cb, n, cb.length - n), offset + n);
+        if (r <= 0) return false;
+        length += r;
+        return true;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import java.util.Arrays;
+
+/**
+ * The columns and their vector types of {@link ColumnBatch}
+ * <p>
+ * Example:
+ * <blockquote><pre>
+ * Schema schema = new Schema()
+ *     .add(0, Schema.Type.INT)     // column A
+ *     .add(2, Schema.Type.STRING)  // column C
+ *     .add(3, Schema.Type.DOUBLE); // column D
+ * </pre></blockquote>
+ *
+ * @author guanquan.wang at 2023-03-13 11:25
+ */
+public class Schema {
+    /**
+     * The vector types
+     */
+    public enum Type {
+        /**
+         * {@code int[]}, the boolean value is converted to 1 or 0
+         * and the decimal is truncated
+         */
+        INT,
+        /**
+         * {@code long[]}, the boolean value is converted to 1 or 0
+         * and the decimal is truncated
+         */
+        LONG,
+        /**
+         * {@code double[]}, the date and time are stored as the serial number
+         */
+        DOUBLE,
+        /**
+         * {@code boolean[]}, the number is true if it is not zero
+         */
+        BOOLEAN,
+        /**
+         * {@code int[]} of the Shared String Table index, -1 if the value
+         * is not a shared string. The numbers and booleans are converted
+         * to string as {@link Row#getString(int)}
+         */
+        STRING
+    }
+
+    private int[] columns = new int[8];
+    private Type[] types = new Type[8];
+    private int size;
+
+    /**
+     * Append a column
+     *
+     * @param column the column index (zero base)
+     * @param type   the vector type
+     * @return current {@link Schema}
+     * @throws IndexOutOfBoundsException if the column index is negative
+     * @throws IllegalArgumentException if the column is duplicated
+     */
+    public Schema add(int column, Type type) {
+        if (column < 0) throw new IndexOutOfBoundsException("Column index: " + column);
+        if (type == null) throw new IllegalArgumentException("The type must not be null.");
+        if (indexOf(column) >= 0) throw new IllegalArgumentException("Duplicate column: " + column);
+        if (size == columns.length) {
+            columns = Arrays.copyOf(columns, size << 1);
+            types = Arrays.copyOf(types, size << 1);
+        }
+        columns[size] = column;
+        types[size++] = type;
+        return this;
+    }
+
+    /**
+     * Returns the number of columns
+     *
+     * @return the number of columns
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the column index of vector
+     *
+     * @param i the vector index
+     * @return the column index (zero base)
+     */
+    public int getColumn(int i) {
+        checkIndex(i);
+        return columns[i];
+    }
+
+    /**
+     * Returns the type of vector
+     *
+     * @param i the vector index
+     * @return the vector {@link Type}
+     */
+    public Type getType(int i) {
+        checkIndex(i);
+        return types[i];
+    }
+
+    /**
+     * Returns the vector index of column
+     *
+     * @param column the column index (zero base)
+     * @return the vector index, or -1 if not in schema
+     */
+    public int indexOf(int column) {
+        for (int i = 0; i < size; i++) {
+            if (columns[i] == column) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Map the column index to the vector index
+     *
+     * @return an array index by column, -1 if the column not in schema
+     */
+    int[] toVectorIndex() {
+        int max = -1;
+        for (int i = 0; i < size; i++) {
+            if (columns[i] > max) max = columns[i];
+        }
+        int[] map = new int[max + 1];
+        Arrays.fill(map, -1);
+        for (int i = 0; i < size; i++) {
+            map[columns[i]] = i;
+        }
+        return map;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("index: " + i + ", size: " + size);
+    }
+}
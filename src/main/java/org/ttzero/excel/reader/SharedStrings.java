@@ -18,17 +18,20 @@ package org.ttzero.excel.reader;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.ttzero.excel.entity.ExcelWriteException;
 
 import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static java.lang.Integer.numberOfTrailingZeros;
 import static org.ttzero.excel.util.FileUtil.exists;
+import static org.ttzero.excel.util.FileUtil.isWindows;
 import static org.ttzero.excel.util.StringUtil.EMPTY;
 
 /**
@@ -43,8 +46,13 @@ import static org.ttzero.excel.util.StringUtil.EMPTY;
  * the ward will be re-load in to the forward area. The original
  * forwarding area data is copied to the backward area. The blocks
  * loaded twice will be marked, the marked blocks will be placed in
- * the hot area when they are repeatedly read, and the hot area will
- * be eliminated by the LRU page replacement algorithm.
+ * the hot area when they are repeatedly read, and the hot area only
+ * admits a word which is used more frequently than the victim, see
+ * {@link IntLFUCache}.
+ * <p>
+ * The areas are kept by each thread, so that the worksheets can be
+ * read on different threads. The words are loaded at once and kept
+ * in an immutable array if they can be held in two pages.
  *
  * @author guanquan.wang at 2018-09-27 14:28
  */
@@ -67,25 +75,8 @@ public class SharedStrings implements Closeable {
      */
     public SharedStrings(String[] data) {
         max = data.length;
-        offset_forward = 0;
+        this.data = Arrays.copyOf(data, max);
         status = 1;
-        if (max <= page) {
-            forward = new String[max];
-            System.arraycopy(data, offset_forward, forward, 0, max);
-            limit_forward = max;
-        } else {
-            if (max > page << 1) {
-                page = max >> 1;
-            }
-            status <<= 1;
-            forward = new String[page];
-            limit_forward = page;
-            System.arraycopy(data, offset_forward, forward, 0, limit_forward);
-            offset_backward = page;
-            limit_backward = max - page;
-            backward = new String[limit_backward];
-            System.arraycopy(data, offset_backward, backward, 0, limit_backward);
-        }
     }
 
     /**
@@ -119,51 +110,35 @@ public class SharedStrings implements Closeable {
             this.page = tableSizeFor(cacheSize);
         }
         this.hotSize = hotSize;
+        eof = true;
         init();
-        // Load forward
-        limit_forward = sst.get(offset_forward = 0, forward);
     }
 
     /**
-     * Storage the new load data
+     * All words if they can be held in memory, it is never changed
+     * after loaded
      */
-    private String[] forward;
+    private String[] data;
     /**
-     * Copy data to this area when the forward area is missing
+     * The parse buffer of main reader
      */
-    private String[] backward;
+    private String[] forward;
     /**
      * Number of word per load
      */
     private int page = 512;
     /**
-     * The word total
-     */
-    private int max = -1, vt = 0, offsetM = 0;
-    /**
-     * The forward offset
+     * The word total, it is updated by the main reader and read by all threads
      */
-    private int offset_forward = -1;
+    private volatile int max = -1;
     /**
-     * The backward offset
+     * The pages and hot cache of each thread
      */
-    private int offset_backward = -1;
+    private ThreadLocal<Page> pages;
     /**
-     * The forward limit
+     * All pages, for debug and free space
      */
-    private int limit_forward;
-    /**
-     * The backward limit
-     */
-    private int limit_backward;
-    /**
-     * A tester of SharedString's cache
-     */
-    private Tester tester = null;
-    /**
-     * High frequency word
-     */
-    private Cache<Integer, String> hot;
+    private final List<Page> allPages = new ArrayList<>();
     /**
      * Size of hot
      */
@@ -172,6 +147,10 @@ public class SharedStrings implements Closeable {
      * Main reader
      */
     private BufferedReader reader;
+    /**
+     * The main reader has reached the end
+     */
+    private volatile boolean eof;
     /**
      * Buffered
      */
@@ -190,14 +169,10 @@ public class SharedStrings implements Closeable {
     private IndexSharedStringTable sst;
     /**
      * 0: empty
-     * 1: forward only
-     * 2: forward + backward
+     * 1: all words in memory
      * 4: large model/unknown size
      */
-    private int status;
-
-    // For debug
-    private int total, total_forward, total_backward, total_hot, total_sst;
+    private volatile int status;
 
     /**
      * @return the shared string unique count
@@ -238,39 +213,103 @@ public class SharedStrings implements Closeable {
         // Get unique count
         max = uniqueCount();
         LOGGER.debug("Size of SharedString: {}", max);
+        escapeBuf = new StringBuilder();
         //
         init();
+        return this;
+    }
+
+    /**
+     * Load all words from a character stream at once. The stream can not be
+     * re-opened, so words are kept in memory if they can be held, otherwise
+     * all of them are pushed into the {@link IndexSharedStringTable} and
+     * never read from the stream again.
+     * <p>
+     * The stream is not closed by this method.
+     *
+     * @param reader the character stream of sharedStrings.xml
+     * @return the {@code SharedStrings}
+     * @throws IOException if io error occur
+     */
+    public SharedStrings load(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        // Get unique count
+        max = uniqueCount();
+        LOGGER.debug("Size of SharedString: {}", max);
         escapeBuf = new StringBuilder();
+        init();
+
+        // Read to the end, all words are stored in SharedStringTable
+        if (status == 4) {
+            for (; readData() == page; ) ;
+            end();
+        }
         return this;
     }
 
-    /* */
+    /*
+     * The words are loaded at once if they can be held in two pages,
+     * otherwise they are pushed into the SharedStringTable page by page
+     * and each thread reads them by its own pages.
+     */
     private void init() throws IOException {
-        status = 1;
         // Unknown size or greater than {@code page * 2}
         if (max < 0 || max > page << 1) {
-            status <<= 2;
             forward = new String[page];
-            backward = new String[page];
-
-            // Cache 8KB binary, it will store 1^16 strings.
-            tester = new Tester.FixBinaryTester(Math.min(max, 1 << 16));
-
-            if (hotSize > 0) hot = FixSizeLRUCache.create(hotSize);
-            else hot = FixSizeLRUCache.create();
-            // Instance the SharedStringTable
+            // Instance the SharedStringTable, the mapped files can not be deleted on Windows
             if (sst == null) {
-                sst = new IndexSharedStringTable();
+                sst = isWindows() ? new IndexSharedStringTable() : new MappedSharedStringTable();
                 sst.setShortSectorSize(numberOfTrailingZeros(page));
             }
-        }
-        else if (max > page) {
-            status <<= 1;
-            forward = new String[page];
-            backward = new String[page];
+            int expectedInsertions = Math.min(max, 1 << 16);
+            pages = ThreadLocal.withInitial(() -> {
+                Page p = new Page(page, expectedInsertions, hotSize);
+                synchronized (allPages) {
+                    allPages.add(p);
+                }
+                return p;
+            });
+            status = 4;
         } else {
+            data = loadAll();
+            status = 1;
+        }
+    }
+
+    // Read all words into memory, the declared count may be inexact
+    private String[] loadAll() throws IOException {
+        String[] array = new String[max];
+        int n = 0;
+        if (sst != null) {
+            if (max > 0) n = sst.get(0, array);
+        } else if (reader != null) {
             forward = new String[page];
+            for (int len; ; ) {
+                len = readData();
+                if (n + len > array.length) array = Arrays.copyOf(array, Math.max(n + len, array.length << 1));
+                System.arraycopy(forward, 0, array, n, len);
+                n += len;
+                if (len < page) break;
+            }
+            forward = null;
+            reader.close();
+            reader = null;
         }
+        cb = null;
+        escapeBuf = null;
+        max = n;
+        return n < array.length ? Arrays.copyOf(array, n) : array;
+    }
+
+    // The main reader is exhausted, the size of table is exact
+    private void end() throws IOException {
+        eof = true;
+        max = sst.size();
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+        cb = null;
     }
 
     /**
@@ -281,7 +320,7 @@ public class SharedStrings implements Closeable {
      */
     private int uniqueCount() throws IOException {
         int off = -1;
-        reader = Files.newBufferedReader(sstPath);
+        if (reader == null) reader = Files.newBufferedReader(sstPath);
         cb = new char[1 << 12];
         offset = 0;
         offset = reader.read(cb);
@@ -308,7 +347,7 @@ public class SharedStrings implements Closeable {
             }
         }
 
-        vt = ++end;
+        int vt = ++end;
         System.arraycopy(cb, vt, cb, 0, offset -= vt);
 
         return off;
@@ -316,125 +355,77 @@ public class SharedStrings implements Closeable {
 
     /**
      * Getting the strings value by index
+     * <p>
+     * This method is thread safe, the words that can be held in memory
+     * are read from an immutable array, otherwise each thread reads
+     * the {@link IndexSharedStringTable} by its own pages and hot cache.
      *
      * @param index the index of SharedStringTable
      * @return string
      */
     public String get(int index) {
         checkBound(index);
-        total++;
-
-        // Load first
-        if (offset_forward == -1) {
-            offset_forward = index / page * page;
-
-            if (vt < 0) vt = 0;
+        if (status == 1) return data[index];
+        if (status != 4) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + max);
 
-            readMore();
-        }
+        Page p = pages.get();
+        p.total++;
 
-        String value = null;
+        String value;
         // Find in forward
-        if (forwardRange(index)) {
-            value = forward[index - offset_forward];
-            total_forward++;
-            if (test(index)) hot.put(index, value);
-            return value;
+        if (p.forwardRange(index)) {
+            value = p.forward[index - p.offset_forward];
+            p.total_forward++;
         }
-
-        if (status == 1)
-            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + max);
-
         // Find in backward
-        if (backwardRange(index)) {
-            value = backward[index - offset_backward];
-            total_backward++;
-            if (test(index)) hot.put(index, value);
-            return value;
+        else if (p.backwardRange(index)) {
+            value = p.backward[index - p.offset_backward];
+            p.total_backward++;
         }
-
         // Find in hot cache
-        if (status == 4) {
-            value = hot.get(index);
+        else if ((value = p.hot.get(index)) != null) {
+            p.total_hot++;
+            return value;
         }
-
         // Can't find in memory cache
-        if (value == null) {
-            if (status == 2 && offset_backward > -1)
-                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + max);
-
-            copyToBackward();
+        else {
+            p.copyToBackward();
             // reload data
-            offset_forward = index / page * page;
-            forward[0] = null;
-            if (status == 4 && index < sst.size()) {
-                try {
-                    // Load from SharedStringTable
-                    limit_forward = sst.get(offset_forward, forward);
-                } catch (IOException e) {
-                    throw new ExcelWriteException(e);
-                }
-                total_sst++;
-            } else {
-                readMore();
-                total_forward++;
-            }
-            if (forward[0] == null) {
+            p.offset_forward = index / page * page;
+            p.limit_forward = fetch(p.offset_forward, p.forward);
+            p.total_sst++;
+            p.total_alloc += p.limit_forward;
+            if (index - p.offset_forward >= p.limit_forward) {
                 throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + max);
             }
-            value = forward[index - offset_forward];
-            if (test(index)) hot.put(index, value);
-        } else {
-            total_hot++;
+            value = p.forward[index - p.offset_forward];
         }
-
+        if (p.tester.test(index)) p.hot.put(index, value);
         return value;
     }
 
-    // Check the forward range
-    private boolean forwardRange(int index) {
-        return offset_forward >= 0 && offset_forward <= index
-            && offset_forward + limit_forward > index;
-    }
-
-    // Check the backward range
-    private boolean backwardRange(int index) {
-        return offset_backward >= 0 && offset_backward <= index
-            && offset_backward + limit_backward > index;
-    }
-
-    // Check the current index if out of bound
+    // Check the current index if out of bound, the declared size of large
+    // table may be inexact until the main reader is exhausted
     private void checkBound(int index) {
-        if (index < 0 || max > -1 && max <= index) {
+        if (index < 0 || max > -1 && max <= index && (status != 4 || eof)) {
             throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + max);
         }
     }
 
-    // Check the current index has been loaded twice
-    private boolean test(int index) {
-        return status == 4 && tester.test(index);
-    }
-
-    private void copyToBackward() {
-        System.arraycopy(forward, 0, backward, 0, limit_forward);
-        offset_backward = offset_forward;
-        limit_backward = limit_forward;
-    }
-
     /**
-     * Load string record from xml
+     * Load a page from SharedStringTable, the main reader is read
+     * forward until the page has been pushed into the table
+     *
+     * @param fromIndex the first index of page
+     * @param array     destination array
+     * @return the word count
      */
-    protected void readMore() {
-        int index = offset_forward / page;
+    private synchronized int fetch(int fromIndex, String[] array) {
         try {
-            // Read xml file string value into IndexSharedStringTable
-            for (int n = index - offsetM; n-- >= 0; ) {
-                if (offset_backward == -1 && limit_forward > 0) {
-                    copyToBackward();
-                    offset_backward = 0;
-                }
-                readData();
+            for (; !eof && fromIndex >= sst.size(); ) {
+                if (readData() < page) end();
             }
+            return fromIndex < sst.size() ? sst.get(fromIndex, array) : 0;
         } catch (IOException e) {
             throw new ExcelReadException(e);
         }
@@ -459,8 +450,6 @@ public class SharedStrings implements Closeable {
             nChar = t[0];
             n = t[1];
 
-            limit_forward = n;
-
             // If cell value(character value) length greater than buffer size
             if (nChar == 0) {
                 cb = Arrays.copyOf(cb, cb.length << 1);
@@ -470,20 +459,11 @@ public class SharedStrings implements Closeable {
 
             // A page
             if (n == page) {
-                ++offsetM;
                 break;
             } else if (length < cb.length && nChar == length - 6) { // EOF '</sst>'
-//                if (max == -1) { // Reset totals when unknown size
-//                    max = offsetM * page + n;
-//                }
-                ++offsetM; // out of index range
                 break;
             }
         }
-        // Reset totals when unknown size
-        if (max < n) {
-            max = offsetM * page + n;
-        }
         return n; // Returns the word count
     }
 
@@ -659,6 +639,55 @@ public class SharedStrings implements Closeable {
         return escapeBuf.toString();
     }
 
+    /**
+     * Decode the UTF-8 bytes and unescape, the markup of worksheet is
+     * scanned as raw bytes and only the string value is decoded.
+     */
+    static String unescape(StringBuilder escapeBuf, byte[] cb, int from, int to) {
+        if (from == to) return EMPTY;
+        int idx_38 = indexOf(cb, '&', from, to)
+            , idx_59 = idx_38 > -1 ? indexOf(cb, ';', idx_38 + 1, to) : -1;
+
+        if (idx_38 < 0 || idx_59 < 0) {
+            return new String(cb, from, to - from, StandardCharsets.UTF_8);
+        }
+        escapeBuf.delete(0, escapeBuf.length());
+        do {
+            if (idx_38 > from) escapeBuf.append(new String(cb, from, idx_38 - from, StandardCharsets.UTF_8));
+            // ASCII
+            if (cb[idx_38 + 1] == '#') {
+                // Unicode char
+                escapeBuf.append((char) toInt(cb, idx_38 + 2, idx_59));
+            }
+            // desc
+            else {
+                int n = idx_59 - idx_38 - 1;
+                byte c = cb[idx_38 + 1];
+                if (n == 2 && c == 'l' && cb[idx_38 + 2] == 't') escapeBuf.append('<');
+                else if (n == 2 && c == 'g' && cb[idx_38 + 2] == 't') escapeBuf.append('>');
+                else if (n == 3 && c == 'a' && cb[idx_38 + 2] == 'm' && cb[idx_38 + 3] == 'p') escapeBuf.append('&');
+                else if (n == 4 && c == 'q' && cb[idx_38 + 2] == 'u' && cb[idx_38 + 3] == 'o' && cb[idx_38 + 4] == 't') escapeBuf.append('"');
+                else if (n == 4 && c == 'n' && cb[idx_38 + 2] == 'b' && cb[idx_38 + 3] == 's' && cb[idx_38 + 4] == 'p') escapeBuf.append(' ');
+                // Unknown escape
+                else escapeBuf.append(new String(cb, idx_38, n + 2, StandardCharsets.UTF_8));
+            }
+            from = ++idx_59;
+            idx_59 = (idx_38 = indexOf(cb, '&', idx_59, to)) > -1 ? indexOf(cb, ';', idx_38 + 1, to) : -1;
+        } while (idx_38 > -1 && idx_59 > -1);
+
+        if (from < to) {
+            escapeBuf.append(new String(cb, from, to - from, StandardCharsets.UTF_8));
+        }
+        return escapeBuf.toString();
+    }
+
+    private static int indexOf(byte[] cb, char c, int from, int to) {
+        for (; from < to; from++) {
+            if (cb[from] == c) return from;
+        }
+        return -1;
+    }
+
     private static int indexOf(char[] cb, char c, int from) {
         for (; from < cb.length; from++) {
             if (cb[from] == c) return from;
@@ -676,26 +705,51 @@ public class SharedStrings implements Closeable {
         return _n ? -n : n;
     }
 
+    // Convert ASCII digits to int
+    static int toInt(byte[] cb, int a, int b) {
+        boolean _n;
+        if (_n = cb[a] == '-') a++;
+        int n = cb[a++] - '0';
+        for (; b > a; ) {
+            n = n * 10 + cb[a++] - '0';
+        }
+        return _n ? -n : n;
+    }
+
     /**
      * close stream and free space
      */
     @Override
     public void close() throws IOException {
+        synchronized (allPages) {
+            if (!allPages.isEmpty()) {
+                // Debug hit rate
+                Stats stats = getStats();
+                int resize = 0, size = 0;
+                for (Page p : allPages) {
+                    resize += p.tester.analysis();
+                    size += p.tester.size();
+                    p.clear();
+                }
+                LOGGER.debug("Count: {}， uniqueCount: {}， Repetition rate: {}", stats.count, max
+                    , (stats.count > 0 ? (stats.count - max) * 100.0/ stats.count : 0) + "%");
+                LOGGER.debug("{}, Tester: {Resize: {}, Size: {}}, Threads: {}", stats, resize, size, allPages.size());
+                allPages.clear();
+            }
+        }
+        // The pages of other threads are released with the ThreadLocal
+        if (pages != null) {
+            pages.remove();
+            pages = null;
+        }
+        status = 0;
         if (reader != null) {
-            // Debug hit rate
-            LOGGER.debug("Count: {}， uniqueCount: {}， Repetition rate: {}", total, max
-                , (total > 0 ? (total - max) * 100.0/ total : 0) + "%");
-            LOGGER.debug("Forward: {}, Backward: {}, SST: {}, Hot: {}, Tester: {Resize: {}, Size: {}}"
-                , total_forward, total_backward, total_sst, total_hot
-                , tester != null ? tester.analysis() : 0, tester != null ? tester.size() : 0);
             reader.close();
+            reader = null;
         }
         cb = null;
+        data = null;
         forward = null;
-        backward = null;
-        if (tester != null) {
-            tester = null;
-        }
         escapeBuf = null;
         if (sst != null) {
             sst.close();
@@ -704,9 +758,201 @@ public class SharedStrings implements Closeable {
 
     @Override
     public String toString() {
+        long total = getStats().count;
         return "Count: " + (total <= 0 ? max : total) + "，UniqueCount: " + max;
     }
 
+    /**
+     * Returns the statistics of reading summed over all threads. Only the
+     * large table which is read by pages is counted, the statistics are
+     * approximate while other threads are reading.
+     *
+     * @return the {@link Stats}
+     */
+    public Stats getStats() {
+        Stats stats = new Stats();
+        synchronized (allPages) {
+            for (Page p : allPages) {
+                stats.count += p.total;
+                stats.forward += p.total_forward;
+                stats.backward += p.total_backward;
+                stats.hot += p.total_hot;
+                stats.loads += p.total_sst;
+                stats.allocations += p.total_alloc;
+                stats.admissions += p.hot.getAdmissions();
+                stats.rejections += p.hot.getRejections();
+                stats.evictions += p.hot.getEvictions();
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * The statistics of reading shared strings
+     */
+    public static class Stats {
+        private long count, forward, backward, hot, loads, allocations, admissions, rejections, evictions;
+
+        /**
+         * @return the number of getting
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the number of words found in forward area
+         */
+        public long getForward() {
+            return forward;
+        }
+
+        /**
+         * @return the number of words found in backward area
+         */
+        public long getBackward() {
+            return backward;
+        }
+
+        /**
+         * @return the number of words found in hot cache
+         */
+        public long getHot() {
+            return hot;
+        }
+
+        /**
+         * @return the number of pages loaded from the SharedStringTable
+         */
+        public long getLoads() {
+            return loads;
+        }
+
+        /**
+         * @return the number of strings created by loading pages
+         */
+        public long getAllocations() {
+            return allocations;
+        }
+
+        /**
+         * @return the number of words admitted into hot cache
+         */
+        public long getAdmissions() {
+            return admissions;
+        }
+
+        /**
+         * @return the number of words rejected by hot cache
+         */
+        public long getRejections() {
+            return rejections;
+        }
+
+        /**
+         * @return the number of words evicted from hot cache
+         */
+        public long getEvictions() {
+            return evictions;
+        }
+
+        /**
+         * @return the rate of words found in memory
+         */
+        public double getHitRate() {
+            return count > 0 ? (double) (forward + backward + hot) / count : 0.0D;
+        }
+
+        /**
+         * @return the rate of words found in hot cache when missing in the forward and backward area
+         */
+        public double getHotHitRate() {
+            long n = count - forward - backward;
+            return n > 0 ? (double) hot / n : 0.0D;
+        }
+
+        /**
+         * @return the strings created per getting
+         */
+        public double getAllocationRate() {
+            return count > 0 ? (double) allocations / count : 0.0D;
+        }
+
+        @Override
+        public String toString() {
+            return "Count: " + count + ", Forward: " + forward + ", Backward: " + backward + ", Hot: " + hot
+                + ", SST: " + loads + ", Allocations: " + allocations + ", Admissions: " + admissions
+                + ", Rejections: " + rejections + ", Evictions: " + evictions;
+        }
+    }
+
+    /**
+     * The forward, backward and hot areas of a thread
+     */
+    private static class Page {
+        /**
+         * Storage the new load data
+         */
+        private final String[] forward;
+        /**
+         * Copy data to this area when the forward area is missing
+         */
+        private final String[] backward;
+        /**
+         * The forward and backward offset
+         */
+        private int offset_forward = -1, offset_backward = -1;
+        /**
+         * The forward and backward limit
+         */
+        private int limit_forward, limit_backward;
+        /**
+         * A tester of SharedString's cache
+         */
+        private final Tester tester;
+        /**
+         * High frequency word
+         */
+        private final IntLFUCache<String> hot;
+
+        // For debug
+        private long total, total_forward, total_backward, total_hot, total_sst, total_alloc;
+
+        Page(int page, int expectedInsertions, int hotSize) {
+            forward = new String[page];
+            backward = new String[page];
+            // Cache 8KB binary, it will store 1^16 strings.
+            tester = new Tester.FixBinaryTester(expectedInsertions);
+            hot = hotSize > 0 ? IntLFUCache.create(hotSize) : IntLFUCache.create();
+        }
+
+        // Check the forward range
+        private boolean forwardRange(int index) {
+            return offset_forward >= 0 && offset_forward <= index
+                && offset_forward + limit_forward > index;
+        }
+
+        // Check the backward range
+        private boolean backwardRange(int index) {
+            return offset_backward >= 0 && offset_backward <= index
+                && offset_backward + limit_backward > index;
+        }
+
+        private void copyToBackward() {
+            System.arraycopy(forward, 0, backward, 0, limit_forward);
+            offset_backward = offset_forward;
+            limit_backward = limit_forward;
+        }
+
+        // Free space
+        private void clear() {
+            Arrays.fill(forward, null);
+            Arrays.fill(backward, null);
+            offset_forward = offset_backward = -1;
+            limit_forward = limit_backward = 0;
+            hot.clear();
+        }
+    }
 }
 
 interface Tester {
@@ -158,6 +158,40 @@ public interface Sheet extends Closeable {
      */
     Row getHeader();
 
+    /**
+     * Parse the specified columns only, the other cells are skipped after reading
+     * the cell reference and left blank. It is useful to read a few columns of
+     * a wide worksheet. The header row is always parsed entirely.
+     *
+     * @param columns the zero-base column indexes, parse all columns if empty
+     * @return current {@link Sheet}
+     * @throws UnsupportedOperationException if sub-class un-implement this function.
+     */
+    default Sheet select(int... columns) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Parse the specified columns only by the header names, the header row
+     * will be read first.
+     *
+     * @param names the column names of header
+     * @return current {@link Sheet}
+     * @throws IllegalArgumentException if the column name is not found in header
+     */
+    default Sheet select(String... names) {
+        Row header = getHeader();
+        int[] columns = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            int index = header instanceof HeaderRow ? ((HeaderRow) header).getIndex(names[i]) : -1;
+            if (index < 0) {
+                throw new IllegalArgumentException("Column [" + names[i] + "] not found in header.");
+            }
+            columns[i] = index;
+        }
+        return select(columns);
+    }
+
     /**
      * Set the binding type
      *
@@ -239,7 +273,8 @@ public interface Sheet extends Closeable {
      *
      * @return the unread {@link Sheet}
      * @throws ExcelReadException if I/O error occur.
-     * @throws UnsupportedOperationException if sub-class un-implement this function.
+     * @throws UnsupportedOperationException if sub-class un-implement this function,
+     * or the worksheet is read straight from the stream on {@link ExcelReader#READ_FROM_STREAM} mode.
      */
     default Sheet reset() {
         throw new UnsupportedOperationException();
@@ -269,6 +304,126 @@ public interface Sheet extends Closeable {
             dataIterator(), Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
 
+    /**
+     * Return a stream of the rows in range
+     *
+     * @param fromRowNum low endpoint (inclusive) of the worksheet (one base)
+     * @param toRowNum high endpoint (inclusive) of the worksheet (one base)
+     * @return a {@code Stream&lt;Row&gt;} providing the lines of row
+     * described by this {@link Sheet}
+     */
+    default Stream<Row> rows(int fromRowNum, int toRowNum) {
+        return rows().filter(row -> row.getRowNum() >= fromRowNum && row.getRowNum() <= toRowNum);
+    }
+
+    /**
+     * Move the cursor to the first row whose number is greater than or
+     * equal to the specified row number
+     *
+     * @param rowNum the row number (one base)
+     * @return current {@link Sheet}
+     * @throws UnsupportedOperationException if sub-class un-implement this function.
+     */
+    default Sheet seek(int rowNum) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Record the position of row every {@code step} rows while reading,
+     * so that the later {@link #seek(int)} can jump to the nearest one
+     *
+     * @param step the minimum distance between two recorded rows
+     * @return current {@link Sheet}
+     * @throws UnsupportedOperationException if sub-class un-implement this function.
+     */
+    default Sheet indexRows(int step) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Read the data rows in batches, the cells of schema columns are decoded
+     * into the primitive vectors of {@link ColumnBatch}
+     *
+     * @param batchSize the maximum number of rows of a batch
+     * @param schema    the columns and their vector types
+     * @return a batch iterator, the same {@link ColumnBatch} is refilled by each call of {@code next()}
+     * @throws UnsupportedOperationException if sub-class un-implement this function.
+     */
+    default Iterator<ColumnBatch> readBatches(int batchSize, Schema schema) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Read the data rows in blocks of {@link RowBatch}, the rows of a
+     * batch are parsed in a tight loop and do not share their cells
+     *
+     * @param batchSize the maximum number of rows of a batch
+     * @return a batch iterator, the same {@link RowBatch} is refilled by each call of {@code next()}
+     * @throws UnsupportedOperationException if sub-class un-implement this function.
+     */
+    default Iterator<RowBatch> rowBatches(int batchSize) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Collect the count, null count, min, max, sum, inferred type and
+     * approximate distinct count of each column in one pass
+     *
+     * @return the {@link ColumnStats} of columns, the index of list is the column index
+     * @throws UnsupportedOperationException if sub-class un-implement this function.
+     */
+    default List<ColumnStats> columnStats() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Filter the data rows by the {@link RowFilter}, the conditions are
+     * tested on the raw cells and the unmatched rows are skipped before
+     * parsing. The header row is not filtered.
+     * <p>
+     * The shared strings are not scanned when the filter is set, each one
+     * referred by the filtered columns is read once by its index and the
+     * result is cached, so the cost grows with the distinct shared strings
+     * in those columns rather than the whole table.
+     *
+     * @param filter the {@link RowFilter}, null to remove the filter
+     * @return current {@link Sheet}
+     * @throws UnsupportedOperationException if sub-class un-implement this function.
+     */
+    default Sheet filter(RowFilter filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Return a parallel stream of all rows. The rows are parsed in parallel
+     * if the worksheet can be split, otherwise they are read sequentially.
+     * <p>
+     * The unordered stream does not keep the order of rows, it is faster with
+     * the operations like {@code forEach}, {@code findAny} and {@code limit}.
+     * The row object is shared in each split part of the unordered stream, so
+     * don't collect the rows directly, the ordered stream parses each row on
+     * a new row object because the rows of later parts are buffered.
+     *
+     * @param ordered keep the order of rows
+     * @return a parallel {@code Stream&lt;Row&gt;}
+     */
+    default Stream<Row> parallelRows(boolean ordered) {
+        Stream<Row> rows = rows().parallel();
+        return ordered ? rows : rows.unordered();
+    }
+
+    /**
+     * Return a parallel stream with out header row and empty rows, see
+     * {@link #parallelRows(boolean)}
+     *
+     * @param ordered keep the order of rows
+     * @return a parallel {@code Stream&lt;Row&gt;}
+     */
+    default Stream<Row> parallelDataRows(boolean ordered) {
+        Stream<Row> rows = dataRows().parallel();
+        return ordered ? rows : rows.unordered();
+    }
+
     /**
      * Convert column mark to int
      *
@@ -400,6 +555,43 @@ public interface Sheet extends Closeable {
         }
     }
 
+    /**
+     * Transcode the worksheet to UTF-8 Comma-Separated Values. The file
+     * name is the worksheet name if the path is a directory.
+     *
+     * @param path the output storage path
+     * @throws IOException if I/O error occur.
+     * @see #transcodeToCSV(OutputStream)
+     */
+    default void transcodeToCSV(Path path) throws IOException {
+        // Create path if not exists
+        if (!exists(path)) {
+            FileUtil.mkdir(path);
+        }
+        if (Files.isDirectory(path)) {
+            path = path.resolve(getName() + Const.Suffix.CSV);
+        }
+
+        transcodeToCSV(Files.newOutputStream(path));
+    }
+
+    /**
+     * Transcode the worksheet to UTF-8 Comma-Separated Values, the output
+     * is closed at the end.
+     * <p>
+     * The worksheet may be transcoded from its xml bytes to CSV bytes
+     * directly, nothing is materialized as {@link Row} or {@link Cell}.
+     * The layout is the same as {@link #saveAsCSV(BufferedWriter)} but
+     * the numbers are copied verbatim as they stored in the worksheet.
+     * The default implementation is {@link #saveAsCSV(OutputStream)}.
+     *
+     * @param os the output
+     * @throws IOException if I/O error occur.
+     */
+    default void transcodeToCSV(OutputStream os) throws IOException {
+        saveAsCSV(os);
+    }
+
     /**
      * Make worksheets parse value only
      *
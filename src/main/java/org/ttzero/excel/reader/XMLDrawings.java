@@ -17,19 +17,16 @@
 
 package org.ttzero.excel.reader;
 
-import org.dom4j.Document;
-import org.dom4j.DocumentException;
 import org.dom4j.Element;
 import org.dom4j.Namespace;
 import org.dom4j.QName;
-import org.dom4j.io.SAXReader;
 import org.ttzero.excel.entity.Relationship;
 import org.ttzero.excel.manager.Const;
 import org.ttzero.excel.manager.RelManager;
-import org.ttzero.excel.util.FileUtil;
+import org.ttzero.excel.util.XMLPullParser;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -77,34 +74,36 @@ public class XMLDrawings implements Drawings {
         // Empty excel, maybe throw exception here
         if (excelReader.sheets == null) return null;
 
-        SAXReader reader = new SAXReader();
-        Document document;
-
         List<Picture> pictures = new ArrayList<>();
         for (Sheet sheet : excelReader.sheets) {
             XMLSheet xmlSheet = (XMLSheet) sheet;
             Path relsPath = xmlSheet.path.getParent().resolve("_rels/" + xmlSheet.path.getFileName() + ".rels");
-            if (!Files.exists(relsPath)) continue;
-            try {
-                document = reader.read(Files.newInputStream(relsPath));
-            } catch (DocumentException | IOException e) {
-                FileUtil.rm_rf(excelReader.self.toFile(), true);
+            if (!excelReader.existsPart(relsPath)) continue;
+            List<Relationship> rels = new ArrayList<>();
+            try (InputStream is = excelReader.openPart(relsPath)) {
+                XMLPullParser parser = new XMLPullParser(is);
+                for (int e; (e = parser.next()) != XMLPullParser.END_DOCUMENT; ) {
+                    if (e == XMLPullParser.START_TAG && parser.getDepth() == 2) {
+                        rels.add(new Relationship(parser.getAttribute("Id"), parser.getAttribute("Target"), parser.getAttribute("Type")));
+                    }
+                }
+            } catch (IOException e) {
+                excelReader.removeTemp(excelReader.self);
                 throw new ExcelReadException("The file format is incorrect or corrupted. [/xl/worksheets/_rels/" + xmlSheet.path.getFileName() + ".rels]");
             }
 
-            List<Element> list = document.getRootElement().elements();
-            for (Element e : list) {
-                String target = e.attributeValue("Target"), type = e.attributeValue("Type");
+            for (Relationship rel : rels) {
                 // Background
-                if (Const.Relationship.IMAGE.equals(type)) {
+                if (Const.Relationship.IMAGE.equals(rel.getType())) {
                     Picture picture = new Picture();
                     pictures.add(picture);
                     picture.sheet = sheet;
                     picture.background = true;
-                    picture.localPath = xmlSheet.path.getParent().resolve(target);
+                    picture.localPath = xmlSheet.path.getParent().resolve(rel.getTarget());
+                    picture.zip = excelReader.zip;
                     // Drawings
-                } else if (Const.Relationship.DRAWINGS.equals(type)) {
-                    Path drawingsPath = xmlSheet.path.getParent().resolve(target);
+                } else if (Const.Relationship.DRAWINGS.equals(rel.getType())) {
+                    Path drawingsPath = xmlSheet.path.getParent().resolve(rel.getTarget());
                     List<Picture> subPictures = parseDrawings(drawingsPath);
                     if (subPictures != null) {
                         for (Picture picture : subPictures) {
@@ -121,87 +120,119 @@ public class XMLDrawings implements Drawings {
 
     // Parse drawings.xml
     protected List<Picture> parseDrawings(Path path) {
-        SAXReader reader = new SAXReader();
-        Document document;
-        try {
-            document = reader.read(Files.newInputStream(path.getParent().resolve("_rels/" + path.getFileName() + ".rels")));
-        } catch (DocumentException | IOException e) {
-            FileUtil.rm_rf(excelReader.self.toFile(), true);
+        RelManager relManager;
+        try (InputStream is = excelReader.openPart(path.getParent().resolve("_rels/" + path.getFileName() + ".rels"))) {
+            relManager = RelManager.load(is);
+        } catch (IOException e) {
+            excelReader.removeTemp(excelReader.self);
             throw new ExcelReadException("The file format is incorrect or corrupted. [/xl/drawings/_rels/" + path.getFileName() + ".rels]");
         }
-        List<Element> list = document.getRootElement().elements();
-        Relationship[] rels = new Relationship[list.size()];
-        int i = 0;
-        for (Element e : list) {
-            rels[i++] = new Relationship(e.attributeValue("Id"), e.attributeValue("Target"), e.attributeValue("Type"));
-        }
-        RelManager relManager = RelManager.of(rels);
 
-        try {
-            document = reader.read(Files.newInputStream(path));
-        } catch (DocumentException | IOException e) {
-            FileUtil.rm_rf(excelReader.self.toFile(), true);
+        List<Picture> pictures = new ArrayList<>();
+        try (InputStream is = excelReader.openPart(path)) {
+            XMLPullParser parser = new XMLPullParser(is);
+            for (int e; (e = parser.next()) != XMLPullParser.END_DOCUMENT; ) {
+                // The anchors
+                if (e != XMLPullParser.START_TAG || parser.getDepth() != 2) continue;
+                Picture picture = parseAnchor(parser, relManager, path);
+                if (picture != null) pictures.add(picture);
+            }
+        } catch (IOException e) {
+            excelReader.removeTemp(excelReader.self);
             throw new ExcelReadException("The file format is incorrect or corrupted. [/xl/drawings/" + path.getFileName() + "]");
         }
+        return !pictures.isEmpty() ? pictures : null;
+    }
 
-        Element root = document.getRootElement();
-        Namespace xdr = root.getNamespaceForPrefix("xdr"), a = root.getNamespaceForPrefix("a");
-
-        List<Element> elements = root.elements();
-        List<Picture> pictures = new ArrayList<>(elements.size());
-        for (Element e : root.elements()) {
-            Element pic = e.element(QName.get("pic", xdr));
-            // Not a picture
-            if (pic == null) continue;
-
-            Element blipFill = pic.element(QName.get("blipFill", xdr));
-            if (blipFill == null) continue;
-
-            Element blip = blipFill.element(QName.get("blip", a));
-            if (blip == null) continue;
-
-            Namespace r = blip.getNamespaceForPrefix("r");
-            String embed = blip.attributeValue(QName.get("embed", r));
-            Relationship rel = relManager.getById(embed);
-            if (r != null && Const.Relationship.IMAGE.equals(rel.getType())) {
-                Picture picture = new Picture();
-                pictures.add(picture);
-                picture.localPath = path.getParent().resolve(rel.getTarget());
-                picture.dimension = dimension(e, xdr);
-
-                Element extLst = blip.element(QName.get("extLst", a));
-                if (extLst == null) continue;
-
-                for (Element ext : extLst.elements()) {
-                    Element srcUrl = ext.element("picAttrSrcUrl");
-                    // hyperlink
-                    if (srcUrl != null) {
-                        rel = relManager.getById(srcUrl.attributeValue(QName.get("id", r)));
-                        if (rel != null && Const.Relationship.HYPERLINK.equals(rel.getType())) {
-                            picture.srcUrl = rel.getTarget();
-                        }
+    /**
+     * Parse an anchor of drawings, the parser is moved to the end of anchor
+     *
+     * @param parser the {@link XMLPullParser} positioned at the anchor
+     * @param relManager the relationships of drawings
+     * @param path the path of drawings
+     * @return a {@link Picture}, or null if it is not a picture
+     * @throws IOException if the drawings is incorrect
+     */
+    protected Picture parseAnchor(XMLPullParser parser, RelManager relManager, Path path) throws IOException {
+        // from.row, from.col, to.row, to.col
+        int[] dim = new int[4];
+        String embed = null, srcUrlId = null;
+        int depth = parser.getDepth();
+        // The local names from anchor to current element
+        String[] names = new String[8];
+        for (int e; (e = parser.next()) != XMLPullParser.END_DOCUMENT && !(e == XMLPullParser.END_TAG && parser.getDepth() == depth); ) {
+            if (e != XMLPullParser.START_TAG) continue;
+            int d = parser.getDepth() - depth;
+            if (d >= names.length) {
+                parser.skip();
+                continue;
+            }
+            String name = names[d] = parser.getName();
+            switch (d) {
+                // from/to
+                case 2:
+                    if (("col".equals(name) || "row".equals(name)) && ("from".equals(names[1]) || "to".equals(names[1]))) {
+                        dim[("to".equals(names[1]) ? 2 : 0) + ("col".equals(name) ? 1 : 0)] = Integer.parseInt(parser.getText().trim());
                     }
-                }
+                    break;
+                // pic/blipFill/blip
+                case 3:
+                    if ("blip".equals(name) && "blipFill".equals(names[2]) && "pic".equals(names[1])) {
+                        embed = parser.getAttribute("embed");
+                    }
+                    break;
+                // pic/blipFill/blip/extLst/ext/picAttrSrcUrl
+                case 6:
+                    if ("picAttrSrcUrl".equals(name) && "blip".equals(names[3]) && "pic".equals(names[1])) {
+                        srcUrlId = parser.getAttribute("id");
+                    }
+                    break;
+                default:
             }
         }
-        return !pictures.isEmpty() ? pictures : null;
+
+        Relationship rel = embed != null ? relManager.getById(embed) : null;
+        // Not a picture
+        if (rel == null || !Const.Relationship.IMAGE.equals(rel.getType())) return null;
+
+        Picture picture = new Picture();
+        picture.localPath = path.getParent().resolve(rel.getTarget());
+        picture.zip = excelReader.zip;
+        picture.dimension = new Dimension(dim[0] + 1, (short) (dim[1] + 1), dim[2] + 1, (short) (dim[3] + 1));
+        if (srcUrlId != null && (rel = relManager.getById(srcUrlId)) != null && Const.Relationship.HYPERLINK.equals(rel.getType())) {
+            picture.srcUrl = rel.getTarget();
+        }
+        return picture;
     }
 
+    /**
+     * Parse the dimension of anchor element
+     *
+     * @param e the anchor element
+     * @param xdr the namespace of drawings
+     * @return the {@link Dimension} of picture
+     * @deprecated the drawings are pulled by {@link #parseAnchor(XMLPullParser, RelManager, Path)}
+     */
+    @Deprecated
     protected Dimension dimension(Element e, Namespace xdr) {
-        Element fromEle = e.element(QName.get("from", xdr));
-        int[] f = dimEle(fromEle, xdr);
-        Element toEle = e.element(QName.get("to", xdr));
-        int[] t = dimEle(toEle, xdr);
-
+        int[] f = dimEle(e.element(QName.get("from", xdr)), xdr), t = dimEle(e.element(QName.get("to", xdr)), xdr);
         return new Dimension(f[0] + 1, (short) (f[1] + 1), t[0] + 1, (short) (t[1] + 1));
     }
 
+    /**
+     * Parse the row and column of from/to element
+     *
+     * @param e the from or to element
+     * @param xdr the namespace of drawings
+     * @return the row and column (zero base)
+     * @deprecated the drawings are pulled by {@link #parseAnchor(XMLPullParser, RelManager, Path)}
+     */
+    @Deprecated
     protected int[] dimEle(Element e, Namespace xdr) {
         int c = 0, r = 0;
         if (e != null) {
-            String col = e.element(QName.get("col", xdr)).getText(), row = e.element(QName.get("row", xdr)).getText();
-            c = Integer.parseInt(col);
-            r = Integer.parseInt(row);
+            c = Integer.parseInt(e.element(QName.get("col", xdr)).getText().trim());
+            r = Integer.parseInt(e.element(QName.get("row", xdr)).getText().trim());
         }
         return new int[] { r, c };
     }
@@ -19,8 +19,18 @@ package org.ttzero.excel.reader;
 import org.ttzero.excel.entity.TooManyColumnsException;
 import org.ttzero.excel.entity.style.Styles;
 import org.ttzero.excel.manager.Const;
+import org.ttzero.excel.util.StringUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.ttzero.excel.reader.Cell.BOOL;
+import static org.ttzero.excel.reader.Cell.DOUBLE;
+import static org.ttzero.excel.reader.Cell.LONG;
 import static org.ttzero.excel.reader.Cell.NUMERIC;
 import static org.ttzero.excel.reader.Cell.FUNCTION;
 import static org.ttzero.excel.reader.Cell.SST;
@@ -90,12 +100,28 @@ public class XMLRow extends Row {
     }
 
     /////////////////////////unsafe////////////////////////
-    protected char[] cb;
+    // The max significand that can be represented exactly in double
+    private static final long MAX_EXACT = 1L << 53;
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    protected byte[] cb;
     protected int from, to;
     protected int cursor, e;
+    /**
+     * The selected columns (zero base), the other cells are skipped
+     * after reading the cell reference, null if parse all columns
+     */
+    protected boolean[] selected;
+    /**
+     * The number parsed by {@link #parseNumber(int, int)}
+     */
+    protected long nl;
+    protected double nd;
 
     ///////////////////////////////////////////////////////
-    protected XMLRow with(char[] cb, int from, int size) {
+    protected XMLRow with(byte[] cb, int from, int size) {
 //        LOGGER.debug(new String(cb, from, size));
         this.cb = cb;
         this.from = from;
@@ -107,7 +133,7 @@ public class XMLRow extends Row {
     }
 
     /* empty row*/
-    protected XMLRow empty(char[] cb, int from, int size) {
+    protected XMLRow empty(byte[] cb, int from, int size) {
 //        LOGGER.debug(new String(cb, from, size));
         this.cb = cb;
         this.from = from;
@@ -187,66 +213,73 @@ public class XMLRow extends Row {
      * @return the {@link Cell}
      */
     protected Cell nextCell() {
-        for (; cursor < to && (cb[cursor] != '<' || cb[cursor + 1] != 'c'
-            || cb[cursor + 2] > ' '); cursor++) ;
-        // end of row
-        if (cursor >= to) return null;
-        cursor += 2;
-        // find end of cell
-        e = cursor;
-        for (; e < to && (cb[e] != '<' || cb[e + 1] != 'c' || cb[e + 2] > ' '); e++) ;
-
-        Cell cell = null;
-        // find type
-        // n=numeric (default), s=string, b=boolean, str=function string
-        char t = NUMERIC; // default
-        int xf = 0, i;
-        for (; cb[cursor] != '>'; cursor++) {
-            // Cell index
-            if (cb[cursor] <= ' ' && cb[cursor + 1] == 'r' && cb[cursor + 2] == '=') {
-                int a = cursor += 4;
-                for (; cb[cursor] != '"'; cursor++) ;
-                i = unknownLength ? (lc = toCellIndex(cb, a, cursor)) : toCellIndex(cb, a, cursor);
-                // The `spans` attribute is not be set
-                if (i - 1 >= cells.length) {
-                    // Bound check
-                    if (i - 1 > Const.Limit.MAX_COLUMNS_ON_SHEET) {
-                        throw new TooManyColumnsException(i, Const.Limit.MAX_COLUMNS_ON_SHEET);
+        nextC: for (; ; ) {
+            for (; cursor < to && (cb[cursor] != '<' || cb[cursor + 1] != 'c'
+                || cb[cursor + 2] > ' '); cursor++) ;
+            // end of row
+            if (cursor >= to) return null;
+            cursor += 2;
+            // find end of cell
+            e = cursor;
+            for (; e < to && (cb[e] != '<' || cb[e + 1] != 'c' || cb[e + 2] > ' '); e++) ;
+
+            Cell cell = null;
+            // find type
+            // n=numeric (default), s=string, b=boolean, str=function string
+            char t = NUMERIC; // default
+            int xf = 0, i;
+            for (; cb[cursor] != '>'; cursor++) {
+                // Cell index
+                if (cb[cursor] <= ' ' && cb[cursor + 1] == 'r' && cb[cursor + 2] == '=') {
+                    int a = cursor += 4;
+                    for (; cb[cursor] != '"'; cursor++) ;
+                    i = unknownLength ? (lc = toCellIndex(cb, a, cursor)) : toCellIndex(cb, a, cursor);
+                    // The `spans` attribute is not be set
+                    if (i - 1 >= cells.length) {
+                        // Bound check
+                        if (i - 1 > Const.Limit.MAX_COLUMNS_ON_SHEET) {
+                            throw new TooManyColumnsException(i, Const.Limit.MAX_COLUMNS_ON_SHEET);
+                        }
+                        // Resize cell buffer
+                        cells = copyCells(Math.min(i + 99, Const.Limit.MAX_COLUMNS_ON_SHEET));
+                    }
+                    // Skip the column not selected
+                    if (selected != null && (i > selected.length || !selected[i - 1])) {
+                        cursor = e;
+                        continue nextC;
                     }
-                    // Resize cell buffer
-                    cells = copyCells(Math.min(i + 99, Const.Limit.MAX_COLUMNS_ON_SHEET));
+                    cell = cells[i - 1];
                 }
-                cell = cells[i - 1];
-            }
-            // Cell type
-            if (cb[cursor] <= ' ' && cb[cursor + 1] == 't' && cb[cursor + 2] == '=') {
-                int a = cursor += 4, n;
-                for (; cb[cursor] != '"'; cursor++) ;
-                if ((n = cursor - a) == 1) {
-                    t = cb[a]; // s, n, b
-                } else if (n == 3 && cb[a] == 's' && cb[a + 1] == 't' && cb[a + 2] == 'r') {
-                    t = FUNCTION; // function string
-                } else if (n == 9 && cb[a] == 'i' && cb[a + 1] == 'n'
-                    && cb[a + 2] == 'l' && cb[a + 6] == 'S' && cb[a + 8] == 'r') {
-                    t = INLINESTR; // inlineStr
+                // Cell type
+                if (cb[cursor] <= ' ' && cb[cursor + 1] == 't' && cb[cursor + 2] == '=') {
+                    int a = cursor += 4, n;
+                    for (; cb[cursor] != '"'; cursor++) ;
+                    if ((n = cursor - a) == 1) {
+                        t = (char) cb[a]; // s, n, b
+                    } else if (n == 3 && cb[a] == 's' && cb[a + 1] == 't' && cb[a + 2] == 'r') {
+                        t = FUNCTION; // function string
+                    } else if (n == 9 && cb[a] == 'i' && cb[a + 1] == 'n'
+                        && cb[a + 2] == 'l' && cb[a + 6] == 'S' && cb[a + 8] == 'r') {
+                        t = INLINESTR; // inlineStr
+                    }
+                    // -> Other unknown case
+                }
+                // Cell style
+                if (cb[cursor] <= ' ' && cb[cursor + 1] == 's' && cb[cursor + 2] == '=') {
+                    int a = cursor += 4;
+                    for (; cb[cursor] != '"'; cursor++) ;
+                    xf = toInt(cb, a, cursor);
                 }
-                // -> Other unknown case
-            }
-            // Cell style
-            if (cb[cursor] <= ' ' && cb[cursor + 1] == 's' && cb[cursor + 2] == '=') {
-                int a = cursor += 4;
-                for (; cb[cursor] != '"'; cursor++) ;
-                xf = toInt(cb, a, cursor);
             }
-        }
 
-        if (cell == null) return null;
+            if (cell == null) return null;
 
-        // The style index
-        cell.xf = xf;
-        cell.t = t;
+            // The style index
+            cell.xf = xf;
+            cell.t = t;
 
-        return cell;
+            return cell;
+        }
     }
 
     protected long toLong(int a, int b) {
@@ -260,18 +293,95 @@ public class XMLRow extends Row {
     }
 
     protected String toString(int a, int b) {
-        return new String(cb, a, b - a);
+        return new String(cb, a, b - a, StandardCharsets.UTF_8);
     }
 
     protected double toDouble(int a, int b) {
-        return Double.parseDouble(toString(a, b));
+        switch (parseNumber(a, b)) {
+            case NUMERIC:
+            case LONG:   return (double) nl;
+            case DOUBLE: return nd;
+            default:     return Double.parseDouble(toString(a, b));
+        }
+    }
+
+    /**
+     * Classify and parse the number in range [a, b) by a single scan, the
+     * value is stored in {@link #nl} for integer or {@link #nd} for decimal.
+     * <p>
+     * The decimal is exact if the significand is less than 2<sup>53</sup>
+     * and the power of ten is exact in double, otherwise it is parsed by
+     * {@link Double#parseDouble(String)}, so the result is always correctly
+     * rounded.
+     * <p>
+     * The signed exponent such as {@code 7.0000000000000007E-2} is not a
+     * number here, it is kept as string to read the exact decimal.
+     *
+     * @param a the start index (inclusive)
+     * @param b the end index (exclusive)
+     * @return {@link Cell#NUMERIC} if it is an int value, {@link Cell#LONG} if
+     * it is a long value, {@link Cell#DOUBLE} if it is a decimal, or
+     * {@link Cell#UNALLOCATED} if it is not a number
+     */
+    protected char parseNumber(int a, int b) {
+        int i = a;
+        boolean negative = i < b && cb[i] == '-', dot = false, digit = false, truncated = false;
+        if (negative) i++;
+        long m = 0L;
+        int exp = 0;
+        for (; i < b; i++) {
+            byte c = cb[i];
+            if (c >= '0' && c <= '9') {
+                digit = true;
+                // Accumulate until overflow, the rest digits are truncated
+                if (m < Long.MAX_VALUE / 10 || m == Long.MAX_VALUE / 10 && c <= '7') {
+                    m = m * 10 + (c - '0');
+                    if (dot) exp--;
+                } else {
+                    if (!dot) exp++;
+                    truncated |= c != '0';
+                }
+            } else if (c == '.' && !dot) dot = true;
+            else break;
+        }
+        if (!digit) return UNALLOCATED;
+        // Exponent
+        if (i < b) {
+            if (cb[i] != 'e' && cb[i] != 'E' || ++i == b) return UNALLOCATED;
+            int n = 0;
+            for (; i < b; i++) {
+                byte c = cb[i];
+                if (c < '0' || c > '9') return UNALLOCATED;
+                if (n < 10000) n = n * 10 + (c - '0');
+            }
+            exp += n;
+            dot = true;
+        }
+        // Integer
+        if (!dot && exp == 0) {
+            nl = negative ? -m : m;
+            return nl <= Integer.MAX_VALUE && nl >= Integer.MIN_VALUE ? NUMERIC : LONG;
+        }
+        double d;
+        if (!truncated && m <= MAX_EXACT && exp >= -22 && exp <= 22) {
+            d = exp >= 0 ? m * POW10[exp] : m / POW10[-exp];
+        }
+        // The significand is small enough to absorb some power of ten
+        else if (!truncated && exp > 22 && exp <= 22 + 15 && m <= MAX_EXACT / (long) POW10[exp - 22]) {
+            d = (m * (long) POW10[exp - 22]) * POW10[22];
+        } else {
+            d = Double.parseDouble(toString(a, b));
+            negative = false;
+        }
+        nd = negative ? -d : d;
+        return DOUBLE;
     }
 
     protected boolean isNumber(int a, int b) {
         if (a == b) return false;
         if (cb[a] == '-') a++;
         for (; a < b; ) {
-            char c = cb[a++];
+            byte c = cb[a++];
             if (c < '0' || c > '9') break;
         }
         return a == b;
@@ -281,7 +391,7 @@ public class XMLRow extends Row {
         if (a == b) return false;
         if (cb[a] == '-') a++;
         for (char i = 0, e = 0; a < b; ) {
-            char c = cb[a++];
+            byte c = cb[a++];
             if (i > 1 || e > 1) return false;
             if (c == '.') i++;
             else if (c == 'e' || c == 'E') e++;
@@ -407,17 +517,11 @@ public class XMLRow extends Row {
             default:
                 a = getV();
                 if (a < cursor) {
-                    if (isNumber(a, cursor)) {
-                        long l = toLong(a, cursor);
-                        if (l <= Integer.MAX_VALUE && l >= Integer.MIN_VALUE) {
-                            cell.setNv((int) l);
-                        } else {
-                            cell.setLv(l);
-                        }
-                    } else if (isDouble(a, cursor)) {
-                        cell.setDv(toDouble(a, cursor));
-                    } else {
-                        cell.setSv(toString(a, cursor));
+                    switch (parseNumber(a, cursor)) {
+                        case NUMERIC: cell.setNv((int) nl); break;
+                        case LONG:    cell.setLv(nl);       break;
+                        case DOUBLE:  cell.setDv(nd);       break;
+                        default:      cell.setSv(toString(a, cursor));
                     }
                 }
                 // Maybe the cell should be merged
@@ -436,6 +540,19 @@ public class XMLRow extends Row {
         return !(this instanceof XMLMergeRow) ? new XMLMergeRow(this) : (XMLMergeRow) this;
     }
 
+    /**
+     * Create a new parser of the same kind, the {@link Cell}s are not shared
+     * so the rows parsed by them can be kept at the same time
+     *
+     * @return a new {@link XMLRow}
+     */
+    XMLRow copy() {
+        XMLRow row = new XMLRow(sst, styles, startRow);
+        row.selected = selected;
+        row.hr = hr;
+        return row;
+    }
+
     /**
      * Attribute consumer
      */
@@ -445,11 +562,11 @@ public class XMLRow extends Row {
          * Performs this operation on the given argument.
          *
          * @param cell current cell
-         * @param cb characters for the entire attribute
+         * @param cb bytes for the entire attribute
          * @param a start index
          * @param b end index
          */
-        void accept(Cell cell, char[] cb, int a, int b);
+        void accept(Cell cell, byte[] cb, int a, int b);
     }
 }
 
@@ -459,6 +576,8 @@ public class XMLRow extends Row {
 class XMLCalcRow extends XMLRow {
     private MergeCalcFunc calcFun;
     private boolean hasCalcFunc;
+    // The copies share the shared formulas of the original row
+    private XMLCalcRow owner = this;
 
     XMLCalcRow(SharedStrings sst, Styles styles, int startRow, MergeCalcFunc calcFun) {
         this.sst = sst;
@@ -474,6 +593,7 @@ class XMLCalcRow extends XMLRow {
         this.styles = row.styles;
         this.startRow = row.startRow;
         this.buf = row.buf;
+        this.selected = row.selected;
     }
 
     XMLCalcRow setCalcFun(MergeCalcFunc calcFun) {
@@ -482,6 +602,32 @@ class XMLCalcRow extends XMLRow {
         return this;
     }
 
+    @Override
+    XMLRow copy() {
+        XMLCalcRow row = new XMLCalcRow(this).setCalcFun(calcFun);
+        row.buf = new StringBuilder();
+        row.hr = hr;
+        row.owner = owner;
+        return row;
+    }
+
+    @Override
+    void addRef(int i, String ref) {
+        if (owner != this) owner.addRef(i, ref);
+        else super.addRef(i, ref);
+    }
+
+    @Override
+    void setCalc(int i, String calc) {
+        if (owner != this) owner.setCalc(i, calc);
+        else super.setCalc(i, calc);
+    }
+
+    @Override
+    String getCalc(int i, long coordinate) {
+        return owner != this ? owner.getCalc(i, coordinate) : super.getCalc(i, coordinate);
+    }
+
     /**
      * Loop parse cell
      */
@@ -527,24 +673,27 @@ class XMLCalcRow extends XMLRow {
      * @param cell current {@link Cell}
      */
     private void parseCalcFunc(Cell cell) {
-        int _cursor = cursor, a = getF(cell);
-        // Reset the formula flag
-        cell.f = a < cursor;
-        // Tag <f> Not Found
-        if (a == cursor) {
-            cursor = _cursor;
-            return;
-        }
+        int _cursor = cursor;
+        // The shared id is set if the tag has attributes
+        cell.si = -1;
+        int a = getF(cell);
         // Inner text
         if (a < cursor) {
+            cell.f = true;
             cell.fv = unescape(buf, cb, a, cursor);
             if (cell.si > -1) setCalc(cell.si, cell.fv);
         }
-        // Function string is shared
+        // Function string is shared, the empty tag like {@code <f t="shared" si="0"/>}
         else if (cell.si > -1) {
+            cell.f = true;
             // Get from ref
             cell.fv = getCalc(cell.si, (getRowNum() << 14) | cell.i);
         }
+        // Tag <f> Not Found
+        else {
+            cell.f = false;
+            cursor = _cursor;
+        }
     }
 
 
@@ -560,14 +709,14 @@ class XMLCalcRow extends XMLRow {
     }
 
     /* Parse function tag's attribute */
-    private void parseFunAttr(Cell cell, char[] cb, int a, int b) {
+    private void parseFunAttr(Cell cell, byte[] cb, int a, int b) {
         // t="shared" ref="B2:B3" si="0"
         String[] values = new String[10];
         int index = 0;
         boolean sv = false; // is string value
         for (int i = a ; ; ) {
             for (; a < b && cb[a] > ' ' && cb[a] != '='; a++) ;
-            values[index++] = new String(cb, i, sv ? a - i - 1 : a - i);
+            values[index++] = new String(cb, i, sv ? a - i - 1 : a - i, StandardCharsets.US_ASCII);
             sv = false;
 
             if (a + 1 < b) {
@@ -587,7 +736,7 @@ class XMLCalcRow extends XMLRow {
         }
 
         if (index < 2 || (index & 1) == 1) {
-            LOGGER.warn("The function format error.[{}]", new String(cb, a, b - a));
+            LOGGER.warn("The function format error.[{}]", new String(cb, a, b - a, StandardCharsets.UTF_8));
             return;
         }
 
@@ -633,6 +782,7 @@ class XMLMergeRow extends XMLRow {
         this.styles = row.styles;
         this.startRow = row.startRow;
         this.buf = row.buf;
+        this.selected = row.selected;
     }
 
     XMLMergeRow setCopyValueFunc(Grid mergeCells, MergeValueFunc func) {
@@ -641,6 +791,14 @@ class XMLMergeRow extends XMLRow {
         return this;
     }
 
+    @Override
+    XMLRow copy() {
+        XMLMergeRow row = new XMLMergeRow(this).setCopyValueFunc(mergeCells, func);
+        row.buf = new StringBuilder();
+        row.hr = hr;
+        return row;
+    }
+
 
     /**
      * Loop parse cell
@@ -690,3 +848,329 @@ class XMLMergeRow extends XMLRow {
         func.accept(getRowNum(), cell);
     }
 }
+
+/**
+ * Decode the cells into the vectors of {@link ColumnBatch}, no {@link Cell}
+ * is used. The row is appended to batch only if any value is not null.
+ */
+class XMLColumnRow extends XMLRow {
+    private final ColumnBatch batch;
+    // Column index to vector index
+    private final int[] vectorIndex;
+
+    XMLColumnRow(ColumnBatch batch) {
+        this.batch = batch;
+        this.vectorIndex = batch.getSchema().toVectorIndex();
+    }
+
+    @Override
+    protected void parseCells() {
+        for (; cb[cursor++] != '>'; ) ;
+        int row = batch.size;
+        boolean notNull = false;
+        for (; ; ) {
+            for (; cursor < to && (cb[cursor] != '<' || cb[cursor + 1] != 'c'
+                || cb[cursor + 2] > ' '); cursor++) ;
+            // end of row
+            if (cursor >= to) break;
+            cursor += 2;
+            // find end of cell
+            e = cursor;
+            for (; e < to && (cb[e] != '<' || cb[e + 1] != 'c' || cb[e + 2] > ' '); e++) ;
+
+            char t = NUMERIC;
+            int v = -1;
+            for (; cb[cursor] != '>'; cursor++) {
+                // Cell index
+                if (cb[cursor] <= ' ' && cb[cursor + 1] == 'r' && cb[cursor + 2] == '=') {
+                    int a = cursor += 4;
+                    for (; cb[cursor] != '"'; cursor++) ;
+                    int i = toCellIndex(cb, a, cursor) - 1;
+                    if (i < vectorIndex.length) v = vectorIndex[i];
+                    if (v < 0) break;
+                }
+                // Cell type
+                if (cb[cursor] <= ' ' && cb[cursor + 1] == 't' && cb[cursor + 2] == '=') {
+                    int a = cursor += 4, n;
+                    for (; cb[cursor] != '"'; cursor++) ;
+                    if ((n = cursor - a) == 1) {
+                        t = (char) cb[a]; // s, n, b, e
+                    } else if (n == 3 && cb[a] == 's' && cb[a + 1] == 't' && cb[a + 2] == 'r') {
+                        t = FUNCTION; // function string
+                    } else if (n == 9 && cb[a] == 'i' && cb[a + 1] == 'n'
+                        && cb[a + 2] == 'l' && cb[a + 6] == 'S' && cb[a + 8] == 'r') {
+                        t = INLINESTR; // inlineStr
+                    }
+                }
+            }
+            // Not in schema
+            if (v < 0) {
+                cursor = e;
+                continue;
+            }
+
+            int a = t == INLINESTR ? getT() : getV();
+            if (a < cursor) {
+                notNull |= decode(v, row, t, a, cursor);
+            }
+            // end of cell
+            cursor = e;
+        }
+        if (notNull) {
+            batch.setRowNum(row, getRowNum());
+            batch.size++;
+        }
+    }
+
+    // Decode the value in range [a, b) to vector, returns false if it is null
+    private boolean decode(int v, int row, char t, int a, int b) {
+        boolean string = batch.typeOf(v) == Schema.Type.STRING;
+        switch (t) {
+            case SST:
+                if (string) batch.setIndex(v, row, toInt(cb, a, b));
+                return string;
+            case BOOL:
+                if (string) batch.setString(v, row, b - a == 1 && cb[a] == '1' ? "true" : "false");
+                else batch.setLong(v, row, b - a == 1 && cb[a] == '1' ? 1L : 0L);
+                return true;
+            case NUMERIC:
+                switch (parseNumber(a, b)) {
+                    case NUMERIC:
+                    case LONG:   batch.setLong(v, row, nl);   return true;
+                    case DOUBLE: batch.setDouble(v, row, nd); return true;
+                }
+            default:
+                // Not a number
+                if (string) batch.setString(v, row, t == INLINESTR || t == FUNCTION ? unescape(buf, cb, a, b) : toString(a, b));
+                return string;
+        }
+    }
+}
+
+/**
+ * Collect the {@link ColumnStats} from the cell bytes, no {@link Cell} is
+ * used. The row is counted only if any value is not null.
+ */
+class XMLStatsRow extends XMLRow {
+    final List<ColumnStats> stats = new ArrayList<>();
+    // The number of rows with any value
+    long rows;
+
+    XMLStatsRow(SharedStrings sst, Styles styles, int startRow) {
+        super(sst, styles, startRow);
+    }
+
+    @Override
+    protected void parseCells() {
+        for (; cb[cursor++] != '>'; ) ;
+        boolean notNull = false;
+        for (int col = 0; ; col++) {
+            for (; cursor < to && (cb[cursor] != '<' || cb[cursor + 1] != 'c'
+                || cb[cursor + 2] > ' '); cursor++) ;
+            // end of row
+            if (cursor >= to) break;
+            cursor += 2;
+            // find end of cell
+            e = cursor;
+            for (; e < to && (cb[e] != '<' || cb[e + 1] != 'c' || cb[e + 2] > ' '); e++) ;
+
+            char t = NUMERIC;
+            int xf = 0;
+            for (; cb[cursor] != '>'; cursor++) {
+                if (cb[cursor] > ' ' || cb[cursor + 2] != '=') continue;
+                byte k = cb[cursor + 1];
+                if (k != 'r' && k != 't' && k != 's') continue;
+                int a = cursor += 4, n;
+                for (; cb[cursor] != '"' && cb[cursor] != '\''; cursor++) ;
+                switch (k) {
+                    // Cell index
+                    case 'r': col = toCellIndex(cb, a, cursor) - 1; break;
+                    // Style index
+                    case 's': xf = toInt(cb, a, cursor);            break;
+                    // Cell type
+                    default:
+                        if ((n = cursor - a) == 1) t = (char) cb[a]; // s, n, b, e, d
+                        else if (n == 3) t = FUNCTION;               // str
+                        else if (n == 9) t = INLINESTR;              // inlineStr
+                }
+            }
+
+            int a = t == INLINESTR ? getT() : getV();
+            if (a < cursor) {
+                accept(stats(col), t, xf, a, cursor);
+                notNull = true;
+            }
+            // end of cell
+            cursor = e;
+        }
+        if (notNull) rows++;
+    }
+
+    private ColumnStats stats(int col) {
+        for (int i = stats.size(); i <= col; i++) stats.add(new ColumnStats(i));
+        return stats.get(col);
+    }
+
+    // Accumulate the value in range [a, b)
+    private void accept(ColumnStats s, char t, int xf, int a, int b) {
+        switch (t) {
+            case SST:
+                s.addSharedString(toInt(cb, a, b));
+                break;
+            case BOOL:
+                s.addBoolean(b - a == 1 && cb[a] == '1');
+                break;
+            case NUMERIC:
+                boolean date = styles != null && styles.fastTestDateFmt(xf);
+                switch (parseNumber(a, b)) {
+                    case NUMERIC:
+                    case LONG:
+                        if (date) s.addNumber(ColumnStats.DATE, nl);
+                        else s.addLong(nl);
+                        return;
+                    case DOUBLE:
+                        s.addNumber(date ? ColumnStats.DATE : ColumnStats.DOUBLE, nd);
+                        return;
+                }
+                // Not a number, take it as string
+            default:
+                // Inline string, formula string, error and ISO 8601 date
+                s.addString(cb, a, b);
+        }
+    }
+}
+
+/**
+ * Test the {@link RowFilter} on the cell bytes, only the cells of filtered
+ * columns are read and no {@link Cell} is used. The strings of conditions
+ * are resolved to the indexes of shared string once, so the shared string
+ * cells are tested by their indexes.
+ */
+class XMLFilterRow extends XMLRow {
+    private final RowFilter.Condition[] conditions;
+    // The condition indexes of each column
+    private final int[][] byColumn;
+    // The matched shared string indexes of each IN condition
+    private final BitSet[] sstIndexes;
+    // The indexes of blank shared strings, null if there is no BLANK condition
+    private BitSet blankIndexes;
+    // The condition indexes of each IN value
+    private final Map<String, List<Integer>> strings = new HashMap<>();
+    // The shared string indexes already resolved
+    private final BitSet resolved = new BitSet();
+    private final boolean[] results;
+    // The result of current row
+    boolean matched;
+
+    XMLFilterRow(RowFilter filter, SharedStrings sst, Styles styles) {
+        super(sst, styles, 1);
+        conditions = filter.getConditions();
+        results = new boolean[conditions.length];
+        sstIndexes = new BitSet[conditions.length];
+        int maxColumn = -1;
+        boolean hasBlank = false;
+        for (int i = 0; i < conditions.length; i++) {
+            RowFilter.Condition c = conditions[i];
+            if (c.column > maxColumn) maxColumn = c.column;
+            if (c.op == RowFilter.IN) {
+                sstIndexes[i] = new BitSet();
+                for (String v : c.values) strings.computeIfAbsent(v, k -> new ArrayList<>()).add(i);
+            } else if (c.op == RowFilter.BLANK) hasBlank = true;
+        }
+        int[] counts = new int[maxColumn + 1];
+        for (RowFilter.Condition c : conditions) counts[c.column]++;
+        byColumn = new int[maxColumn + 1][];
+        for (int i = 0; i < conditions.length; i++) {
+            int col = conditions[i].column;
+            if (byColumn[col] == null) byColumn[col] = new int[counts[col]];
+            byColumn[col][--counts[col]] = i;
+        }
+        if (hasBlank) blankIndexes = new BitSet();
+    }
+
+    // Resolve the shared string on the first test of its index
+    private void resolve(int index) {
+        resolved.set(index);
+        String s = sst.get(index);
+        List<Integer> ids = strings.get(s);
+        if (ids != null) for (int id : ids) sstIndexes[id].set(index);
+        if (blankIndexes != null && StringUtil.isBlank(s)) blankIndexes.set(index);
+    }
+
+    @Override
+    protected void parseCells() {
+        // The missing cells are blank
+        for (int i = 0; i < conditions.length; i++) results[i] = conditions[i].op == RowFilter.BLANK;
+        for (; cb[cursor++] != '>'; ) ;
+        for (int col = 0; ; col++) {
+            for (; cursor < to && (cb[cursor] != '<' || cb[cursor + 1] != 'c'
+                || cb[cursor + 2] > ' '); cursor++) ;
+            // end of row
+            if (cursor >= to) break;
+            cursor += 2;
+            // find end of cell
+            e = cursor;
+            for (; e < to && (cb[e] != '<' || cb[e + 1] != 'c' || cb[e + 2] > ' '); e++) ;
+
+            char t = NUMERIC;
+            for (; cb[cursor] != '>'; cursor++) {
+                if (cb[cursor] > ' ' || cb[cursor + 2] != '=') continue;
+                byte k = cb[cursor + 1];
+                if (k != 'r' && k != 't') continue;
+                int a = cursor += 4, n;
+                for (; cb[cursor] != '"' && cb[cursor] != '\''; cursor++) ;
+                // Cell index
+                if (k == 'r') col = toCellIndex(cb, a, cursor) - 1;
+                // Cell type
+                else if ((n = cursor - a) == 1) t = (char) cb[a]; // s, n, b, e, d
+                else if (n == 3) t = FUNCTION;                    // str
+                else if (n == 9) t = INLINESTR;                   // inlineStr
+            }
+            // The cells are in ascending order, the rest are not filtered
+            if (col >= byColumn.length) break;
+
+            int[] ids = byColumn[col];
+            if (ids != null) {
+                int a = t == INLINESTR ? getT() : getV();
+                for (int id : ids) results[id] = test(id, t, a, cursor);
+            }
+            // end of cell
+            cursor = e;
+        }
+        boolean matched = true;
+        for (int i = 0; matched && i < results.length; i++) matched = results[i];
+        this.matched = matched;
+    }
+
+    // Test the value in range [a, b) with the condition
+    private boolean test(int id, char t, int a, int b) {
+        RowFilter.Condition c = conditions[id];
+        switch (c.op) {
+            case RowFilter.IN:
+                if (a >= b) return false;
+                if (t == SST) return sstIndexes[id].get(sstIndex(a, b));
+                return (t == INLINESTR || t == FUNCTION) && c.values.contains(unescape(buf, cb, a, b));
+            case RowFilter.BETWEEN:
+                if (a >= b || t != NUMERIC) return false;
+                double v;
+                switch (parseNumber(a, b)) {
+                    case NUMERIC:
+                    case LONG:   v = nl; break;
+                    case DOUBLE: v = nd; break;
+                    default:     return false;
+                }
+                return v >= c.min && v <= c.max;
+            default:
+                if (a >= b) return true;
+                if (t == SST) return blankIndexes.get(sstIndex(a, b));
+                return (t == INLINESTR || t == FUNCTION) && StringUtil.isBlank(unescape(buf, cb, a, b));
+        }
+    }
+
+    // The shared string index in range [a, b), it is resolved if not yet
+    private int sstIndex(int a, int b) {
+        int index = toInt(cb, a, b);
+        if (sst != null && !resolved.get(index)) resolve(index);
+        return index;
+    }
+}
@@ -19,22 +19,33 @@ package org.ttzero.excel.reader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.ttzero.excel.entity.style.Styles;
+import org.ttzero.excel.util.ZipIndex;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The open-xml format Worksheet
@@ -67,8 +78,15 @@ public class XMLSheet implements Sheet {
         this.mark = sheet.mark;
         this.sRow = sheet.sRow;
         this.lastRowMark = sheet.lastRowMark;
+        this.position = sheet.position;
         this.hrf = sheet.hrf;
         this.hrl = sheet.hrl;
+        this.zip = sheet.zip;
+        this.selected = sheet.selected;
+        this.rowIndex = sheet.rowIndex;
+        this.readAhead = sheet.readAhead;
+        this.filter = sheet.filter;
+        this.filterRow = sheet.filterRow;
     }
 
     protected String name;
@@ -94,6 +112,20 @@ public class XMLSheet implements Sheet {
     protected Drawings drawings;
     // Header row
     protected int hrf, hrl;
+    // The archive index, parts are read from the zip file directly if not null
+    protected ZipIndex zip;
+    // The selected columns (zero base), null if parse all columns
+    protected boolean[] selected;
+    // The sparse row offset index, null if not record
+    protected RowIndex rowIndex;
+    // Read the worksheet part ahead in a background thread
+    protected boolean readAhead;
+    // The conditions of data rows, null if not filter
+    protected RowFilter filter;
+    // Test the filter on the raw rows
+    XMLFilterRow filterRow;
+    // Skip the unmatched rows, it is on only while iterating data rows
+    private boolean filtering;
 
 
     /**
@@ -114,6 +146,26 @@ public class XMLSheet implements Sheet {
         this.path = path;
     }
 
+    /**
+     * Setting the archive index, the worksheet part will be
+     * read from the zip file directly
+     *
+     * @param zip the {@link ZipIndex}
+     */
+    protected void setZip(ZipIndex zip) {
+        this.zip = zip;
+    }
+
+    /**
+     * Setting the read-ahead mode, the worksheet part will be read
+     * ahead in a background thread while the rows are parsed
+     *
+     * @param readAhead true if read ahead
+     */
+    protected void setReadAhead(boolean readAhead) {
+        this.readAhead = readAhead;
+    }
+
     /**
      * Setting the Shared String Table
      *
@@ -269,7 +321,14 @@ public class XMLSheet implements Sheet {
     @Override
     public Row getHeader() {
         if (header == null && !heof) {
-            Row row = hrf == 0 ? findRow0(this::createHeader) : getHeader(hrf, hrl);
+            // The header row is always parsed entirely
+            if (sRow != null) sRow.selected = null;
+            Row row;
+            try {
+                row = hrf == 0 ? findRow0(this::createHeader) : getHeader(hrf, hrl);
+            } finally {
+                if (sRow != null) sRow.selected = selected;
+            }
             if (row != null) {
                 header = row instanceof HeaderRow ? (HeaderRow) row : row.asHeader();
                 sRow.setHr(header);
@@ -339,6 +398,58 @@ public class XMLSheet implements Sheet {
             throw new IllegalArgumentException("fromIndex(" + fromRowNum + ") > toIndex(" + toRowNum + ")");
     }
 
+    /**
+     * Parse the specified columns only, the other cells are skipped after
+     * reading the cell reference and left blank.
+     *
+     * @param columns the zero-base column indexes, parse all columns if empty
+     * @return current {@link Sheet}
+     * @throws IndexOutOfBoundsException if any column index is negative
+     */
+    @Override
+    public XMLSheet select(int... columns) {
+        boolean[] selected = null;
+        if (columns != null && columns.length > 0) {
+            int max = 0;
+            for (int c : columns) {
+                if (c < 0) throw new IndexOutOfBoundsException("Column index: " + c);
+                if (c > max) max = c;
+            }
+            selected = new boolean[max + 1];
+            for (int c : columns) selected[c] = true;
+        }
+        this.selected = selected;
+        if (sRow != null) sRow.selected = selected;
+        return this;
+    }
+
+    /**
+     * Filter the data rows by the conditions, the unmatched rows are skipped
+     * by testing the cell bytes before parsing the other cells. A shared
+     * string is resolved by index on the first row that refers to it in the
+     * filtered columns, the later rows test the cached result.
+     * <p>
+     * The rejected rows of a formula worksheet which contain the range of
+     * shared formula like {@code ref="B2:B8"} are still parsed, so that the
+     * following rows can get the shared formulas.
+     * <p>
+     * The filter applies to {@link #dataIterator()}, {@link #dataRows()},
+     * {@link #rowBatches(int)}, {@link #readBatches(int, Schema)} and
+     * {@link #columnStats()}, the header row and {@link #iterator()} are not
+     * filtered. The stream of data rows is not split in parallel while the
+     * filter is set.
+     *
+     * @param filter the {@link RowFilter}, null to remove the filter
+     * @return current {@link Sheet}
+     */
+    @Override
+    public XMLSheet filter(RowFilter filter) {
+        this.filter = filter != null && filter.size() > 0 ? filter : null;
+        this.filterRow = this.filter != null ? new XMLFilterRow(this.filter, sst, styles) : null;
+        if (filterRow == null) filtering = false;
+        return this;
+    }
+
     /**
      * Set the binding type
      *
@@ -378,18 +489,22 @@ public class XMLSheet implements Sheet {
     }
 
     /////////////////////////////////Read sheet file/////////////////////////////////
-    protected BufferedReader reader;
-    protected char[] cb; // buffer
+    protected InputStream reader;
+    protected byte[] cb; // buffer, the markup is scanned as raw UTF-8 bytes
     protected int nChar, length;
     protected boolean eof = false, heof = false; // OPTIONS = false
     protected long mark;
+    // The number of bytes read from the worksheet stream
+    protected long position;
+    // Shared by the split row spliterators to read by position
+    private FileChannel splitChannel;
 
     // Shared row data, Record the current row
     protected XMLRow sRow;
     protected long lastRowMark;
 
     /**
-     * Load sheet.xml as BufferedReader
+     * Load sheet.xml as InputStream
      *
      * @return Sheet
      * @throws IOException if io error occur
@@ -402,16 +517,17 @@ public class XMLSheet implements Sheet {
             return this;
         }
         LOGGER.debug("Load {}", path.toString());
-        reader = Files.newBufferedReader(path);
-        cb = new char[8192];
+        reader = openStream();
+        cb = new byte[8192];
         nChar = 0;
         int left = 0;
         loopA: for (; ; ) {
-            length = reader.read(cb, left, cb.length - left);
+            length = read(reader, cb, left, cb.length - left);
+            if (length > 0) position += length;
             if (length < 11) break;
             // read size
             if (nChar == 0 && startRow < 1) {
-                String line = new String(cb, 56, 1024);
+                String line = new String(cb, 56, 1024, StandardCharsets.US_ASCII);
                 String size = "<dimension ref=\"";
                 int index = line.indexOf(size), end = index > 0 ? line.indexOf('"', index += size.length()) : -1;
                 if (end > 0) {
@@ -458,6 +574,7 @@ public class XMLSheet implements Sheet {
             eof = false;
             mark += nChar;
             sRow = createRow().init(sst, styles, this.startRow > 0 ? this.startRow : 1);
+            sRow.selected = selected;
         }
 
         // Deep read if dimension information not write in header
@@ -479,69 +596,113 @@ public class XMLSheet implements Sheet {
      * @return Row
      */
     private XMLRow nextRow() {
-        if (eof) return null;
-        boolean endTag = false;
-        int start = nChar;
-        // find end of row tag
-        for (; ++nChar < length && cb[nChar] != '>'; ) ;
-        // Empty Row
-        if (cb[nChar++ - 1] == '/') {
-            return sRow.empty(cb, start, nChar - start);
-        }
-        // Not empty
-        for (; nChar < length - 6; nChar++) {
-            if (cb[nChar] == '<' && cb[nChar + 1] == '/' && cb[nChar + 2] == 'r'
-                && cb[nChar + 3] == 'o' && cb[nChar + 4] == 'w' && cb[nChar + 5] == '>') {
-                nChar += 6;
-                endTag = true;
-                break;
+        return nextRow(sRow);
+    }
+
+    /**
+     * iterator rows with the specified row parser
+     *
+     * @param row the row parser
+     * @return the row parser, or null if end of rows
+     */
+    private XMLRow nextRow(XMLRow row) {
+        for (; ; ) {
+            if (eof) return null;
+            boolean endTag = false;
+            int start = nChar;
+            // find end of row tag
+            for (; ++nChar < length && cb[nChar] != '>'; ) ;
+            // Empty Row
+            if (cb[nChar++ - 1] == '/') {
+                return row.empty(cb, start, nChar - start);
+            }
+            // Not empty
+            for (; nChar < length - 6; nChar++) {
+                if (cb[nChar] == '<' && cb[nChar + 1] == '/' && cb[nChar + 2] == 'r'
+                    && cb[nChar + 3] == 'o' && cb[nChar + 4] == 'w' && cb[nChar + 5] == '>') {
+                    nChar += 6;
+                    endTag = true;
+                    break;
+                }
             }
-        }
 
-        /* Load more when not found end of row tag */
-        if (!endTag) {
-            int n;
-            if (start == 0) {
-                char[] _cb = new char[cb.length << 1];
-                System.arraycopy(cb, start, _cb, 0, n = length - start);
-                cb = _cb;
-            } else {
-                System.arraycopy(cb, start, cb, 0, n = length - start);
+            /* Load more when not found end of row tag */
+            if (!endTag) {
+                nChar = start;
+                if (fill()) continue;
+                return null;
             }
-            try {
-                length = reader.read(cb, n, cb.length - n);
-                // end of file
-                if (length < 0) {
-                    eof = true;
-                    reader.close(); // close reader
-                    reader = null; // wait GC
-                    LOGGER.debug("end of file.");
-                    return null;
+
+            // Skip the unmatched row before parsing cells
+            if (filtering) {
+                filterRow.with(cb, start, nChar - start);
+                if (!filterRow.matched) {
+                    // Keep the masters of shared formulas
+                    if (row instanceof XMLCalcRow && hasRef(cb, start, nChar)) row.with(cb, start, nChar - start);
+                    continue;
                 }
-            } catch (IOException e) {
-                throw new ExcelReadException("Parse row data error", e);
             }
-            nChar = 0;
-            length += n;
-            return nextRow();
+
+            // share row
+            row.with(cb, start, nChar - start);
+            if (rowIndex != null) rowIndex.add(row.getRowNum(), position - length + start);
+            return row;
         }
+    }
 
-        // share row
-        return sRow.with(cb, start, nChar - start);
+    // Test if the row contains a formula range like ref="B2:B8"
+    static boolean hasRef(byte[] cb, int from, int to) {
+        for (int i = from + 1; i < to - 4; i++) {
+            if (cb[i] == 'r' && cb[i + 1] == 'e' && cb[i + 2] == 'f' && cb[i + 3] == '=' && cb[i - 1] <= ' ') return true;
+        }
+        return false;
+    }
+
+    /**
+     * Keep the unread bytes from {@code nChar} and read more, the buffer is
+     * doubled if it is full. The reader is closed at the end of file.
+     *
+     * @return false if end of file
+     */
+    private boolean fill() {
+        int n = length - nChar;
+        if (nChar == 0) {
+            if (n == cb.length) cb = Arrays.copyOf(cb, cb.length << 1);
+        } else {
+            System.arraycopy(cb, nChar, cb, 0, n);
+        }
+        nChar = 0;
+        try {
+            length = read(reader, cb, n, cb.length - n);
+            // end of file
+            if (length < 0) {
+                length = n;
+                eof = true;
+                reader.close(); // close reader
+                reader = null; // wait GC
+                LOGGER.debug("end of file.");
+                return false;
+            }
+            position += length;
+        } catch (IOException e) {
+            throw new ExcelReadException("Parse row data error", e);
+        }
+        length += n;
+        return true;
     }
 
     protected Row findRow0(HeaderRowFunc func) {
-        char[] cb = new char[8192];
+        byte[] cb = new byte[8192];
         int nChar = 0, length;
         // reload file
-        try (BufferedReader reader = Files.newBufferedReader(path)) {
+        try (InputStream reader = newInputStream()) {
             if (mark > 0) {
-                reader.skip(mark);
-                length = reader.read(cb);
+                skip(reader, mark);
+                length = read(reader, cb, 0, cb.length);
             } else {
                 loopA:
                 for (; ; ) {
-                    length = reader.read(cb);
+                    length = read(reader, cb, 0, cb.length);
                     // find index of <sheetData>
                     for (; nChar < length - 12; nChar++) {
                         if (cb[nChar] == '<' && cb[nChar + 1] == 's' && cb[nChar + 2] == 'h'
@@ -574,12 +735,12 @@ public class XMLSheet implements Sheet {
 
                 /* Load more when not found end of row tag */
                 int n;
-                char[] _cb = new char[cb.length << 1];
+                byte[] _cb = new byte[cb.length << 1];
                 System.arraycopy(cb, start, _cb, 0, n = length - start);
                 cb = _cb;
 
                 try {
-                    length = reader.read(cb, n, cb.length - n);
+                    length = read(reader, cb, n, cb.length - n);
                     // end of file
                     if (length < 0) {
                         reader.close(); // close reader
@@ -609,6 +770,7 @@ public class XMLSheet implements Sheet {
     public Iterator<Row> iterator() {
         // If the header row number is specified, the header will be parsed first
         if (hrf > 0) getHeader();
+        filtering = false;
         return new RowSetIterator(this::nextRow, false);
     }
 
@@ -619,6 +781,7 @@ public class XMLSheet implements Sheet {
      */
     @Override
     public Iterator<Row> dataIterator() {
+        filtering = false;
         // If the header row number is specified, the header will be parsed first
         if (hrf > 0) getHeader();
         // iterator data rows
@@ -632,9 +795,350 @@ public class XMLSheet implements Sheet {
             if (header == null) header = row.asHeader();
             row.setHr(header);
         }
+        // The header row is not filtered
+        filtering = filterRow != null;
         return nIter;
     }
 
+    /**
+     * Return a stream of all rows, the stream can be split at the
+     * {@code <row>} boundaries to parse in parallel, see {@link RowSpliterator}
+     *
+     * @return a {@code Stream&lt;Row&gt;} providing the lines of row
+     */
+    @Override
+    public Stream<Row> rows() {
+        return StreamSupport.stream(new RowSpliterator(this, iterator(), false), false);
+    }
+
+    /**
+     * Return stream with out header row and empty rows, the stream can be split at the
+     * {@code <row>} boundaries to parse in parallel, see {@link RowSpliterator}
+     *
+     * @return a {@code Stream&lt;Row&gt;} providing the lines of row
+     */
+    @Override
+    public Stream<Row> dataRows() {
+        return StreamSupport.stream(new RowSpliterator(this, dataIterator(), true), false);
+    }
+
+    /**
+     * Return a parallel stream of all rows, each row of the split parts is
+     * parsed on a new row object in the ordered stream, see {@link Sheet#parallelRows(boolean)}
+     *
+     * @param ordered keep the order of rows
+     * @return a parallel {@code Stream&lt;Row&gt;}
+     */
+    @Override
+    public Stream<Row> parallelRows(boolean ordered) {
+        Stream<Row> rows = StreamSupport.stream(new RowSpliterator(this, iterator(), false, ordered), true);
+        return ordered ? rows : rows.unordered();
+    }
+
+    /**
+     * Return a parallel stream with out header row and empty rows, see
+     * {@link #parallelRows(boolean)}
+     *
+     * @param ordered keep the order of rows
+     * @return a parallel {@code Stream&lt;Row&gt;}
+     */
+    @Override
+    public Stream<Row> parallelDataRows(boolean ordered) {
+        Stream<Row> rows = StreamSupport.stream(new RowSpliterator(this, dataIterator(), true, ordered), true);
+        return ordered ? rows : rows.unordered();
+    }
+
+    /**
+     * Return a stream of the rows in range, the cursor is moved to the first
+     * row by {@link #seek(int)}, the preceding rows are skipped without parsing
+     * cells. The cursor stays at the next row of range when the stream is done.
+     *
+     * @param fromRowNum low endpoint (inclusive) of the worksheet (one base)
+     * @param toRowNum high endpoint (inclusive) of the worksheet (one base)
+     * @return a {@code Stream&lt;Row&gt;} providing the lines of row
+     * @throws IndexOutOfBoundsException if {@code fromRowNum} less than 1
+     * @throws IllegalArgumentException if {@code toRowNum} less than {@code fromRowNum}
+     */
+    @Override
+    public Stream<Row> rows(int fromRowNum, int toRowNum) {
+        rangeCheck(fromRowNum, toRowNum);
+        filtering = false;
+        // If the header row number is specified, the header will be parsed first
+        if (hrf > 0) getHeader();
+        seek(fromRowNum);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new RowSetIterator(() -> {
+            XMLRow row = nextRow();
+            // The rows without row number or not skippable
+            for (; row != null && row.getRowNum() < fromRowNum; row = nextRow()) ;
+            if (row != null && row.getRowNum() > toRowNum) {
+                // Push back
+                nChar = row.from;
+                row = null;
+            }
+            return row;
+        }, false), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Move the cursor to the first row whose number is greater than or equal
+     * to the specified row number. The rows are skipped by scanning the
+     * {@code <row} tags only, and the cursor is moved back from the beginning
+     * or the nearest recorded offset if the row has been passed,
+     * see {@link #indexRows(int)}.
+     *
+     * @param rowNum the row number (one base)
+     * @return current {@link Sheet}
+     * @throws IndexOutOfBoundsException if {@code rowNum} less than 1
+     */
+    @Override
+    public XMLSheet seek(int rowNum) {
+        if (rowNum <= 0) throw new IndexOutOfBoundsException("rowNum = " + rowNum);
+        // Empty worksheet
+        if (sRow == null) return this;
+        // The number of next row
+        int r = eof ? 0 : skipTo(1);
+        long offset = rowIndex != null ? rowIndex.floor(rowNum) : -1L;
+        // Passed, move back
+        if (r <= 0 || r > rowNum) reopen(offset >= 0L ? offset : mark);
+        // Jump forward if it can be read by position
+        else if (r < rowNum && offset > position - length + nChar && splittable()) reopen(offset);
+
+        if (skippable()) skipTo(rowNum);
+        else {
+            // Move by the row number, the filter is not tested
+            boolean filtering = this.filtering;
+            this.filtering = false;
+            XMLRow row = nextRow();
+            for (; row != null && row.getRowNum() < rowNum; row = nextRow()) ;
+            if (row != null) nChar = row.from;
+            this.filtering = filtering;
+        }
+        return this;
+    }
+
+    /**
+     * Record the byte offset of row every {@code step} rows while reading,
+     * the cursor can jump to the nearest recorded row by {@link #seek(int)}
+     * after reset.
+     *
+     * @param step the minimum distance between two recorded rows
+     * @return current {@link Sheet}
+     * @throws IllegalArgumentException if {@code step} less than 1
+     */
+    @Override
+    public XMLSheet indexRows(int step) {
+        if (rowIndex == null || rowIndex.step != step) rowIndex = new RowIndex(step);
+        return this;
+    }
+
+    /**
+     * Skip the rows before the specified row number, only the start tags of
+     * row are scanned, the cursor stops at the start tag of the first row
+     * whose number is greater than or equal to the specified row number.
+     *
+     * @param rowNum the row number (one base)
+     * @return the number of the row at cursor, -1 if the row number is absent,
+     * or 0 if the end of rows
+     */
+    private int skipTo(int rowNum) {
+        for (int i = nChar; ; ) {
+            // Find the start tag of row
+            for (; i < length - 5; i++) {
+                if (cb[i] != '<') continue;
+                if (cb[i + 1] == 'r' && cb[i + 2] == 'o' && cb[i + 3] == 'w'
+                    && (cb[i + 4] == '>' || cb[i + 4] == '/' || cb[i + 4] > 0 && cb[i + 4] <= ' ')) break;
+                // End of sheetData
+                if (cb[i + 1] == '/' && cb[i + 2] == 's' && cb[i + 3] == 'h') {
+                    nChar = i;
+                    return 0;
+                }
+            }
+            if (i >= length - 5) {
+                nChar = i;
+                if (!fill()) return 0;
+                i = 0;
+                continue;
+            }
+            int j = i + 4, r = -1;
+            // Parse the row number
+            for (; j < length && cb[j] != '>'; j++) {
+                if (cb[j] <= ' ' && j + 3 < length && cb[j + 1] == 'r' && cb[j + 2] == '=') {
+                    int a = j += 4;
+                    for (; j < length && cb[j] != '"'; j++) ;
+                    if (j < length) r = j > a ? SharedStrings.toInt(cb, a, j) : -1;
+                    break;
+                }
+            }
+            // Load more from the start tag
+            if (j >= length) {
+                nChar = i;
+                if (!fill()) return 0;
+                i = 0;
+                continue;
+            }
+            if (r < 0 || r >= rowNum) {
+                nChar = i;
+                return r;
+            }
+            if (rowIndex != null) rowIndex.add(r, position - length + i);
+            i = j;
+        }
+    }
+
+    /**
+     * Re-open the worksheet part and move the cursor to the offset
+     *
+     * @param offset the byte offset in worksheet part
+     */
+    private void reopen(long offset) {
+        try {
+            // Close the opening reader
+            if (reader != null) {
+                reader.close();
+            }
+            closeSplitChannel();
+            reader = openStream();
+            skip(reader, offset);
+            length = read(reader, cb, 0, cb.length);
+            nChar = 0;
+            eof = length <= 0;
+            position = offset + Math.max(length, 0);
+        } catch (IOException e) {
+            throw new ExcelReadException("Seek worksheet[" + getName() + "] error occur.", e);
+        }
+    }
+
+    // The rows can be skipped without parsing, the sheets which depend on the
+    // preceding rows such as merged cells and shared formulas can not skip
+    boolean skippable() {
+        return true;
+    }
+
+    /**
+     * Read the data rows in batches, the cells of schema columns are decoded
+     * into the primitive vectors of {@link ColumnBatch} without creating
+     * {@link Cell}s. The header row is skipped as {@link #dataIterator()}, and
+     * the rows without any value in schema columns are skipped too.
+     * <p>
+     * The same {@link ColumnBatch} is returned by each call of {@code next()}
+     * with the vectors refilled. The formula and merged cells are not
+     * calculated or copied, the cached values are read only.
+     *
+     * @param batchSize the maximum number of rows of a batch
+     * @param schema    the columns and their vector types
+     * @return a batch iterator
+     * @throws IllegalArgumentException if {@code batchSize} less than 1 or the schema is empty
+     */
+    @Override
+    public Iterator<ColumnBatch> readBatches(int batchSize, Schema schema) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+        ColumnBatch batch = new ColumnBatch(schema, batchSize, sst);
+        XMLRow row = new XMLColumnRow(batch).init(sst, styles, startRow > 0 ? startRow : 1);
+        // Skip the header row
+        dataIterator();
+        return new Iterator<ColumnBatch>() {
+            boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready) {
+                    batch.clear();
+                    for (; batch.size < batchSize && nextRow(row) != null; ) ;
+                    ready = true;
+                }
+                return batch.size > 0;
+            }
+
+            @Override
+            public ColumnBatch next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                ready = false;
+                return batch;
+            }
+        };
+    }
+
+    /**
+     * Read the data rows in blocks, a batch is filled with up to
+     * {@code batchSize} rows by one call of {@code hasNext()}. The header
+     * row and the blank rows are skipped as {@link #dataIterator()}.
+     * <p>
+     * The same {@link RowBatch} is returned by each call of {@code next()},
+     * but each position of batch has its own row parser, so the rows of
+     * one batch can be handed to several threads before moving on.
+     *
+     * @param batchSize the maximum number of rows of a batch
+     * @return a batch iterator
+     * @throws IllegalArgumentException if {@code batchSize} less than 1
+     */
+    @Override
+    public Iterator<RowBatch> rowBatches(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("The batch size must be positive.");
+        }
+        // Skip the header row
+        dataIterator();
+        // Empty worksheet
+        if (sRow == null) return Collections.emptyIterator();
+        XMLRow[] rows = new XMLRow[batchSize];
+        for (int i = 0; i < batchSize; i++) rows[i] = sRow.copy();
+        RowBatch batch = new RowBatch(rows);
+        return new Iterator<RowBatch>() {
+            boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready) {
+                    batch.clear();
+                    for (int n; !batch.isEOF() && (n = batch.size()) < batchSize; ) {
+                        XMLRow row = nextRow(rows[n]);
+                        if (row == null) batch.markEnd();
+                        else if (!row.isBlank()) batch.append(row);
+                    }
+                    ready = true;
+                }
+                return batch.size() > 0;
+            }
+
+            @Override
+            public RowBatch next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                ready = false;
+                return batch;
+            }
+        };
+    }
+
+    /**
+     * Collect the statistics of each column in one pass, the values are
+     * accumulated from the cell bytes without creating {@link Row} or
+     * {@link Cell}. The header row and the rows without any value are
+     * skipped as {@link #dataIterator()}.
+     * <p>
+     * The formulas and merged cells are not calculated or copied, the
+     * cached values are read only.
+     *
+     * @return the statistics of columns, the index of list is the column index,
+     *     empty if the worksheet has no row
+     */
+    @Override
+    public List<ColumnStats> columnStats() {
+        // Skip the header row
+        dataIterator();
+        // Empty worksheet
+        if (sRow == null) return Collections.emptyList();
+        XMLStatsRow row = new XMLStatsRow(sst, styles, startRow > 0 ? startRow : 1);
+        for (; nextRow(row) != null; ) ;
+        String[] names = header != null ? header.getNames() : null;
+        for (ColumnStats stats : row.stats) {
+            stats.setNullCount(row.rows - stats.getCount());
+            if (names != null && stats.getColumn() < names.length) stats.setName(names[stats.getColumn()]);
+        }
+        return row.stats;
+    }
+
     /**
      * List all pictures in workbook
      *
@@ -656,6 +1160,7 @@ public class XMLSheet implements Sheet {
         if (reader != null) {
             reader.close();
         }
+        closeSplitChannel();
     }
 
 
@@ -671,21 +1176,26 @@ public class XMLSheet implements Sheet {
             hrf = 0;
             hrl = 0;
             header = null;
-            sRow.fc = 0;
-            sRow.index = sRow.lc = -1;
+            // The empty worksheet has no row
+            if (sRow != null) {
+                sRow.fc = 0;
+                sRow.index = sRow.lc = -1;
+            }
             // Close the opening reader
             if (reader != null) {
                 reader.close();
             }
+            closeSplitChannel();
             if (cb == null) {
                 return this.load();
             }
             // Reload
-            reader = Files.newBufferedReader(path);
-            reader.skip(mark);
-            length = reader.read(cb);
+            reader = openStream();
+            skip(reader, mark);
+            length = read(reader, cb, 0, cb.length);
             nChar = 0;
             eof = length <= 0;
+            position = mark + Math.max(length, 0);
         } catch (IOException e) {
             throw new ExcelReadException("Reset worksheet[" + getName() + "] error occur.", e);
         }
@@ -693,6 +1203,103 @@ public class XMLSheet implements Sheet {
         return this;
     }
 
+    /**
+     * Returns a channel to read the worksheet by position. The rows are
+     * parsed in parallel by the split {@link RowSpliterator}s which share
+     * this channel, returns null if the worksheet can not be split.
+     *
+     * @return a {@link FileChannel} or null
+     * @throws IOException if I/O error occur
+     */
+    FileChannel splitChannel() throws IOException {
+        if (!splittable()) return null;
+        if (splitChannel == null) splitChannel = FileChannel.open(path, StandardOpenOption.READ);
+        return splitChannel;
+    }
+
+    // Only the unzipped file can be read by position
+    boolean splittable() {
+        return zip == null && sRow != null && filterRow == null && path.getFileSystem() == FileSystems.getDefault();
+    }
+
+    // Close the channel of split row spliterators
+    private void closeSplitChannel() throws IOException {
+        if (splitChannel != null) {
+            splitChannel.close();
+            splitChannel = null;
+        }
+    }
+
+    /**
+     * Open the worksheet part as a byte stream, the UTF-8 bytes are
+     * scanned directly and only the string values will be decoded
+     *
+     * @return an {@link InputStream}
+     * @throws IOException if I/O error occur
+     */
+    protected InputStream newInputStream() throws IOException {
+        return zip == null ? Files.newInputStream(path) : zip.getInputStream(entry());
+    }
+
+    // Open the worksheet part to read rows, wrapped if read ahead
+    private InputStream openStream() throws IOException {
+        InputStream is = newInputStream();
+        return readAhead ? new ReadAheadInputStream(is) : is;
+    }
+
+    /**
+     * Transcode the worksheet xml bytes to CSV bytes directly, it does not
+     * depend on the reading state so the worksheet need not be loaded.
+     *
+     * @param os the output
+     * @throws IOException if I/O error occur.
+     */
+    @Override
+    public void transcodeToCSV(OutputStream os) throws IOException {
+        try (InputStream is = openStream(); OutputStream out = os) {
+            new CSVTranscoder(sst, styles, out).transcode(is);
+        }
+    }
+
+    /**
+     * Read bytes until the buffer range is full or end of stream,
+     * the inflating stream may return less bytes than requested
+     *
+     * @param is  the input stream
+     * @param b   the buffer
+     * @param off the start offset in buffer
+     * @param len the maximum number of bytes to read
+     * @return the total number of bytes read, or -1 if end of stream
+     * @throws IOException if I/O error occur
+     */
+    static int read(InputStream is, byte[] b, int off, int len) throws IOException {
+        int n = 0;
+        for (int i; n < len && (i = is.read(b, off + n, len - n)) > 0; n += i) ;
+        return n > 0 || len == 0 ? n : -1;
+    }
+
+    // Skip n bytes of the stream
+    static void skip(InputStream is, long n) throws IOException {
+        for (long i; n > 0 && (i = is.skip(n)) > 0; n -= i) ;
+    }
+
+    /**
+     * Open the worksheet part as a read-only channel
+     *
+     * @return a {@link SeekableByteChannel}
+     * @throws IOException if I/O error occur
+     */
+    protected SeekableByteChannel newChannel() throws IOException {
+        return zip == null ? Files.newByteChannel(path, StandardOpenOption.READ) : zip.newChannel(entry());
+    }
+
+    // Returns the entry of worksheet part in the archive
+    private ZipIndex.Entry entry() throws IOException {
+        ZipIndex.Entry entry = zip.getEntry(path);
+        if (entry == null) throw new NoSuchFileException(path.toString());
+        return entry;
+    }
+
     @Override
     public XMLRow createRow() {
         return new XMLRow();
@@ -704,8 +1311,8 @@ public class XMLSheet implements Sheet {
     to confirm the scope of the entire worksheet.
      */
     void parseDimension() {
-        try (SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ)) {
-            long position = Files.size(path);
+        try (SeekableByteChannel channel = newChannel()) {
+            long position = channel.size();
             final int block = (int) Math.min(1 << 11, position), c = 7;
             ByteBuffer buffer = ByteBuffer.allocate(block);
             byte[] left = null;
@@ -834,7 +1441,7 @@ public class XMLSheet implements Sheet {
         dimension = new Dimension((int) rr, (short) rc, (int) (rr >>> 32), (short) (rc >>> 16));
     }
 
-    Row createHeader(char[] cb, int start, int n) {
+    Row createHeader(byte[] cb, int start, int n) {
         return createRow().init(sst, styles, startRow > 0 ? startRow : 1).with(cb, start, n);
     }
 
@@ -859,7 +1466,7 @@ public class XMLSheet implements Sheet {
 
 
     interface HeaderRowFunc {
-        Row accept(char[] cb, int start, int n);
+        Row accept(byte[] cb, int start, int n);
     }
 
     // For debug
@@ -900,6 +1507,13 @@ class XMLCalcSheet extends XMLSheet implements CalcSheet {
         this.mark = sheet.mark;
         this.sRow = sheet.sRow;
         this.lastRowMark = sheet.lastRowMark;
+        this.position = sheet.position;
+        this.zip = sheet.zip;
+        this.selected = sheet.selected;
+        this.rowIndex = sheet.rowIndex;
+        this.readAhead = sheet.readAhead;
+        this.filter = sheet.filter;
+        this.filterRow = sheet.filterRow;
 
         if (this.path != null) {
 
@@ -908,7 +1522,7 @@ class XMLCalcSheet extends XMLSheet implements CalcSheet {
     }
 
     /**
-     * Load sheet.xml as BufferedReader
+     * Load sheet.xml as InputStream
      *
      * @return Sheet
      * @throws IOException if io error occur
@@ -922,6 +1536,18 @@ class XMLCalcSheet extends XMLSheet implements CalcSheet {
         return this;
     }
 
+    // The shared formulas depend on the order of rows
+    @Override
+    boolean splittable() {
+        return false;
+    }
+
+    // The masters of shared formulas are parsed from the preceding rows
+    @Override
+    boolean skippable() {
+        return false;
+    }
+
     void load0() {
         if (ready) return;
 
@@ -947,7 +1573,7 @@ class XMLCalcSheet extends XMLSheet implements CalcSheet {
     }
 
     @Override
-    Row createHeader(char[] cb, int start, int n) {
+    Row createHeader(byte[] cb, int start, int n) {
         return new XMLCalcRow(sst, styles, this.startRow > 0 ? this.startRow : 1, this::findCalc).with(cb, start, n);
     }
 
@@ -1005,6 +1631,13 @@ class XMLMergeSheet extends XMLSheet implements MergeSheet {
         this.mark = sheet.mark;
         this.sRow = sheet.sRow;
         this.lastRowMark = sheet.lastRowMark;
+        this.position = sheet.position;
+        this.zip = sheet.zip;
+        this.selected = sheet.selected;
+        this.rowIndex = sheet.rowIndex;
+        this.readAhead = sheet.readAhead;
+        this.filter = sheet.filter;
+        this.filterRow = sheet.filterRow;
 
         if (path != null) {
             if (reader != null && !ready) this.load0();
@@ -1012,7 +1645,7 @@ class XMLMergeSheet extends XMLSheet implements MergeSheet {
     }
 
     /**
-     * Load sheet.xml as BufferedReader
+     * Load sheet.xml as InputStream
      *
      * @return Sheet
      * @throws IOException if io error occur
@@ -1026,6 +1659,25 @@ class XMLMergeSheet extends XMLSheet implements MergeSheet {
         return this;
     }
 
+    // The values of merged cells are copied from the first row of range
+    @Override
+    boolean skippable() {
+        return false;
+    }
+
+    // Copying the merged values depends on the order of rows
+    @Override
+    boolean splittable() {
+        return false;
+    }
+
+    // The merged values are copied by row
+    @Override
+    public void transcodeToCSV(OutputStream os) throws IOException {
+        if (sRow == null) load();
+        saveAsCSV(os);
+    }
+
     // Parse merge tag
     void load0() {
         if (ready) return;
@@ -1048,8 +1700,8 @@ class XMLMergeSheet extends XMLSheet implements MergeSheet {
     Parse `mergeCells` tag
      */
     List<Dimension> parseMerge() {
-        try (SeekableByteChannel channel = Files.newByteChannel(path, StandardOpenOption.READ)) {
-            long position = Files.size(path);
+        try (SeekableByteChannel channel = newChannel()) {
+            long position = channel.size();
             final int block = (int) Math.min(1 << 11, position), c = 12;
             ByteBuffer buffer = ByteBuffer.allocate(block);
             byte[] left;
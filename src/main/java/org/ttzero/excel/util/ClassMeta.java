@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The reflect metadata of class shared by the reader and the writer,
+ * it is computed once per class and cached in a {@link ClassValue},
+ * so the cache is released with the class loader.
+ * <p>
+ * All arrays returned are new copies, the caller can modify them freely.
+ * The members are not made accessible here, the caller should make the
+ * bound ones accessible by {@link #setAccessible(AccessibleObject)}.
+ * The derived data such as header layouts and compiled accessors can be
+ * attached by {@link #computeIfAbsent(Object, Function)}, they must not
+ * depend on anything other than the class and the key.
+ *
+ * @author guanquan.wang at 2023-03-16 14:05
+ */
+public final class ClassMeta {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClassMeta.class);
+
+    private static final ClassValue<ClassMeta> CACHE = new ClassValue<ClassMeta>() {
+        @Override
+        protected ClassMeta computeValue(Class<?> type) {
+            return new ClassMeta(type);
+        }
+    };
+
+    private final Class<?> clazz;
+    /**
+     * All declared fields that contains all supper class
+     */
+    private final Field[] declaredFields;
+    /**
+     * The property name and Read-Method/Write-Method mapping
+     */
+    private final Map<String, Method> readMethods, writeMethods;
+    /**
+     * All declared methods, null if introspection failed
+     */
+    private final Method[] declaredMethods;
+    private final IntrospectionException error;
+    /**
+     * The derived data
+     */
+    private final ConcurrentMap<Object, Object> attachments = new ConcurrentHashMap<>();
+
+    private ClassMeta(Class<?> clazz) {
+        this.clazz = clazz;
+        this.declaredFields = ReflectUtil.listDeclaredFields(clazz);
+
+        Map<String, Method> readMethods = new HashMap<>(), writeMethods = new HashMap<>();
+        try {
+            PropertyDescriptor[] propertyDescriptors = Introspector.getBeanInfo(clazz, Object.class)
+                .getPropertyDescriptors();
+            for (PropertyDescriptor pd : propertyDescriptors) {
+                Method method = pd.getReadMethod();
+                if (method != null) readMethods.put(pd.getName(), method);
+                method = pd.getWriteMethod();
+                if (method != null) writeMethods.put(pd.getName(), method);
+            }
+        } catch (IntrospectionException e) {
+            LOGGER.warn("Get class {} methods failed.", clazz);
+        }
+        this.readMethods = Collections.unmodifiableMap(readMethods);
+        this.writeMethods = Collections.unmodifiableMap(writeMethods);
+
+        Method[] methods = null;
+        IntrospectionException error = null;
+        try {
+            methods = ReflectUtil.listDeclaredMethods(clazz);
+        } catch (IntrospectionException e) {
+            error = e;
+        }
+        this.declaredMethods = methods;
+        this.error = error;
+    }
+
+    /**
+     * Returns the cached metadata of class
+     *
+     * @param clazz the bean class
+     * @return the {@link ClassMeta}
+     */
+    public static ClassMeta of(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    /**
+     * Returns the bean class
+     *
+     * @return the bean class
+     */
+    public Class<?> getType() {
+        return clazz;
+    }
+
+    /**
+     * List all declared fields that contains all supper class
+     *
+     * @param filter A field filter, null means all fields
+     * @return all declared fields
+     */
+    public Field[] listDeclaredFields(Predicate<Field> filter) {
+        Field[] fields = new Field[declaredFields.length];
+        int n = 0;
+        for (Field field : declaredFields) {
+            if (filter == null || filter.test(field)) fields[n++] = field;
+        }
+        return n < fields.length ? Arrays.copyOf(fields, n) : fields;
+    }
+
+    /**
+     * Returns the property name and Read-Method mapping
+     *
+     * @return an unmodifiable map
+     */
+    public Map<String, Method> getReadMethods() {
+        return readMethods;
+    }
+
+    /**
+     * Returns the property name and Write-Method mapping
+     *
+     * @return an unmodifiable map
+     */
+    public Map<String, Method> getWriteMethods() {
+        return writeMethods;
+    }
+
+    /**
+     * List all declared methods that contains all supper class
+     *
+     * @param filter A method filter, null means all methods
+     * @return all declared method
+     * @throws IntrospectionException happens during introspection error
+     */
+    public Method[] listDeclaredMethods(Predicate<Method> filter) throws IntrospectionException {
+        if (declaredMethods == null) throw error;
+        Method[] methods = new Method[declaredMethods.length];
+        int n = 0;
+        for (Method method : declaredMethods) {
+            if (filter == null || filter.test(method)) methods[n++] = method;
+        }
+        return n < methods.length ? Arrays.copyOf(methods, n) : methods;
+    }
+
+    /**
+     * List all declared read methods that contains all supper class
+     *
+     * @param filter A method filter, null means all read methods
+     * @return all declared read method
+     * @throws IntrospectionException happens during introspection error
+     */
+    public Method[] listReadMethods(Predicate<Method> filter) throws IntrospectionException {
+        return listDeclaredMethods(method -> method.getParameterCount() == 0
+            && method.getReturnType() != void.class && method.getReturnType() != Void.class
+            && (filter == null || filter.test(method)));
+    }
+
+    /**
+     * Make the bound field or method accessible. The members of JDK classes
+     * can not be made accessible since Java 9 (InaccessibleObjectException),
+     * the failure is logged and ignored
+     *
+     * @param ao the field or method
+     * @return true if it is accessible
+     */
+    public static boolean setAccessible(AccessibleObject ao) {
+        try {
+            ao.setAccessible(true);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.debug("Can not access {}: {}", ao, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Returns the derived data of the key, compute it if absent.
+     * The function is called without lock, so it may be called more
+     * than once by concurrent threads and the first result wins
+     *
+     * @param key the data key
+     * @param mappingFunction the function to compute the data, returns null will not be cached
+     * @param <V> the type of data
+     * @return the data
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V computeIfAbsent(Object key, Function<Object, ? extends V> mappingFunction) {
+        Object v = attachments.get(key);
+        if (v == null && (v = mappingFunction.apply(key)) != null) {
+            Object o = attachments.putIfAbsent(key, v);
+            if (o != null) v = o;
+        }
+        return (V) v;
+    }
+}
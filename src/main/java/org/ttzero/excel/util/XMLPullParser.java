@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.dom4j.DocumentHelper;
+import org.dom4j.Element;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A minimal streaming parser for the small metadata parts such as
+ * {@code [Content_Types].xml}, relationships, {@code workbook.xml},
+ * {@code docProps} and {@code styles.xml}. The whole part is kept in a
+ * byte array and scanned in place, only the names and values asked for
+ * are decoded into String.
+ * <p>
+ * The parser only reports the start and end of element, the prolog,
+ * comments, processing instructions and DTD are skipped. Names are
+ * compared by their local name, the namespace prefix is ignored.
+ * It does not validate the document, a tag that is not closed will
+ * throws {@link IOException}.
+ *
+ * @author guanquan.wang at 2023-03-20 10:40
+ */
+public class XMLPullParser {
+    /**
+     * Event types
+     */
+    public static final int END_DOCUMENT = -1, START_TAG = 1, END_TAG = 2;
+    private final byte[] cb;
+    private final int length;
+    private int nChar;
+    private int event, depth;
+    // Bounds of the local name and attributes of current tag
+    private int nameStart, nameEnd, attrStart, attrEnd;
+    // The current start tag is self-closed, the END_TAG is pending
+    private boolean empty;
+    // Bounds of attribute name and value
+    private final int[] attr = new int[4];
+
+    public XMLPullParser(InputStream is) throws IOException {
+        byte[] cb = new byte[8192];
+        int n = 0;
+        for (int len; (len = is.read(cb, n, cb.length - n)) > 0; ) {
+            n += len;
+            if (n == cb.length) cb = Arrays.copyOf(cb, cb.length << 1);
+        }
+        this.cb = cb;
+        this.length = n;
+    }
+
+    public XMLPullParser(byte[] cb, int length) {
+        this.cb = cb;
+        this.length = length;
+    }
+
+    /**
+     * Move to the next start or end tag
+     *
+     * @return {@link #START_TAG}, {@link #END_TAG} or {@link #END_DOCUMENT}
+     * @throws IOException if the tag is not closed
+     */
+    public int next() throws IOException {
+        if (event == END_TAG) depth--;
+        if (empty) {
+            empty = false;
+            return event = END_TAG;
+        }
+        for (; ; ) {
+            int i = indexOf('<', nChar);
+            if (i < 0) {
+                nChar = length;
+                return event = END_DOCUMENT;
+            }
+            i++;
+            if (i >= length) throw new IOException("Unexpected end of document.");
+            switch (cb[i]) {
+                case '?':
+                    nChar = end(i, "?>"); break;
+                case '!':
+                    if (startsWith(i, "!--")) nChar = end(i + 3, "-->");
+                    else if (startsWith(i, "![CDATA[")) nChar = end(i + 8, "]]>");
+                    else nChar = end(i, ">");
+                    break;
+                case '/':
+                    name(i + 1);
+                    nChar = end(nameEnd, ">");
+                    attrStart = attrEnd = nameEnd;
+                    if (depth <= 0) throw new IOException("Unexpected end tag.");
+                    return event = END_TAG;
+                default:
+                    name(i);
+                    int e = tagEnd(nameEnd);
+                    empty = cb[e - 1] == '/';
+                    attrStart = nameEnd;
+                    attrEnd = empty ? e - 1 : e;
+                    nChar = e + 1;
+                    depth++;
+                    return event = START_TAG;
+            }
+        }
+    }
+
+    /**
+     * Returns the current event type
+     *
+     * @return the event type, 0 if {@link #next()} has not called
+     */
+    public int getEventType() {
+        return event;
+    }
+
+    /**
+     * Returns the depth of current element, the root element is 1
+     *
+     * @return the depth
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the local name of current tag
+     *
+     * @return the local name without prefix
+     */
+    public String getName() {
+        return new String(cb, nameStart, nameEnd - nameStart, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Test the local name of current tag
+     *
+     * @param name the local name to test
+     * @return true if the local name of current tag equals {@code name}
+     */
+    public boolean is(String name) {
+        return regionEquals(nameStart, nameEnd, name);
+    }
+
+    /**
+     * Returns the attribute value of current start tag, the attribute
+     * name is compared by local name, {@code r:id} matches {@code id}
+     *
+     * @param name the local name of attribute
+     * @return the unescaped value, or null if not found
+     */
+    public String getAttribute(String name) {
+        if (event != START_TAG) return null;
+        for (int i = attrStart; (i = nextAttr(i)) > 0; ) {
+            if (!isNamespace() && regionEquals(localName(attr[0], attr[1]), attr[1], name)) {
+                return unescape(attr[2], attr[3]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the direct text of current element and move to its end tag,
+     * the child elements are skipped.
+     *
+     * @return the unescaped text, an empty string if the element has no text
+     * @throws IOException if the tag is not closed
+     */
+    public String getText() throws IOException {
+        return content(null);
+    }
+
+    /**
+     * Skip the current element and all its children, move to its end tag
+     *
+     * @throws IOException if the tag is not closed
+     */
+    public void skip() throws IOException {
+        if (event != START_TAG) return;
+        int d = depth;
+        for (int e; (e = next()) != END_DOCUMENT && !(e == END_TAG && depth == d); ) ;
+    }
+
+    /**
+     * Build the current element and all its children as a dom4j {@link Element}
+     * and move to its end tag, it is used to reuse the parsers of dom4j for
+     * a small fragment. The names are local names.
+     *
+     * @return the dom4j {@link Element}
+     * @throws IOException if the tag is not closed
+     */
+    public Element toElement() throws IOException {
+        Element e = DocumentHelper.createElement(getName());
+        for (int i = attrStart; (i = nextAttr(i)) > 0; ) {
+            if (!isNamespace()) {
+                int a = localName(attr[0], attr[1]);
+                e.addAttribute(new String(cb, a, attr[1] - a, StandardCharsets.UTF_8), unescape(attr[2], attr[3]));
+            }
+        }
+        String text = content(e);
+        if (!text.isEmpty()) e.addText(text);
+        return e;
+    }
+
+    // Collect the direct text of current element, the child elements are added to parent if present
+    private String content(Element parent) throws IOException {
+        if (event != START_TAG) throw new IllegalStateException("Current event is not START_TAG.");
+        if (empty) {
+            next();
+            return "";
+        }
+        int d = depth;
+        StringBuilder buf = null;
+        String text = "";
+        for (; ; ) {
+            int i = indexOf('<', nChar);
+            if (i < 0) throw new IOException("Unexpected end of document.");
+            if (i > nChar) {
+                String s = unescape(nChar, i);
+                if (text.isEmpty()) text = s;
+                else (buf != null ? buf : (buf = new StringBuilder(text))).append(s);
+            }
+            nChar = i;
+            if (startsWith(i + 1, "![CDATA[")) {
+                int e = end(i + 9, "]]>");
+                String s = new String(cb, i + 9, e - i - 12, StandardCharsets.UTF_8);
+                if (text.isEmpty()) text = s;
+                else (buf != null ? buf : (buf = new StringBuilder(text))).append(s);
+                nChar = e;
+                continue;
+            }
+            int e = next();
+            if (e == END_TAG && depth == d) break;
+            if (e == START_TAG) {
+                if (parent != null) parent.add(toElement());
+                else skip();
+            }
+        }
+        return buf != null ? buf.toString() : text;
+    }
+
+    // Scan the tag name start at i
+    private void name(int i) throws IOException {
+        int e = i;
+        for (; e < length && !isBlank(cb[e]) && cb[e] != '>' && cb[e] != '/'; e++) ;
+        if (e >= length) throw new IOException("Unexpected end of document.");
+        nameStart = localName(i, e);
+        nameEnd = e;
+    }
+
+    // Returns the index of '>' of tag, the quoted values are skipped
+    private int tagEnd(int i) throws IOException {
+        for (byte quote = 0; i < length; i++) {
+            byte b = cb[i];
+            if (quote != 0) {
+                if (b == quote) quote = 0;
+            } else if (b == '"' || b == '\'') quote = b;
+            else if (b == '>') return i;
+        }
+        throw new IOException("Unexpected end of document.");
+    }
+
+    // Scan the next attribute from i, returns the index after the attribute or -1 if no more attributes
+    private int nextAttr(int i) {
+        for (; i < attrEnd && isBlank(cb[i]); i++) ;
+        int a = i;
+        for (; i < attrEnd && cb[i] != '=' && !isBlank(cb[i]); i++) ;
+        if (i >= attrEnd || a == i) return -1;
+        attr[0] = a;
+        attr[1] = i;
+        for (; i < attrEnd && cb[i] != '"' && cb[i] != '\''; i++) ;
+        if (i >= attrEnd) return -1;
+        byte quote = cb[i];
+        attr[2] = ++i;
+        for (; i < attrEnd && cb[i] != quote; i++) ;
+        attr[3] = i;
+        return i + 1;
+    }
+
+    // The attribute in `attr` is a namespace declaration
+    private boolean isNamespace() {
+        return startsWith(attr[0], "xmlns") && (attr[1] - attr[0] == 5 || cb[attr[0] + 5] == ':');
+    }
+
+    // Returns the index after the prefix
+    private int localName(int a, int b) {
+        for (int i = b - 1; i >= a; i--) {
+            if (cb[i] == ':') return i + 1;
+        }
+        return a;
+    }
+
+    private int indexOf(int c, int from) {
+        for (int i = from; i < length; i++) {
+            if (cb[i] == c) return i;
+        }
+        return -1;
+    }
+
+    // Returns the index after the terminal string
+    private int end(int from, String terminal) throws IOException {
+        for (int i = from, n = length - terminal.length(); i <= n; i++) {
+            if (startsWith(i, terminal)) return i + terminal.length();
+        }
+        throw new IOException("Unexpected end of document.");
+    }
+
+    // The terminal and name are all ASCII characters
+    private boolean startsWith(int i, String s) {
+        if (i + s.length() > length) return false;
+        for (int j = 0; j < s.length(); j++) {
+            if (cb[i + j] != s.charAt(j)) return false;
+        }
+        return true;
+    }
+
+    private boolean regionEquals(int a, int b, String s) {
+        return b - a == s.length() && startsWith(a, s);
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    // Decode and replace the predefined entities and character references
+    private String unescape(int a, int b) {
+        String s = new String(cb, a, b - a, StandardCharsets.UTF_8);
+        int i = s.indexOf('&');
+        if (i < 0) return s;
+        StringBuilder buf = new StringBuilder(s.length());
+        int from = 0;
+        for (; i >= 0; i = s.indexOf('&', from)) {
+            int e = s.indexOf(';', i);
+            if (e < 0) break;
+            buf.append(s, from, i);
+            String ref = s.substring(i + 1, e);
+            switch (ref) {
+                case "lt"  : buf.append('<');  break;
+                case "gt"  : buf.append('>');  break;
+                case "amp" : buf.append('&');  break;
+                case "quot": buf.append('"');  break;
+                case "apos": buf.append('\''); break;
+                default:
+                    int c = -1;
+                    try {
+                        if (ref.startsWith("#x") || ref.startsWith("#X")) c = Integer.parseInt(ref.substring(2), 16);
+                        else if (ref.startsWith("#")) c = Integer.parseInt(ref.substring(1));
+                    } catch (NumberFormatException ex) {
+                        // Keep it as it is
+                    }
+                    if (c >= 0 && Character.isValidCodePoint(c)) buf.appendCodePoint(c);
+                    else buf.append(s, i, e + 1);
+            }
+            from = e + 1;
+        }
+        buf.append(s, from, s.length());
+        return buf.toString();
+    }
+}
@@ -0,0 +1,635 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Random-access index of a zip archive.
+ * <p>
+ * The central directory is parsed only once when opening, each entry
+ * records the offset of its local header, so any part can be opened
+ * without inflating the others. All reads are positional reads on a
+ * shared {@link FileChannel}, so parts can be read by multiple threads
+ * at the same time. ZIP64 archives (over 4GB or more than 65535 entries)
+ * are supported.
+ *
+ * @author guanquan.wang at 2023-03-04 15:37
+ */
+public class ZipIndex implements Closeable {
+    /* Signatures */
+    static final int LOCSIG = 0x04034B50, CENSIG = 0x02014B50, ENDSIG = 0x06054B50
+        , ZIP64_ENDSIG = 0x06064B50, ZIP64_LOCSIG = 0x07064B50;
+    /* Fixed length of headers */
+    static final int LOCHDR = 30, CENHDR = 46, ENDHDR = 22, ZIP64_LOCHDR = 20, ZIP64_ENDHDR = 56;
+    /**
+     * Compression methods
+     */
+    public static final int STORED = 0, DEFLATED = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Map<String, Entry> entries;
+
+    private ZipIndex(Path path, FileChannel channel, Map<String, Entry> entries) {
+        this.path = path;
+        this.channel = channel;
+        this.entries = entries;
+    }
+
+    /**
+     * Open the zip file and parse the central directory
+     *
+     * @param path the zip file path
+     * @return the {@link ZipIndex}
+     * @throws IOException if I/O error occur or the file is not a zip archive
+     */
+    public static ZipIndex open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new ZipIndex(path, channel, readCentralDirectory(channel));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the archive path
+     *
+     * @return the zip file path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the entry of the specified name
+     *
+     * @param name the entry name, like {@code xl/worksheets/sheet1.xml}
+     * @return the {@link Entry} or null if not exists
+     */
+    public Entry getEntry(String name) {
+        return entries.get(name.charAt(0) != '/' ? name : name.substring(1));
+    }
+
+    /**
+     * Returns the entry of the path relative to the archive root, the
+     * path is normalized and the names are joined by {@code '/'}
+     *
+     * @param path the relative path, like {@code xl/worksheets/../workbook.xml}
+     * @return the {@link Entry} or null if not exists
+     */
+    public Entry getEntry(Path path) {
+        StringBuilder buf = new StringBuilder();
+        for (Path name : path.normalize()) {
+            if (buf.length() > 0) buf.append('/');
+            buf.append(name);
+        }
+        return buf.length() > 0 ? entries.get(buf.toString()) : null;
+    }
+
+    /**
+     * Returns all entries in the central directory order
+     *
+     * @return a unmodifiable collection of {@link Entry}
+     */
+    public Collection<Entry> entries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * Returns the number of entries
+     *
+     * @return size of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Open the inflating stream of an entry
+     *
+     * @param entry the {@link Entry}
+     * @return an {@link InputStream} of the uncompressed data
+     * @throws IOException if I/O error occur
+     */
+    public InputStream getInputStream(Entry entry) throws IOException {
+        InputStream is = new EntryInputStream(channel, dataOffset(entry), entry.compressedSize);
+        switch (entry.method) {
+            case STORED  : return is;
+            case DEFLATED: return new EntryInflaterInputStream(is, entry.size);
+            default      : throw new ZipException("Unsupported compression method " + entry.method + " of " + entry.name);
+        }
+    }
+
+    /**
+     * Open a read-only {@link SeekableByteChannel} of an entry.
+     * <p>
+     * The channel of a stored entry reads the archive directly. The channel
+     * of a deflated entry keeps the tail in memory once it is positioned near
+     * the end, so the tail scanning inflates the entry once, moving backward
+     * out of the buffered tail doubles the buffer and re-inflates.
+     *
+     * @param entry the {@link Entry}
+     * @return a {@link SeekableByteChannel} of the uncompressed data
+     * @throws IOException if I/O error occur
+     */
+    public SeekableByteChannel newChannel(Entry entry) throws IOException {
+        return entry.method == STORED ? new StoredChannel(channel, dataOffset(entry), entry.size)
+            : new InflaterChannel(this, entry);
+    }
+
+    /**
+     * Close the archive
+     *
+     * @throws IOException if I/O error occur
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return path + " (" + entries.size() + " entries)";
+    }
+
+    /*
+    Data of the entry follow the local header, whose name and extra length
+    may difference from the central directory
+     */
+    private long dataOffset(Entry entry) throws IOException {
+        if (entry.dataOffset < 0L) {
+            ByteBuffer buffer = ByteBuffer.allocate(LOCHDR).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, buffer, entry.localHeaderOffset);
+            if (buffer.getInt(0) != LOCSIG) {
+                throw new ZipException("Invalid local header of " + entry.name);
+            }
+            entry.dataOffset = entry.localHeaderOffset + LOCHDR + (buffer.getShort(26) & 0xFFFF) + (buffer.getShort(28) & 0xFFFF);
+        }
+        return entry.dataOffset;
+    }
+
+    private static Map<String, Entry> readCentralDirectory(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < ENDHDR) throw new ZipException("Not a zip file");
+        // The END header is followed by a comment of up to 64KB
+        int len = (int) Math.min(size, ENDHDR + 0xFFFF);
+        ByteBuffer buffer = ByteBuffer.allocate(len).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, buffer, size - len);
+        int i = len - ENDHDR;
+        for (; i >= 0 && buffer.getInt(i) != ENDSIG; i--) ;
+        if (i < 0) throw new ZipException("END header not found");
+
+        long endPos = size - len + i
+            , total = buffer.getShort(i + 10) & 0xFFFF
+            , cenSize = buffer.getInt(i + 12) & 0xFFFFFFFFL
+            , cenOffset = buffer.getInt(i + 16) & 0xFFFFFFFFL;
+
+        // ZIP64
+        if ((total == 0xFFFF || cenSize == 0xFFFFFFFFL || cenOffset == 0xFFFFFFFFL) && endPos >= ZIP64_LOCHDR) {
+            ByteBuffer loc = ByteBuffer.allocate(ZIP64_LOCHDR).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, loc, endPos - ZIP64_LOCHDR);
+            if (loc.getInt(0) == ZIP64_LOCSIG) {
+                ByteBuffer end64 = ByteBuffer.allocate(ZIP64_ENDHDR).order(ByteOrder.LITTLE_ENDIAN);
+                readFully(channel, end64, loc.getLong(8));
+                if (end64.getInt(0) != ZIP64_ENDSIG) throw new ZipException("Invalid ZIP64 END header");
+                total = end64.getLong(32);
+                cenSize = end64.getLong(40);
+                cenOffset = end64.getLong(48);
+            }
+        }
+        if (cenSize > Integer.MAX_VALUE || cenOffset + cenSize > endPos) {
+            throw new ZipException("Invalid central directory");
+        }
+
+        ByteBuffer cen = ByteBuffer.allocate((int) cenSize).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, cen, cenOffset);
+        Map<String, Entry> entries = new LinkedHashMap<>((int) Math.min(total, 1 << 16) * 4 / 3 + 1);
+        byte[] bytes = new byte[256];
+        for (int p = 0, limit = (int) cenSize; p + CENHDR <= limit; ) {
+            if (cen.getInt(p) != CENSIG) throw new ZipException("Invalid central directory header");
+            Entry entry = new Entry();
+            entry.method = cen.getShort(p + 10) & 0xFFFF;
+            entry.compressedSize = cen.getInt(p + 20) & 0xFFFFFFFFL;
+            entry.size = cen.getInt(p + 24) & 0xFFFFFFFFL;
+            int nameLen = cen.getShort(p + 28) & 0xFFFF, extraLen = cen.getShort(p + 30) & 0xFFFF
+                , commentLen = cen.getShort(p + 32) & 0xFFFF;
+            entry.localHeaderOffset = cen.getInt(p + 42) & 0xFFFFFFFFL;
+
+            if (nameLen > bytes.length) bytes = new byte[nameLen];
+            cen.position(p + CENHDR);
+            cen.get(bytes, 0, nameLen);
+            entry.name = new String(bytes, 0, nameLen, StandardCharsets.UTF_8);
+
+            if (entry.size == 0xFFFFFFFFL || entry.compressedSize == 0xFFFFFFFFL || entry.localHeaderOffset == 0xFFFFFFFFL) {
+                readZip64Extra(cen, p + CENHDR + nameLen, extraLen, entry);
+            }
+            p += CENHDR + nameLen + extraLen + commentLen;
+
+            if (!entry.isDirectory()) entries.put(entry.name, entry);
+        }
+        return entries;
+    }
+
+    /* The ZIP64 extended information only contains the fields which overflow, in the fixed order */
+    private static void readZip64Extra(ByteBuffer cen, int off, int len, Entry entry) throws ZipException {
+        for (int end = off + len; off + 4 <= end; ) {
+            int tag = cen.getShort(off) & 0xFFFF, size = cen.getShort(off + 2) & 0xFFFF;
+            off += 4;
+            if (tag == 0x0001) {
+                int i = off;
+                if (entry.size == 0xFFFFFFFFL) {
+                    entry.size = cen.getLong(i);
+                    i += 8;
+                }
+                if (entry.compressedSize == 0xFFFFFFFFL) {
+                    entry.compressedSize = cen.getLong(i);
+                    i += 8;
+                }
+                if (entry.localHeaderOffset == 0xFFFFFFFFL) {
+                    entry.localHeaderOffset = cen.getLong(i);
+                }
+                return;
+            }
+            off += size;
+        }
+        throw new ZipException("ZIP64 extended information not found of " + entry.name);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        for (int n; buffer.hasRemaining(); position += n) {
+            if ((n = channel.read(buffer, position)) < 0) throw new EOFException();
+        }
+        buffer.flip();
+    }
+
+    /**
+     * An entry of the central directory
+     */
+    public static class Entry {
+        String name;
+        int method;
+        long size, compressedSize, localHeaderOffset, dataOffset = -1L;
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the compression method
+         *
+         * @return {@link #STORED} or {@link #DEFLATED}
+         */
+        public int getMethod() {
+            return method;
+        }
+
+        /**
+         * Returns the uncompressed size
+         *
+         * @return size of data
+         */
+        public long getSize() {
+            return size;
+        }
+
+        public long getCompressedSize() {
+            return compressedSize;
+        }
+
+        /**
+         * Returns the offset of the local header in the archive
+         *
+         * @return the local header offset
+         */
+        public long getLocalHeaderOffset() {
+            return localHeaderOffset;
+        }
+
+        public boolean isDirectory() {
+            return name.endsWith("/");
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /* Positional reads on the shared channel */
+    static class EntryInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position, remaining;
+        private byte[] one;
+
+        EntryInputStream(FileChannel channel, long position, long length) {
+            this.channel = channel;
+            this.position = position;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (one == null) one = new byte[1];
+            return read(one, 0, 1) == 1 ? one[0] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0L) return -1;
+            if (len > remaining) len = (int) remaining;
+            int n = channel.read(ByteBuffer.wrap(b, off, len), position);
+            if (n < 0) throw new EOFException();
+            position += n;
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            n = Math.max(0L, Math.min(n, remaining));
+            position += n;
+            remaining -= n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(remaining, Integer.MAX_VALUE);
+        }
+    }
+
+    /* Raw deflate data need a dummy byte at the end */
+    static class EntryInflaterInputStream extends InflaterInputStream {
+        private final long size;
+        private boolean eof, closed;
+
+        EntryInflaterInputStream(InputStream is, long size) {
+            super(is, new Inflater(true), (int) Math.max(64, Math.min(size, 8192)));
+            this.size = size;
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            if (eof) throw new EOFException("Unexpected end of ZLIB input stream");
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            if (closed) return 0;
+            long avail = size - inf.getBytesWritten();
+            return avail > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) avail;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                inf.end();
+                super.close();
+            }
+        }
+    }
+
+    /* A view of the stored entry */
+    static class StoredChannel implements SeekableByteChannel {
+        private final FileChannel channel;
+        private final long offset, size;
+        private long position;
+        private boolean open = true;
+
+        StoredChannel(FileChannel channel, long offset, long size) {
+            this.channel = channel;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            ensureOpen(open);
+            if (!dst.hasRemaining()) return 0;
+            if (position >= size) return -1;
+            int limit = dst.limit();
+            if (dst.remaining() > size - position) dst.limit(dst.position() + (int) (size - position));
+            int n;
+            try {
+                n = channel.read(dst, offset + position);
+            } finally {
+                dst.limit(limit);
+            }
+            if (n > 0) position += n;
+            return n;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            ensureOpen(open);
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) throws IOException {
+            ensureOpen(open);
+            if (newPosition < 0L) throw new IllegalArgumentException("Negative position " + newPosition);
+            position = newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            ensureOpen(open);
+            return size;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    /*
+    Deflate streams can not be positioned, moving forward will inflate and
+    discard the skipped bytes. The tail scanning moves backward from the end,
+    so the tail is kept in a buffer which is doubled when the position moves
+    out of it, the positions far before the tail are read by re-inflating
+    from the beginning.
+     */
+    static class InflaterChannel implements SeekableByteChannel {
+        // The initial size of tail buffer
+        static final int TAIL_SIZE = 1 << 16;
+        // The tail is not buffered over this size
+        static final int MAX_TAIL_SIZE = 1 << 30;
+        private final ZipIndex zip;
+        private final Entry entry;
+        private InputStream is;
+        // The position of the channel and the stream
+        private long position, offset;
+        private byte[] buf;
+        // The buffered tail in range [tailStart, size)
+        private byte[] tail;
+        private long tailStart;
+        private boolean open = true;
+
+        InflaterChannel(ZipIndex zip, Entry entry) throws IOException {
+            this.zip = zip;
+            this.entry = entry;
+            this.is = zip.getInputStream(entry);
+            this.tailStart = entry.size;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            ensureOpen(open);
+            if (!dst.hasRemaining()) return 0;
+            int len = 0;
+            // Fill the buffer as much as possible
+            for (int n; dst.hasRemaining() && position < entry.size; len += n, position += n) {
+                if (position >= tailStart) {
+                    n = (int) Math.min(dst.remaining(), entry.size - position);
+                    dst.put(tail, (int) (position - tailStart), n);
+                } else {
+                    seek(position);
+                    n = (int) Math.min(dst.remaining(), tailStart - position);
+                    if (buf == null || buf.length < n) buf = new byte[Math.max(n, 1 << 11)];
+                    if ((n = is.read(buf, 0, n)) <= 0) break;
+                    dst.put(buf, 0, n);
+                    offset += n;
+                }
+            }
+            return len > 0 ? len : -1;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public long position() throws IOException {
+            ensureOpen(open);
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) throws IOException {
+            ensureOpen(open);
+            if (newPosition < 0L) throw new IllegalArgumentException("Negative position " + newPosition);
+            if (newPosition < tailStart) {
+                long n = tail == null ? TAIL_SIZE : (long) tail.length << 1;
+                // Near the end or the buffered tail
+                if (n <= MAX_TAIL_SIZE && newPosition >= entry.size - n) bufferTail(Math.max(0L, entry.size - n));
+            }
+            position = newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            ensureOpen(open);
+            return entry.size;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (open) {
+                open = false;
+                is.close();
+                tail = null;
+            }
+        }
+
+        // Move the stream to the position, re-inflate from the beginning if moving backward
+        private void seek(long newOffset) throws IOException {
+            if (newOffset < offset) {
+                is.close();
+                is = zip.getInputStream(entry);
+                offset = 0L;
+            }
+            for (long n; offset < newOffset && (n = is.skip(newOffset - offset)) > 0; offset += n) ;
+        }
+
+        // Extend the buffered tail to start at the position
+        private void bufferTail(long start) throws IOException {
+            int n = (int) (tailStart - start);
+            byte[] b = new byte[(int) (entry.size - start)];
+            seek(start);
+            for (int i = 0, len; i < n; i += len, offset += len) {
+                if ((len = is.read(b, i, n - i)) < 0) throw new EOFException();
+            }
+            if (tail != null) System.arraycopy(tail, 0, b, n, tail.length);
+            tail = b;
+            tailStart = start;
+        }
+    }
+
+    static void ensureOpen(boolean open) throws ClosedChannelException {
+        if (!open) throw new ClosedChannelException();
+    }
+}
@@ -19,7 +19,9 @@ package org.ttzero.excel.entity;
 import org.junit.Test;
 import org.ttzero.excel.Print;
 import org.ttzero.excel.annotation.ExcelColumn;
+import org.ttzero.excel.annotation.HeaderStyle;
 import org.ttzero.excel.annotation.IgnoreExport;
+import org.ttzero.excel.annotation.StyleDesign;
 import org.ttzero.excel.entity.e7.XMLWorksheetWriter;
 import org.ttzero.excel.entity.style.Fill;
 import org.ttzero.excel.entity.style.Font;
@@ -34,6 +36,7 @@ import org.ttzero.excel.reader.Cell;
 import org.ttzero.excel.reader.Dimension;
 import org.ttzero.excel.reader.ExcelReader;
 import org.ttzero.excel.reader.ExcelReaderTest;
+import org.ttzero.excel.util.ClassMeta;
 import org.ttzero.excel.util.StringUtil;
 
 import java.awt.Color;
@@ -1403,6 +1406,44 @@ public class ListObjectSheetTest extends WorkbookTest {
     }
 
 
+    @Test public void testCachedColumnLayout() throws IOException {
+        List<LayoutEntity> list = Collections.singletonList(new LayoutEntity());
+        ListSheet<LayoutEntity> a = new ListSheet<>(list), b = new ListSheet<>(list);
+        new Workbook("cached column layout a").addSheet(a).writeTo(defaultTestPath);
+        new Workbook("cached column layout b").addSheet(b).writeTo(defaultTestPath);
+
+        // The layout is cached by class and each sheet works on a copy
+        org.ttzero.excel.entity.Column[] layout = ClassMeta.of(LayoutEntity.class).computeIfAbsent("ListSheet:false", k -> null);
+        assert layout != null && layout.length == 2;
+        assert a.columns.length == 2 && b.columns.length == 2;
+        for (int i = 0; i < 2; i++) {
+            assert a.columns[i] != b.columns[i] && a.columns[i] != layout[i];
+            assert a.columns[i].getHeaderStyleIndex() > 0 && b.columns[i].getHeaderStyleIndex() > 0;
+            assert layout[i].getHeaderStyleIndex() <= 0;
+        }
+        assert a.columns[0].getNumFmt() != b.columns[0].getNumFmt();
+        assert a.columns[0].getNumFmt().getCode().equals(b.columns[0].getNumFmt().getCode());
+        assert a.columns[1].styleProcessor instanceof LayoutStyle && b.columns[1].styleProcessor instanceof LayoutStyle;
+        assert a.columns[1].styleProcessor != b.columns[1].styleProcessor;
+    }
+
+    public static class LayoutEntity {
+        @ExcelColumn(format = "yyyy-mm-dd")
+        @HeaderStyle(fillFgColor = "#cccccc")
+        private Date date = new Date();
+        @ExcelColumn
+        @HeaderStyle(fontColor = "red")
+        @StyleDesign(using = LayoutStyle.class)
+        private String name = "name";
+    }
+
+    public static class LayoutStyle implements StyleProcessor<Object> {
+        @Override
+        public int build(Object o, int style, Styles sst) {
+            return style;
+        }
+    }
+
     @Test public void testTileWriter() throws IOException {
         List<TileEntity> data = TileEntity.randomTestData();
         new Workbook("Dynamic title").cancelOddFill().addSheet(new ListSheet<>(data).setSheetWriter(new TileXMLWorksheetWriter(3, LocalDate.now().toString()))).writeTo(defaultTestPath);
@@ -128,6 +128,27 @@ public class StylesTest {
         }
     }
 
+    @Test public void testFormatKind() throws IOException {
+        assert Styles.formatKind("yyyy/mm/dd") == Styles.FMT_DATE;
+        assert Styles.formatKind("yyyy/mm/dd\\ hh:mm:ss") == Styles.FMT_DATETIME;
+        assert Styles.formatKind("h\"时\"mm\"分\"ss\"秒\";@") == Styles.FMT_TIME;
+        assert Styles.formatKind("[h]:mm:ss") == Styles.FMT_TIME;
+        assert Styles.formatKind("[$-F800]dddd\\,\\ mmmm\\ dd\\,\\ yyyy") == Styles.FMT_DATE;
+        assert Styles.formatKind("0.00%") == Styles.FMT_PERCENT;
+        assert Styles.formatKind("#,##0.00") == Styles.FMT_PLAIN;
+
+        Path storagePath = getOutputTestPath().resolve("styles.xml");
+        styles.writeTo(storagePath);
+
+        Styles styles = Styles.load(storagePath);
+        for (int i = 0, size = styles.size(); i < size; i++) {
+            int kind = styles.getFormatKind(i);
+            assert styles.fastTestDateFmt(i) == (kind == Styles.FMT_DATE || kind == Styles.FMT_DATETIME || kind == Styles.FMT_TIME);
+        }
+        assert styles.getFormatKind(-1) == Styles.FMT_PLAIN;
+        assert styles.getFormatKind(styles.size()) == Styles.FMT_PLAIN;
+    }
+
     @Test public void testClear() {
         int style = (7 << INDEX_NUMBER_FORMAT) | (6 << INDEX_FONT)
                 | (5 << INDEX_FILL) | (4 << INDEX_BORDER)
@@ -18,7 +18,11 @@ package org.ttzero.excel.reader;
 
 import org.junit.Test;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
 
 import static org.ttzero.excel.Print.println;
 
@@ -121,4 +125,43 @@ public class CacheTest {
 
         cache.forEach(e -> println(e.getKey() + ": " + e.getValue()));
     }
+
+    @Test public void testIntLFUPutAndRemove() {
+        IntLFUCache<String> cache = IntLFUCache.create(1 << 10);
+        Map<Integer, String> expect = new HashMap<>();
+        Random random = new Random();
+        for (int i = 0; i < 100000; i++) {
+            int k = random.nextInt(1 << 9);
+            if (random.nextInt(4) == 0) {
+                assert Objects.equals(expect.remove(k), cache.remove(k));
+            } else {
+                String v = String.valueOf(i);
+                cache.put(k, v);
+                expect.put(k, v);
+            }
+            assert cache.size() == expect.size();
+        }
+        for (Map.Entry<Integer, String> e : expect.entrySet()) {
+            assert e.getValue().equals(cache.get(e.getKey()));
+        }
+        cache.clear();
+        assert cache.size() == 0 && cache.get(1) == null;
+    }
+
+    @Test public void testIntLFUScanResistant() {
+        IntLFUCache<String> cache = IntLFUCache.create(64);
+        // The hot keys are reused after 96 distinct keys, they will be all evicted by LRU
+        for (int k = 0; k < 100000; k++) {
+            int hot = k % 48, cold = 1000 + k;
+            if (cache.get(hot) == null) cache.put(hot, "hot" + hot);
+            if (cache.get(cold) == null) cache.put(cold, "cold" + cold);
+        }
+        assert cache.size() == 64;
+        int n = 0;
+        for (int k = 0; k < 48; k++) {
+            if (("hot" + k).equals(cache.get(k))) n++;
+        }
+        assert n >= 40 : n;
+        assert cache.getRejections() > 0;
+    }
 }
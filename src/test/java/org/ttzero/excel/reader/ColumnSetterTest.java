@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import org.junit.Test;
+import org.ttzero.excel.annotation.ExcelColumn;
+import org.ttzero.excel.annotation.IgnoreExport;
+import org.ttzero.excel.annotation.RowNum;
+import org.ttzero.excel.entity.ListSheet;
+import org.ttzero.excel.entity.Workbook;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.ttzero.excel.entity.WorkbookTest.getOutputTestPath;
+
+/**
+ * @author guanquan.wang at 2023-03-15 10:20
+ */
+public class ColumnSetterTest {
+
+    @Test public void testCompiledSetters() throws IOException {
+        List<Bean> expect = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Bean e = new Bean();
+            e.id = i;
+            e.amount = i * 10000000000L;
+            e.price = i + 0.25D;
+            e.name = "name" + i;
+            e.flag = (i & 1) == 0;
+            e.rate = i / 2.0F;
+            e.level = (short) (i % 7);
+            e.decimal = new BigDecimal(i + ".5");
+            e.total = (long) i;
+            expect.add(e);
+        }
+        new Workbook("compiled setters").addSheet(new ListSheet<>(expect)).writeTo(getOutputTestPath());
+
+        try (ExcelReader reader = ExcelReader.read(getOutputTestPath().resolve("compiled setters.xlsx"))) {
+            Sheet sheet = reader.sheet(0).header(1).bind(Bean.class);
+            List<Bean> list = sheet.dataRows().map(row -> (Bean) row.get()).map(Bean::copy).collect(Collectors.toList());
+            HeaderRow header = (HeaderRow) sheet.getHeader();
+            assert header.setters != null;
+            for (ColumnSetter setter : header.setters) assert setter != null;
+
+            assert list.size() == expect.size();
+            for (int i = 0; i < list.size(); i++) {
+                assert expect.get(i).equals(list.get(i));
+                assert list.get(i).row == i + 2;
+            }
+        }
+    }
+
+    @Test public void testOverriddenPut() {
+        HeaderRow header = new HeaderRow() {
+            @Override
+            protected void fieldPut(int i, Row row, Object t) { }
+        };
+        Row row = new Row() { };
+        row.lc = 1;
+        row.cells = new Cell[] { new Cell().setSv("id") };
+        header.with(row).setClass(Bean.class);
+        assert header.setters == null;
+    }
+
+    @Test public void testSetterThrows() throws IOException {
+        List<ThrowBean> expect = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ThrowBean e = new ThrowBean();
+            e.id = i;
+            e.name = "name" + i;
+            expect.add(e);
+        }
+        new Workbook("setter throws").addSheet(new ListSheet<>(expect)).writeTo(getOutputTestPath());
+
+        try (ExcelReader reader = ExcelReader.read(getOutputTestPath().resolve("setter throws.xlsx"))) {
+            Sheet sheet = reader.sheet(0).header(1);
+            List<Throwable> causes = sheet.dataRows().map(row -> {
+                try {
+                    row.to(ThrowBean.class);
+                    return null;
+                } catch (UncheckedTypeException e) {
+                    assert e.getMessage().endsWith("new instance error.");
+                    return e.getCause();
+                }
+            }).collect(Collectors.toList());
+            HeaderRow header = (HeaderRow) sheet.getHeader();
+            assert header.setters != null;
+
+            assert causes.size() == expect.size();
+            for (Throwable e : causes) {
+                assert e instanceof InvocationTargetException;
+                Throwable target = ((InvocationTargetException) e).getTargetException();
+                // The message of setter is not overwritten
+                assert target instanceof IllegalArgumentException && "bad id".equals(target.getMessage());
+            }
+        }
+    }
+
+    public static class ThrowBean {
+        @ExcelColumn
+        private int id;
+        @ExcelColumn
+        private String name;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            throw new IllegalArgumentException("bad id");
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Bean {
+        @ExcelColumn
+        private int id;
+        @ExcelColumn
+        private long amount;
+        @ExcelColumn
+        private double price;
+        @ExcelColumn
+        private String name;
+        @ExcelColumn
+        private boolean flag;
+        @ExcelColumn
+        private float rate;
+        @ExcelColumn
+        private short level;
+        @ExcelColumn
+        private BigDecimal decimal;
+        @ExcelColumn
+        private Long total;
+        @IgnoreExport
+        @RowNum
+        private int row;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public long getAmount() {
+            return amount;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isFlag() {
+            return flag;
+        }
+
+        public void setFlag(boolean flag) {
+            this.flag = flag;
+        }
+
+        public float getRate() {
+            return rate;
+        }
+
+        public short getLevel() {
+            return level;
+        }
+
+        public BigDecimal getDecimal() {
+            return decimal;
+        }
+
+        public void setDecimal(BigDecimal decimal) {
+            this.decimal = decimal;
+        }
+
+        public Long getTotal() {
+            return total;
+        }
+
+        Bean copy() {
+            Bean o = new Bean();
+            o.id = id;
+            o.amount = amount;
+            o.price = price;
+            o.name = name;
+            o.flag = flag;
+            o.rate = rate;
+            o.level = level;
+            o.decimal = decimal;
+            o.total = total;
+            o.row = row;
+            return o;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Bean)) return false;
+            Bean b = (Bean) o;
+            return id == b.id && amount == b.amount && price == b.price && flag == b.flag && rate == b.rate
+                && level == b.level && Objects.equals(name, b.name) && Objects.equals(decimal, b.decimal)
+                && Objects.equals(total, b.total);
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+    }
+}
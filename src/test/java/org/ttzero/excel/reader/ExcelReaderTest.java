@@ -16,6 +16,8 @@
 
 package org.ttzero.excel.reader;
 
+import org.dom4j.DocumentHelper;
+import org.dom4j.Element;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.ttzero.excel.Print;
@@ -23,33 +25,50 @@ import org.ttzero.excel.annotation.ExcelColumn;
 import org.ttzero.excel.annotation.IgnoreExport;
 import org.ttzero.excel.annotation.IgnoreImport;
 import org.ttzero.excel.annotation.RowNum;
+import org.ttzero.excel.entity.EmptySheet;
 import org.ttzero.excel.entity.ListObjectSheetTest;
+import org.ttzero.excel.entity.ListSheet;
+import org.ttzero.excel.entity.Workbook;
 import org.ttzero.excel.entity.WorkbookTest;
+import org.ttzero.excel.entity.style.Styles;
 import org.ttzero.excel.util.DateUtil;
 import org.ttzero.excel.util.FileUtil;
 import org.ttzero.excel.util.StringUtil;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import static org.ttzero.excel.Print.println;
 import static org.ttzero.excel.Print.print;
 import static org.ttzero.excel.entity.Sheet.int2Col;
 import static org.ttzero.excel.entity.WorkbookTest.getOutputTestPath;
 import static org.ttzero.excel.reader.ExcelReader.COPY_ON_MERGED;
+import static org.ttzero.excel.reader.ExcelReader.READ_FROM_STREAM;
+import static org.ttzero.excel.reader.ExcelReader.READ_FROM_ZIP;
 import static org.ttzero.excel.reader.ExcelReader.VALUE_AND_CALC;
 import static org.ttzero.excel.reader.ExcelReader.VALUE_ONLY;
 import static org.ttzero.excel.reader.ExcelReader.cellRangeToLong;
@@ -69,6 +88,18 @@ public class ExcelReaderTest {
             : Paths.get(url.getFile());
     }
 
+    @FunctionalInterface
+    interface ResourceTest {
+        void accept(Path path) throws IOException;
+    }
+
+    // Run the test on each xlsx file in test resources
+    static void forEachResource(ResourceTest test) throws IOException {
+        File[] files = testResourceRoot().toFile().listFiles((dir, name) -> name.endsWith(".xlsx"));
+        assert files != null && files.length > 0;
+        for (File file : files) test.accept(file.toPath());
+    }
+
     @Test public void testReader() throws IOException {
         File[] files = testResourceRoot().toFile().listFiles((dir, name) -> name.endsWith(".xlsx"));
         if (files != null) {
@@ -96,6 +127,818 @@ public class ExcelReaderTest {
         }
     }
 
+    @Test public void testReadFromZip() throws IOException {
+        forEachResource(path -> {
+            List<String> expect, rows;
+            try (ExcelReader reader = ExcelReader.read(path, COPY_ON_MERGED)) {
+                expect = reader.sheets().flatMap(Sheet::rows).map(Row::toString).collect(Collectors.toList());
+            }
+            try (ExcelReader reader = ExcelReader.read(path, COPY_ON_MERGED | READ_FROM_ZIP)) {
+                rows = reader.sheets().flatMap(Sheet::rows).map(Row::toString).collect(Collectors.toList());
+            }
+            assert expect.equals(rows) : path.getFileName();
+        });
+    }
+
+    @Test public void testReadFromStream() throws IOException {
+        forEachResource(path -> {
+            List<String> expect;
+            try (ExcelReader reader = ExcelReader.read(path)) {
+                expect = reader.sheets().flatMap(Sheet::rows).map(Row::toString).collect(Collectors.toList());
+            }
+            // A small buffer size makes the large shared strings be stored in SharedStringTable
+            for (int bufferSize : new int[] { 0, 64 }) {
+                List<String> rows;
+                try (InputStream is = Files.newInputStream(path);
+                     ExcelReader reader = ExcelReader.read(is, bufferSize, READ_FROM_STREAM)) {
+                    assert reader instanceof ExcelStreamReader;
+                    rows = reader.sheets().flatMap(Sheet::rows).map(Row::toString).collect(Collectors.toList());
+                }
+                assert expect.equals(rows) : path.getFileName();
+            }
+        });
+    }
+
+    @Test public void testReadAhead() throws IOException {
+        forEachResource(path -> {
+            for (int option : new int[] { VALUE_ONLY, COPY_ON_MERGED, READ_FROM_ZIP }) {
+                List<List<String>> expect, rows;
+                try (ExcelReader reader = ExcelReader.read(path, option)) {
+                    expect = readAndReset(reader);
+                }
+                try (ExcelReader reader = ExcelReader.read(path, option | ExcelReader.READ_AHEAD)) {
+                    rows = readAndReset(reader);
+                }
+                assert expect.equals(rows) : path.getFileName();
+            }
+        });
+
+        new Workbook("read ahead").addSheet(new ListSheet<>(ListObjectSheetTest.Item.randomTestData(20000)))
+            .writeTo(getOutputTestPath());
+        try (ExcelReader reader = ExcelReader.read(getOutputTestPath().resolve("read ahead.xlsx"));
+             ExcelReader aheadReader = ExcelReader.read(getOutputTestPath().resolve("read ahead.xlsx"), ExcelReader.READ_AHEAD)) {
+            List<String> expect = reader.sheet(0).rows().map(Row::toString).collect(Collectors.toList());
+            Sheet sheet = aheadReader.sheet(0);
+            // Stop in the middle and reset
+            assert sheet.rows().limit(100).count() == 100L;
+            assert expect.equals(sheet.reset().rows().map(Row::toString).collect(Collectors.toList()));
+            // Seek backward
+            assert expect.subList(99, 200).equals(sheet.reset().rows(100, 200).map(Row::toString).collect(Collectors.toList()));
+            assert expect.subList(9, 20).equals(sheet.rows(10, 20).map(Row::toString).collect(Collectors.toList()));
+        }
+    }
+
+    // Read all sheets, and read again after reset
+    private static List<List<String>> readAndReset(ExcelReader reader) throws IOException {
+        List<List<String>> list = new ArrayList<>();
+        for (Sheet sheet : reader.all()) {
+            sheet.load();
+            List<String> rows = sheet.rows().map(Row::toString).collect(Collectors.toList());
+            list.add(rows);
+            list.add(sheet.reset().rows().map(Row::toString).collect(Collectors.toList()));
+        }
+        return list;
+    }
+
+    @Test public void testReadAheadInputStream() throws IOException {
+        byte[] bytes = new byte[1000];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = (byte) i;
+        try (InputStream is = new ReadAheadInputStream(new ByteArrayInputStream(bytes), 7, 2)) {
+            for (int i = 0; i < 10; i++) assert is.read() == (i & 0xFF);
+            assert is.skip(90) == 90L;
+            byte[] buf = new byte[1000];
+            int n = XMLSheet.read(is, buf, 0, buf.length);
+            assert n == 900;
+            for (int i = 0; i < n; i++) assert buf[i] == (byte) (i + 100);
+            assert is.read() == -1 && is.read(buf, 0, 1) == -1 && is.skip(1) == 0L;
+        }
+        // Close before the end
+        InputStream is = new ReadAheadInputStream(new ByteArrayInputStream(bytes), 7, 2);
+        assert is.read() == 0;
+        is.close();
+        try {
+            is.read();
+            assert false;
+        } catch (IOException e) {
+            // Closed
+        }
+    }
+
+    @Test public void testParseCalcChain() throws IOException {
+        Path root = getOutputTestPath().resolve("calc chain");
+        Files.createDirectories(root.resolve("xl"));
+        StringBuilder buf = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+            + "<calcChain xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">");
+        // The sheet index is inherited from the previous cell
+        buf.append("<c r=\"B2\" i=\"1\"/><c r=\"A1\"/><c r=\"AA10\" l=\"1\"/><c\nr='C3'\ti='3' s=\"1\"/>");
+        // Prefix and the large sheet index
+        buf.append("<x:c r=\"D4\" i=\"30\"/><calcPr r=\"Z9\"/>");
+        int size = 5000;
+        for (int i = 1; i <= size; i++) buf.append("<c r=\"E").append(i).append("\" i=\"2\"/>");
+        buf.append("</calcChain>");
+        Files.write(root.resolve("xl/calcChain.xml"), buf.toString().getBytes(StandardCharsets.UTF_8));
+
+        long[][] array = ExcelReader.parseCalcChain(root);
+        assert array != null && array.length >= 30;
+        assert Arrays.equals(array[0], new long[] { cellRangeToLong("A1"), cellRangeToLong("B2"), cellRangeToLong("AA10") });
+        assert array[1].length == size;
+        for (int i = 1; i <= size; i++) assert array[1][i - 1] == cellRangeToLong("E" + i);
+        assert Arrays.equals(array[2], new long[] { cellRangeToLong("C3") });
+        assert Arrays.equals(array[29], new long[] { cellRangeToLong("D4") });
+        for (int i = 3; i < array.length; i++) assert i == 29 || array[i] == null;
+
+        // Not exists
+        assert ExcelReader.parseCalcChain(getOutputTestPath().resolve("not exists")) == null;
+    }
+
+    @Test public void testStreamSheetForwardOnly() throws IOException {
+        String expectHeader;
+        long expectCount;
+        try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve("1.xlsx"))) {
+            Sheet sheet = reader.sheet(0);
+            expectHeader = sheet.getHeader().toString();
+            expectCount = sheet.dataRows().count();
+        }
+        // The metadata are stored before worksheet
+        try (InputStream is = Files.newInputStream(testResourceRoot().resolve("1.xlsx"));
+             ExcelReader reader = ExcelReader.read(is, READ_FROM_STREAM)) {
+            Sheet sheet = reader.sheet(0);
+            assert expectHeader.equals(sheet.getHeader().toString());
+            assert sheet.dataRows().count() == expectCount;
+            try {
+                sheet.reset();
+                assert false;
+            } catch (UnsupportedOperationException e) {
+                // Stream can not be reset
+            }
+            assert reader.getAppInfo() != null;
+        }
+    }
+
+    @Test public void testAppInfoAfterClose() throws IOException {
+        Path path = testResourceRoot().resolve("1.xlsx");
+        AppInfo expect;
+        ExcelReader reader = ExcelReader.read(path);
+        expect = reader.getAppInfo();
+        reader.close();
+        // The parsed information is cached
+        assert reader.getAppInfo() == expect;
+
+        reader = ExcelReader.read(path);
+        reader.close();
+        try {
+            reader.getAppInfo();
+            assert false;
+        } catch (IllegalStateException e) {
+            // Closed before parsing
+        }
+
+        try (InputStream is = Files.newInputStream(path)) {
+            reader = ExcelReader.read(is, READ_FROM_STREAM);
+            reader.close();
+        }
+        try {
+            reader.getAppInfo();
+            assert false;
+        } catch (IllegalStateException e) {
+            // Closed before parsing
+        }
+    }
+
+    @Test public void testParallelRows() throws IOException {
+        new Workbook("parallel rows").addSheet(new ListSheet<>(ListObjectSheetTest.Item.randomTestData(50000)))
+            .writeTo(getOutputTestPath());
+        try (ExcelReader reader = ExcelReader.read(getOutputTestPath().resolve("parallel rows.xlsx"))) {
+            Sheet sheet = reader.sheet(0);
+            List<String> expect = sheet.rows().map(Row::toString).collect(Collectors.toList());
+            List<String> expectData = sheet.reset().dataRows().map(Row::toString).collect(Collectors.toList());
+
+            // The worksheet is large enough to be split
+            Spliterator<Row> spliterator = new RowSpliterator((XMLSheet) sheet.reset(), sheet.iterator(), false);
+            assert spliterator.trySplit() != null;
+
+            assert expect.equals(sheet.reset().parallelRows(true).map(Row::toString).collect(Collectors.toList()));
+            assert expectData.equals(sheet.reset().parallelDataRows(true).map(Row::toString).collect(Collectors.toList()));
+
+            List<String> rows = sheet.reset().parallelRows(false).map(Row::toString).sorted().collect(Collectors.toList());
+            assert expect.stream().sorted().collect(Collectors.toList()).equals(rows);
+
+            // Read some rows before split
+            Iterator<Row> iterator = sheet.reset().iterator();
+            iterator.next();
+            assert expect.subList(1, expect.size()).equals(StreamSupport.stream(new RowSpliterator((XMLSheet) sheet, iterator, false), true)
+                .map(Row::toString).collect(Collectors.toList()));
+        }
+    }
+
+    @Test public void testParallelRowsForEachOrdered() throws IOException {
+        new Workbook("parallel rows ordered").addSheet(new ListSheet<>(ListObjectSheetTest.Item.randomTestData(60000)))
+            .writeTo(getOutputTestPath());
+        try (ExcelReader reader = ExcelReader.read(getOutputTestPath().resolve("parallel rows ordered.xlsx"))) {
+            Sheet sheet = reader.sheet(0);
+            List<String> expect = sheet.rows().map(Row::toString).collect(Collectors.toList());
+
+            List<Integer> rowNums = new ArrayList<>();
+            List<String> rows = new ArrayList<>();
+            sheet.reset().parallelRows(true).forEachOrdered(row -> {
+                rowNums.add(row.getRowNum());
+                rows.add(row.toString());
+            });
+            assert rowNums.size() == expect.size();
+            for (int i = 0; i < rowNums.size(); i++) assert rowNums.get(i) == i + 1;
+            assert expect.equals(rows);
+
+            // The rows are buffered before limit
+            List<Row> limit = sheet.reset().parallelRows(true).limit(40000).collect(Collectors.toList());
+            assert limit.size() == 40000;
+            for (int i = 0; i < limit.size(); i++) assert limit.get(i).getRowNum() == i + 1;
+            assert expect.subList(0, 40000).equals(limit.stream().map(Row::toString).collect(Collectors.toList()));
+
+            rowNums.clear();
+            sheet.reset().parallelDataRows(true).forEachOrdered(row -> rowNums.add(row.getRowNum()));
+            assert rowNums.size() == expect.size() - 1;
+            for (int i = 0; i < rowNums.size(); i++) assert rowNums.get(i) == i + 2;
+        }
+    }
+
+    @Test public void testParallelRowsWithoutRowNum() throws IOException {
+        // Only every 100th row carries the r attribute
+        StringBuilder buf = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+            + "<dimension ref=\"A1:A30000\"/><sheetData>");
+        int n = 30000;
+        for (int i = 1; i <= n; i++) {
+            buf.append(i % 100 == 1 ? "<row r=\"" + i + "\">" : "<row>").append("<c r=\"A").append(i)
+                .append("\"><v>").append(i).append("</v></c></row>");
+        }
+        buf.append("</sheetData></worksheet>");
+        Path path = getOutputTestPath().resolve("rows without r.xml");
+        Files.write(path, buf.toString().getBytes(StandardCharsets.UTF_8));
+
+        XMLSheet sheet = new XMLSheet();
+        sheet.setName("rows without r");
+        sheet.setPath(path);
+        sheet.setStyles(Styles.forReader());
+        try {
+            sheet.load();
+            assert new RowSpliterator(sheet, sheet.iterator(), false).trySplit() != null;
+
+            assert sheet.reset().parallelRows(true).filter(r -> r.getRowNum() != r.getInt(0)).count() == 0L;
+            assert sheet.reset().parallelRows(true).count() == n;
+        } finally {
+            sheet.close();
+        }
+    }
+
+    @Test public void testRowsInRange() throws IOException {
+        new Workbook("rows in range").addSheet(new ListSheet<>(ListObjectSheetTest.Item.randomTestData(20000)))
+            .writeTo(getOutputTestPath());
+        try (ExcelReader reader = ExcelReader.read(getOutputTestPath().resolve("rows in range.xlsx"))) {
+            Sheet sheet = reader.sheet(0).indexRows(1000);
+            List<String> expect = sheet.rows().map(Row::toString).collect(Collectors.toList());
+
+            assert expect.subList(15000, 15011).equals(sheet.reset().rows(15001, 15011).map(Row::toString).collect(Collectors.toList()));
+            // The cursor stays at the next row of range
+            assert expect.get(15011).equals(sheet.iterator().next().toString());
+            // Move back by the row index
+            assert expect.subList(99, 120).equals(sheet.rows(100, 120).map(Row::toString).collect(Collectors.toList()));
+            assert expect.subList(19990, expect.size()).equals(sheet.rows(19991, 30000).map(Row::toString).collect(Collectors.toList()));
+            assert expect.get(0).equals(sheet.seek(1).iterator().next().toString());
+            assert !sheet.rows(30000, 40000).findAny().isPresent();
+        }
+
+        forEachResource(path -> {
+            try (ExcelReader reader = ExcelReader.read(path)) {
+                reader.sheets().forEach(sheet -> {
+                    List<String> expect = sheet.rows().filter(row -> row.getRowNum() >= 3 && row.getRowNum() <= 10)
+                        .map(Row::toString).collect(Collectors.toList());
+                    assert expect.equals(sheet.rows(3, 10).map(Row::toString).collect(Collectors.toList())) : path.getFileName();
+
+                    // The merged cells are not skipped
+                    if (sheet.getDimension().lastRow < 3) return;
+                    Sheet merge = sheet.asMergeSheet();
+                    expect = merge.reset().rows().filter(row -> row.getRowNum() >= 3 && row.getRowNum() <= 10)
+                        .map(Row::toString).collect(Collectors.toList());
+                    assert expect.equals(merge.rows(3, 10).map(Row::toString).collect(Collectors.toList())) : path.getFileName();
+                });
+            }
+        });
+    }
+
+    @Test public void testFormulaRowsInRange() throws IOException {
+        List<List<String>> expect;
+        try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve("formula.xlsx"))) {
+            expect = reader.parseFormula().sheets().map(sheet -> sheet.rows().filter(row -> row.getRowNum() >= 4 && row.getRowNum() <= 10)
+                .map(ExcelReaderTest::formulas).collect(Collectors.toList())).collect(Collectors.toList());
+        }
+        try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve("formula.xlsx"))) {
+            reader.parseFormula().sheets().filter(sheet -> !expect.get(sheet.getIndex()).isEmpty()).forEach(sheet -> {
+                // Start after the master of shared formula
+                assert expect.get(sheet.getIndex()).equals(sheet.indexRows(1).rows(4, 10)
+                    .map(ExcelReaderTest::formulas).collect(Collectors.toList())) : sheet.getName();
+                // Move back by the row index
+                assert expect.get(sheet.getIndex()).equals(sheet.rows(4, 10)
+                    .map(ExcelReaderTest::formulas).collect(Collectors.toList())) : sheet.getName();
+            });
+        }
+    }
+
+    static String formulas(Row row) {
+        StringBuilder buf = new StringBuilder().append(row.getRowNum());
+        for (int i = row.getFirstColumnIndex(); i < row.getLastColumnIndex(); i++) {
+            String formula = row.getFormula(i);
+            if (formula != null) buf.append(' ').append(int2Col(i + 1)).append('=').append(formula);
+        }
+        return buf.toString();
+    }
+
+    @Test public void testReadBatches() throws IOException {
+        List<ListObjectSheetTest.Item> expect = ListObjectSheetTest.Item.randomTestData(3000);
+        new Workbook("read batches").addSheet(new ListSheet<>(expect)).writeTo(getOutputTestPath());
+        try (ExcelReader reader = ExcelReader.read(getOutputTestPath().resolve("read batches.xlsx"))) {
+            Iterator<ColumnBatch> iterator = reader.sheet(0).readBatches(256, new Schema()
+                .add(0, Schema.Type.INT).add(1, Schema.Type.STRING).add(5, Schema.Type.DOUBLE));
+            int n = 0;
+            for (; iterator.hasNext(); ) {
+                ColumnBatch batch = iterator.next();
+                assert batch.size() <= 256;
+                int[] ids = batch.getInts(0);
+                for (int i = 0; i < batch.size(); i++, n++) {
+                    ListObjectSheetTest.Item item = expect.get(n);
+                    assert batch.getRowNum(i) == n + 2;
+                    assert !batch.isNull(0, i) && ids[i] == item.getId();
+                    assert item.getName().equals(batch.getString(1, i));
+                    assert batch.isNull(2, i);
+                }
+            }
+            assert n == expect.size();
+        }
+    }
+
+    @Test public void testReadBatchesAsString() throws IOException {
+        for (String name : new String[] { "Number2Excel.xlsx", "formula.xlsx", "1.xlsx" }) {
+            try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve(name))) {
+                for (Sheet sheet : reader.all()) {
+                    Schema schema = new Schema();
+                    for (int i = 0; i < 6; i++) schema.add(i, Schema.Type.STRING);
+                    // The numbers and booleans are converted as Row#getString
+                    Map<Integer, String[]> expect = new LinkedHashMap<>();
+                    sheet.load().dataRows().forEach(row -> {
+                        String[] values = new String[6];
+                        for (int i = 0; i < values.length; i++) values[i] = row.getString(i);
+                        expect.put(row.getRowNum(), values);
+                    });
+                    int n = 0;
+                    for (Iterator<ColumnBatch> iter = sheet.reset().readBatches(16, schema); iter.hasNext(); ) {
+                        ColumnBatch batch = iter.next();
+                        for (int i = 0; i < batch.size(); i++, n++) {
+                            String[] values = expect.get(batch.getRowNum(i));
+                            assert values != null : name;
+                            for (int j = 0; j < values.length; j++) {
+                                assert Objects.equals(values[j], batch.getString(j, i)) : name + " " + int2Col(j + 1) + batch.getRowNum(i);
+                            }
+                        }
+                    }
+                    assert n == expect.values().stream().filter(values -> Arrays.stream(values).anyMatch(Objects::nonNull)).count() : name;
+                }
+            }
+        }
+    }
+
+    @Test public void testRowBatches() throws IOException {
+        forEachResource(path -> {
+            for (int option : new int[] { VALUE_ONLY, VALUE_AND_CALC, COPY_ON_MERGED }) {
+                List<String> expect, rows = new ArrayList<>();
+                try (ExcelReader reader = ExcelReader.read(path, option)) {
+                    expect = reader.sheets().flatMap(Sheet::dataRows).map(Row::toString).collect(Collectors.toList());
+                }
+                try (ExcelReader reader = ExcelReader.read(path, option)) {
+                    for (Sheet sheet : reader.all()) {
+                        for (Iterator<RowBatch> iter = sheet.load().rowBatches(7); iter.hasNext(); ) {
+                            RowBatch batch = iter.next();
+                            assert batch.size() > 0 && batch.size() <= 7;
+                            // The rows of a batch are independent
+                            List<Row> list = new ArrayList<>(batch.size());
+                            for (; batch.hasNext(); ) list.add(batch.next());
+                            for (Row row : list) rows.add(row.toString());
+                        }
+                    }
+                }
+                assert expect.equals(rows) : path.getFileName();
+            }
+        });
+    }
+
+    @Test public void testSharedFormulaRowBatches() throws IOException {
+        Path path = testResourceRoot().resolve("formula.xlsx");
+        List<List<String>> expect;
+        try (ExcelReader reader = ExcelReader.read(path, VALUE_AND_CALC)) {
+            expect = reader.sheets().map(sheet -> sheet.dataRows().map(ExcelReaderTest::formulas)
+                .collect(Collectors.toList())).collect(Collectors.toList());
+        }
+        assert expect.stream().flatMap(List::stream).anyMatch(s -> s.contains("=(A4+A5)+1"));
+        // The masters and children of shared formulas are parsed by different slots
+        for (int batchSize : new int[] { 1, 3, 7 }) {
+            try (ExcelReader reader = ExcelReader.read(path, VALUE_AND_CALC)) {
+                for (Sheet sheet : reader.all()) {
+                    List<String> rows = new ArrayList<>();
+                    for (Iterator<RowBatch> iter = sheet.load().rowBatches(batchSize); iter.hasNext(); ) {
+                        RowBatch batch = iter.next();
+                        List<Row> list = new ArrayList<>(batch.size());
+                        for (; batch.hasNext(); ) list.add(batch.next());
+                        for (Row row : list) rows.add(formulas(row));
+                    }
+                    assert expect.get(sheet.getIndex()).equals(rows) : batchSize + " " + sheet.getName();
+                }
+            }
+        }
+    }
+
+    @Test public void testRowSnapshot() throws IOException {
+        forEachResource(path -> {
+            List<String> expect = new ArrayList<>();
+            List<RowSnapshot> snapshots = new ArrayList<>();
+            try (ExcelReader reader = ExcelReader.read(path, COPY_ON_MERGED)) {
+                reader.sheets().flatMap(Sheet::rows).forEach(row -> {
+                    RowSnapshot snapshot = row.snapshot();
+                    assert snapshot.getRowNum() == row.getRowNum();
+                    for (int i = 0; i < row.getLastColumnIndex(); i++) {
+                        // Check the type before Row#getString changes it to inline string
+                        assert (row.getCell(i).t == Cell.SST) == (snapshot.getSstIndex(i) >= 0) : path.getFileName();
+                        assert Objects.equals(row.getString(i), snapshot.getString(i)) : path.getFileName();
+                        assert row.getCellType(i) == snapshot.getCellType(i) : path.getFileName();
+                        assert row.getCellStyle(i) == snapshot.getCellStyle(i) : path.getFileName();
+                    }
+                    expect.add(row.toString());
+                    snapshots.add(snapshot);
+                });
+                // Read the snapshots after the iterator moves
+                assert expect.equals(snapshots.stream().map(RowSnapshot::toString).collect(Collectors.toList())) : path.getFileName();
+            }
+        });
+
+        List<ListObjectSheetTest.Item> items = ListObjectSheetTest.Item.randomTestData(100);
+        new Workbook("row snapshot").addSheet(new ListSheet<>(items)).writeTo(getOutputTestPath());
+        try (ExcelReader reader = ExcelReader.read(getOutputTestPath().resolve("row snapshot.xlsx"))) {
+            List<RowSnapshot> snapshots = reader.sheet(0).dataRows().map(Row::snapshot).collect(Collectors.toList());
+            assert snapshots.size() == items.size();
+            for (int i = 0; i < items.size(); i++) {
+                RowSnapshot snapshot = snapshots.get(i);
+                ListObjectSheetTest.Item item = items.get(i);
+                assert snapshot.getInt(0) == item.getId();
+                assert item.getName().equals(snapshot.getString(1));
+                assert snapshot.getSstIndex(0) == -1;
+                assert item.getName().equals(snapshot.toRow().getString(1));
+            }
+        }
+    }
+
+    @Test public void testColumnStats() throws IOException {
+        int[] n = { 0 };
+        List<ListObjectSheetTest.Item> items = ListObjectSheetTest.Item.randomTestData(5000, () -> {
+            int i = n[0]++;
+            return new ListObjectSheetTest.Item(i % 1000, i % 7 == 0 ? null : "name" + (i % 2000));
+        });
+        new Workbook("column stats").addSheet(new ListSheet<>(items)).writeTo(getOutputTestPath());
+        try (ExcelReader reader = ExcelReader.read(getOutputTestPath().resolve("column stats.xlsx"))) {
+            List<ColumnStats> stats = reader.sheet(0).columnStats();
+            assert stats.size() == 2;
+            ColumnStats id = stats.get(0), name = stats.get(1);
+            assert "id".equals(id.getName()) && id.getType() == CellType.INTEGER;
+            assert id.getCount() == items.size() && id.getNullCount() == 0;
+            assert id.getMin() == 0.0D && id.getMax() == 999.0D;
+            assert id.getSum() == items.stream().mapToInt(ListObjectSheetTest.Item::getId).sum();
+            assert Math.abs(id.getDistinct() - 1000) <= 50;
+
+            long nulls = items.stream().filter(e -> e.getName() == null).count();
+            assert "name".equals(name.getName()) && name.getType() == CellType.STRING;
+            assert name.getCount() == items.size() - nulls && name.getNullCount() == nulls;
+            assert name.getMin() == null && name.getMax() == null;
+            long distinct = items.stream().map(ListObjectSheetTest.Item::getName).filter(Objects::nonNull).distinct().count();
+            assert Math.abs(name.getDistinct() - distinct) <= distinct / 20;
+        }
+
+        forEachResource(path -> {
+            try (ExcelReader reader = ExcelReader.read(path)) {
+                for (Sheet sheet : reader.all()) {
+                    List<ColumnStats> stats = sheet.load().columnStats();
+                    // Each data row is counted once in every column
+                    assert stats.stream().mapToLong(s -> s.getCount() + s.getNullCount()).distinct().count() <= 1L : path.getFileName();
+                    for (ColumnStats s : stats) assert s.getDistinct() <= s.getCount() : path.getFileName();
+                }
+            }
+        });
+    }
+
+    @Test public void testRowFilter() throws IOException {
+        int[] n = { 0 };
+        String[] status = { "OPEN", "CLOSED", "PENDING", " " };
+        List<ListObjectSheetTest.Item> items = ListObjectSheetTest.Item.randomTestData(3000, () -> {
+            int i = n[0]++;
+            return new ListObjectSheetTest.Item(i % 100, i % 11 == 0 ? null : status[i % 4]);
+        });
+        new Workbook("row filter").addSheet(new ListSheet<>(items)).writeTo(getOutputTestPath());
+        Path path = getOutputTestPath().resolve("row filter.xlsx");
+
+        assert filterRows(path, new RowFilter().eq(1, "CLOSED")).equals(dataRows(path, r -> "CLOSED".equals(r.getString(1))));
+        assert filterRows(path, new RowFilter().in(1, "OPEN", "PENDING").between(0, 10, 20))
+            .equals(dataRows(path, r -> ("OPEN".equals(r.getString(1)) || "PENDING".equals(r.getString(1)))
+                && r.getInt(0) >= 10 && r.getInt(0) <= 20));
+        List<Integer> blanks = filterRows(path, new RowFilter().isBlank(1));
+        assert !blanks.isEmpty() && blanks.equals(dataRows(path, r -> r.isBlank(1)));
+        assert filterRows(path, new RowFilter().eq(1, "NONE")).isEmpty();
+
+        // The shared strings
+        forEachResource(file -> {
+            String value;
+            try (ExcelReader reader = ExcelReader.read(file)) {
+                value = reader.sheet(0).dataRows().filter(r -> r.snapshot().getSstIndex(0) >= 0)
+                    .map(r -> r.getString(0)).findFirst().orElse(null);
+            }
+            if (value == null) return;
+            assert filterRows(file, new RowFilter().eq(0, value))
+                .equals(dataRows(file, r -> r.snapshot().getSstIndex(0) >= 0 && value.equals(r.getString(0)))) : file.getFileName();
+            assert filterRows(file, new RowFilter().isBlank(0))
+                .equals(dataRows(file, r -> r.isBlank(0))) : file.getFileName();
+        });
+    }
+
+    @Test public void testFilterSharedFormula() throws IOException {
+        // The master B2 of shared formula is rejected by the filter
+        try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve("formula.xlsx"), VALUE_AND_CALC)) {
+            List<String> formulas = reader.sheet(0).filter(new RowFilter().between(0, 3, 8)).dataRows()
+                .map(row -> row.getRowNum() + "=" + row.getFormula(1)).collect(Collectors.toList());
+            List<String> expect = new ArrayList<>();
+            for (int i = 3; i <= 8; i++) expect.add(i + "=(A" + i + "+A" + (i + 1) + ")+1");
+            assert expect.equals(formulas) : formulas;
+        }
+    }
+
+    private static List<Integer> filterRows(Path path, RowFilter filter) throws IOException {
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            return reader.sheet(0).filter(filter).dataRows().map(Row::getRowNum).collect(Collectors.toList());
+        }
+    }
+
+    private static List<Integer> dataRows(Path path, Predicate<Row> predicate) throws IOException {
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            return reader.sheet(0).dataRows().filter(predicate).map(Row::getRowNum).collect(Collectors.toList());
+        }
+    }
+
+    @Test public void testSheetsOnExecutor() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            forEachResource(path -> {
+                List<List<String>> expect, sheets;
+                try (ExcelReader reader = ExcelReader.read(path)) {
+                    expect = reader.sheets().map(s -> s.rows().map(Row::toString).collect(Collectors.toList())).collect(Collectors.toList());
+                }
+                try (ExcelReader reader = ExcelReader.read(path)) {
+                    sheets = reader.sheets(executor, s -> s.rows().map(Row::toString).collect(Collectors.toList()));
+                }
+                assert expect.equals(sheets) : path.getFileName();
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test public void testSharedFormulaRows() throws IOException {
+        Path path = testResourceRoot().resolve("formula.xlsx");
+        for (int option : new int[] { VALUE_AND_CALC, VALUE_AND_CALC | ExcelReader.READ_AHEAD, VALUE_AND_CALC | READ_FROM_ZIP }) {
+            try (ExcelReader reader = ExcelReader.read(path, option)) {
+                Sheet sheet = reader.sheet(0);
+                // The master is B2 with formula (A2+A3)+1, the children B3:B8 are shifted
+                List<String> formulas = sheet.rows().filter(row -> row.getRowNum() >= 2 && row.getRowNum() <= 8)
+                    .map(row -> row.getFormula(1)).collect(Collectors.toList());
+                assert formulas.size() == 7;
+                for (int i = 0; i < formulas.size(); i++) {
+                    assert ("(A" + (i + 2) + "+A" + (i + 3) + ")+1").equals(formulas.get(i)) : formulas.get(i);
+                }
+                assert "(A5+A6)+1".equals(sheet.reset().rows(5, 5).findFirst().map(row -> row.getFormula(1)).orElse(null));
+            }
+        }
+    }
+
+    @Test public void testEmptySheet() throws IOException {
+        new Workbook("empty sheet").addSheet(new EmptySheet("empty"))
+            .addSheet(new ListSheet<>(ListObjectSheetTest.Item.randomTestData(10))).writeTo(getOutputTestPath());
+        for (int option : new int[] { VALUE_ONLY, VALUE_AND_CALC, COPY_ON_MERGED, ExcelReader.READ_AHEAD }) {
+            try (ExcelReader reader = ExcelReader.read(getOutputTestPath().resolve("empty sheet.xlsx"), option)) {
+                Sheet sheet = reader.sheet(0);
+                assert sheet.rows().count() == 0L;
+                assert sheet.reset().dataRows().count() == 0L;
+                assert sheet.reset().rows(1, 10).count() == 0L;
+                assert sheet.reset().parallelRows(true).count() == 0L;
+                assert !sheet.reset().rowBatches(7).hasNext();
+                assert !sheet.reset().readBatches(7, new Schema().add(0, Schema.Type.INT)).hasNext();
+                assert sheet.reset().columnStats().isEmpty();
+                assert sheet.reset().filter(new RowFilter().isBlank(0)).dataRows().count() == 0L;
+                // The next worksheet is not affected
+                assert reader.sheet(1).dataRows().count() == 10L;
+            }
+        }
+    }
+
+    @Test public void testIntegerAfterDecimal() throws IOException {
+        String[] values = { "1.5", "2", "-3.25", "4", "5.0", "6", "0.125", "7" };
+        StringBuilder buf = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+            + "<dimension ref=\"A1:A" + (values.length + 1) + "\"/><sheetData>"
+            + "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>value</t></is></c></row>");
+        for (int i = 0; i < values.length; i++) {
+            buf.append("<row r=\"").append(i + 2).append("\"><c r=\"A").append(i + 2).append("\"><v>")
+                .append(values[i]).append("</v></c></row>");
+        }
+        buf.append("</sheetData></worksheet>");
+        Path path = getOutputTestPath().resolve("integer after decimal.xml");
+        Files.write(path, buf.toString().getBytes(StandardCharsets.UTF_8));
+
+        XMLSheet sheet = new XMLSheet();
+        sheet.setName("integer after decimal");
+        sheet.setPath(path);
+        sheet.setStyles(Styles.forReader());
+        try {
+            sheet.load();
+            List<Row> rows = sheet.dataRows().map(Row::snapshot).map(RowSnapshot::toRow).collect(Collectors.toList());
+            assert rows.size() == values.length;
+            for (int i = 0; i < values.length; i++) {
+                Row row = rows.get(i);
+                // The integer cell is not affected by the previous decimal
+                assert row.getDouble(0) == Double.parseDouble(values[i]) : values[i];
+                boolean integer = values[i].indexOf('.') < 0;
+                assert (row.getCellType(0) == CellType.INTEGER) == integer : values[i];
+                if (integer) assert row.getInt(0) == Integer.parseInt(values[i]);
+            }
+
+            int n = 0;
+            for (Iterator<ColumnBatch> iter = sheet.reset().readBatches(3, new Schema().add(0, Schema.Type.DOUBLE)); iter.hasNext(); ) {
+                ColumnBatch batch = iter.next();
+                double[] doubles = batch.getDoubles(0);
+                for (int i = 0; i < batch.size(); i++, n++) assert doubles[i] == Double.parseDouble(values[n]) : values[n];
+            }
+            assert n == values.length;
+
+            ColumnStats stats = sheet.reset().columnStats().get(0);
+            assert stats.getType() == CellType.DOUBLE && stats.getCount() == values.length;
+            assert stats.getMin() == -3.25D && stats.getMax() == 7.0D;
+            assert stats.getSum() == Arrays.stream(values).mapToDouble(Double::parseDouble).sum();
+        } finally {
+            sheet.close();
+        }
+    }
+
+    @Test public void testSelectColumns() throws IOException {
+        Path path = testResourceRoot().resolve("all type.xlsx");
+        List<String> expect;
+        String[] names;
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            Sheet sheet = reader.sheet(0);
+            names = ((HeaderRow) sheet.getHeader()).getNames();
+            expect = sheet.dataRows().map(row -> row.getString(1) + "," + row.getString(7)).collect(Collectors.toList());
+        }
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            Sheet sheet = reader.sheet(0).select(1, 7);
+            // The header row is parsed entirely
+            assert Arrays.equals(names, ((HeaderRow) sheet.getHeader()).getNames());
+            List<String> rows = sheet.dataRows().map(row -> {
+                for (int i = row.getFirstColumnIndex(); i < row.getLastColumnIndex(); i++) {
+                    if (i != 1 && i != 7) assert row.getString(i) == null;
+                }
+                return row.getString(1) + "," + row.getString(names[7]);
+            }).collect(Collectors.toList());
+            assert expect.equals(rows);
+
+            assert expect.equals(sheet.reset().select(names[1], names[7]).dataRows()
+                .map(row -> row.getString(1) + "," + row.getString(7)).collect(Collectors.toList()));
+            assert expect.equals(sheet.reset().select(1, 7).parallelDataRows(true)
+                .map(row -> row.getString(1) + "," + row.getString(7)).collect(Collectors.toList()));
+        }
+    }
+
+    @Test public void testPicturesFromZip() throws IOException {
+        try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve("drawing.xlsx"), READ_FROM_ZIP)) {
+            List<Drawings.Picture> pictures = reader.listPictures();
+            assert pictures != null && !pictures.isEmpty();
+            for (Drawings.Picture picture : pictures) {
+                // The part name relative to the archive root
+                assert !picture.getLocalPath().isAbsolute() && picture.getLocalPath().toFile() != null;
+                assert picture.getLocalPath().normalize().startsWith("xl");
+                try (InputStream is = picture.openStream()) {
+                    assert is.read() != -1;
+                }
+            }
+        }
+    }
+
+    @Test public void testExtractPictures() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Path dest = getOutputTestPath().resolve("extract pictures");
+        try (ExcelReader zipReader = ExcelReader.read(testResourceRoot().resolve("drawing.xlsx"), READ_FROM_ZIP);
+             ExcelReader reader = ExcelReader.read(testResourceRoot().resolve("drawing.xlsx"))) {
+            List<Drawings.Picture> zipPictures = zipReader.listPictures(), pictures = reader.listPictures();
+            assert zipPictures.size() == pictures.size();
+            for (int i = 0; i < pictures.size(); i++) {
+                Drawings.Picture a = zipPictures.get(i), b = pictures.get(i);
+                assert a.getSheet().getId() == b.getSheet().getId() && a.isBackground() == b.isBackground();
+                assert Objects.equals(a.getDimension(), b.getDimension()) && Objects.equals(a.getSrcUrl(), b.getSrcUrl());
+                try (InputStream is = a.openStream()) {
+                    assert Arrays.equals(readAll(is), Files.readAllBytes(b.getLocalPath()));
+                }
+            }
+
+            List<Path> files = zipReader.extractPictures(dest, executor);
+            assert files.size() == pictures.stream().map(p -> p.getLocalPath().normalize()).distinct().count();
+            for (Path file : files) {
+                Path source = pictures.stream().map(Drawings.Picture::getLocalPath)
+                    .filter(p -> p.getFileName().toString().equals(file.getFileName().toString())).findFirst().orElse(null);
+                assert source != null && Arrays.equals(Files.readAllBytes(file), Files.readAllBytes(source));
+            }
+        } finally {
+            executor.shutdown();
+            FileUtil.rm_rf(dest.toFile(), true);
+        }
+    }
+
+    @Test public void testExtractPicturesWithSameName() throws IOException {
+        Path root = getOutputTestPath().resolve("same name pictures"), dest = root.resolve("dest");
+        List<Drawings.Picture> pictures = new ArrayList<>();
+        for (String dir : new String[] { "a", "b", "c" }) {
+            Path path = root.resolve(dir).resolve(dir.equals("c") ? "IMAGE1.png" : "image1.png");
+            FileUtil.mkdir(path.getParent());
+            Files.write(path, dir.getBytes(StandardCharsets.US_ASCII));
+            Drawings.Picture picture = new Drawings.Picture();
+            picture.localPath = path;
+            pictures.add(picture);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Path> files = ((Drawings) () -> pictures).extractPictures(dest, executor);
+            assert files.stream().map(p -> p.getFileName().toString()).collect(Collectors.toList())
+                .equals(Arrays.asList("image1.png", "image1_1.png", "IMAGE1_2.png"));
+            for (int i = 0; i < files.size(); i++) {
+                assert Arrays.equals(Files.readAllBytes(files.get(i)), Files.readAllBytes(pictures.get(i).localPath));
+            }
+        } finally {
+            executor.shutdown();
+            FileUtil.rm_rf(root.toFile(), true);
+        }
+    }
+
+    @Test public void testDeprecatedDimension() throws Exception {
+        Element anchor = DocumentHelper.parseText("<xdr:twoCellAnchor xmlns:xdr=\"http://schemas.openxmlformats.org/drawingml/2006/spreadsheetDrawing\">"
+            + "<xdr:from><xdr:col>1</xdr:col><xdr:row>2</xdr:row></xdr:from><xdr:to><xdr:col>3</xdr:col><xdr:row>4</xdr:row></xdr:to>"
+            + "</xdr:twoCellAnchor>").getRootElement();
+        try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve("drawing.xlsx"))) {
+            assert new XMLDrawings(reader).dimension(anchor, anchor.getNamespaceForPrefix("xdr"))
+                .equals(new Dimension(3, (short) 2, 5, (short) 4));
+        }
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException {
+        byte[] bytes = new byte[1 << 12];
+        int n = 0;
+        for (int len; (len = is.read(bytes, n, bytes.length - n)) > 0; ) {
+            n += len;
+            if (n == bytes.length) bytes = Arrays.copyOf(bytes, bytes.length << 1);
+        }
+        return Arrays.copyOf(bytes, n);
+    }
+
+    @Test public void testTranscodeToCSV() throws IOException {
+        for (String name : new String[] { "1.xlsx", "formula.xlsx", "Number2Excel.xlsx", "#150.xlsx", "merge.xlsx" }) {
+            try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve(name))) {
+                for (int i = 0; i < reader.getSize(); i++) {
+                    Sheet sheet = reader.sheet(i);
+                    ByteArrayOutputStream expect = new ByteArrayOutputStream(), actual = new ByteArrayOutputStream();
+                    sheet.saveAsCSV(expect);
+                    sheet.transcodeToCSV(actual);
+                    assert Arrays.equals(expect.toByteArray(), actual.toByteArray()) : name + "#" + sheet.getName();
+                }
+            }
+        }
+    }
+
+    @Test public void testSaveAsCSVParallel() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Path dest = getOutputTestPath().resolve("parallel csv");
+        try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve("Number2Excel.xlsx"))) {
+            List<Path> files = reader.saveAsCSV(dest, executor);
+            assert files.size() == reader.getSize();
+            for (int i = 0; i < files.size(); i++) {
+                Sheet sheet = reader.sheet(i);
+                ByteArrayOutputStream expect = new ByteArrayOutputStream();
+                sheet.saveAsCSV(expect);
+                assert files.get(i).getFileName().toString().equals(sheet.getName() + ".csv");
+                assert Arrays.equals(expect.toByteArray(), Files.readAllBytes(files.get(i)));
+            }
+        } finally {
+            executor.shutdown();
+            FileUtil.rm_rf(dest.toFile(), true);
+        }
+    }
+
     @Test public void testColumnIndex() throws IOException {
         try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve("1.xlsx"))) {
             Sheet sheet = reader.sheet(0);
@@ -646,6 +1489,38 @@ public class ExcelReaderTest {
         }
     }
 
+    @Test public void testRowAsMap() throws IOException {
+        try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve("1.xlsx"))) {
+            List<RowMap> views = new ArrayList<>();
+            List<Map<String, Object>> list = reader.sheet(0).dataRows().map(row -> {
+                RowMap view = row.asMap();
+                views.add(view);
+                assert view.equals(row.toMap());
+                assert view.toString().equals(row.toMap().toString());
+                assert new ArrayList<>(view.keySet()).equals(new ArrayList<>(row.toMap().keySet()));
+                assert view.get("not exists") == null && !view.containsKey(null);
+                return view.snapshot();
+            }).collect(Collectors.toList());
+            assert list.size() == 94;
+            // The view is shared by all rows
+            assert views.stream().distinct().count() == 1L;
+            assert list.get(0).toString().equals("{渠道ID=4, 游戏=极品飞车, account=XuSu2gFg32, 注册时间=2018-11-21 00:00:00.0, 是否满30级=true, VIP=F}");
+            assert "LOL".equals(list.get(8).get("游戏"));
+        }
+
+        forEachResource(path -> {
+            try (ExcelReader reader = ExcelReader.read(path)) {
+                reader.sheets().flatMap(Sheet::dataRows).forEach(row -> {
+                    Map<String, Object> expect = row.toMap(), view = row.asMap();
+                    assert view.size() == expect.size();
+                    Map<String, Object> each = new LinkedHashMap<>();
+                    view.forEach(each::put);
+                    assert each.equals(expect) && view.entrySet().equals(expect.entrySet());
+                });
+            }
+        });
+    }
+
     public static class O {
         @ExcelColumn("亚马逊FBA子单号/箱唛号")
         private String fbaNo;
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.ttzero.excel.entity.WorkbookTest.getRandomString;
+
+/**
+ * @author guanquan.wang at 2023-03-10 10:12
+ */
+public class MappedSharedStringTableTest {
+
+    @Test public void testRandomAccess() throws IOException {
+        try (MappedSharedStringTable sst = new MappedSharedStringTable()) {
+            int length = 10000;
+            String[] buf = new String[length];
+            for (int i = 0; i < length; i++) {
+                buf[i] = i % 100 == 0 ? (i % 200 == 0 ? "" : "c") : getRandomString() + "中文";
+                sst.push(buf[i]);
+            }
+
+            Random random = new Random();
+            for (int i = 0; i < length; i++) {
+                int index = random.nextInt(length);
+                assert sst.get(index).equals(buf[index]);
+            }
+
+            String[] array = new String[512];
+            int n = sst.get(length - 100, array);
+            assert n == 100;
+            for (int i = 0; i < n; i++) {
+                assert array[i].equals(buf[length - 100 + i]);
+            }
+        }
+    }
+
+    @Test public void testPushAfterGet() throws IOException {
+        try (MappedSharedStringTable sst = new MappedSharedStringTable()) {
+            int length = 5000;
+            String[] buf = new String[length];
+            for (int i = 0; i < length; i++) {
+                buf[i] = getRandomString();
+                sst.push(buf[i]);
+                // The new record is mapped after pushed
+                int index = i >> 1;
+                assert sst.get(index).equals(buf[index]);
+                assert sst.get(i).equals(buf[i]);
+            }
+            assert sst.size() == length;
+        }
+    }
+
+    @Test public void testCrossRegions() throws IOException {
+        // The records and their length cross the boundary of 128 bytes regions
+        try (MappedSharedStringTable sst = new MappedSharedStringTable(7)) {
+            int length = 3000;
+            String[] buf = new String[length];
+            for (int i = 0; i < length; i++) {
+                buf[i] = i % 50 == 0 ? getRandomString() + new String(new char[300]).replace('\0', 'x') : getRandomString() + "中文";
+                sst.push(buf[i]);
+                if (i % 7 == 0) assert sst.get(i).equals(buf[i]);
+            }
+
+            Random random = new Random();
+            for (int i = 0; i < length; i++) {
+                int index = random.nextInt(length);
+                assert sst.get(index).equals(buf[index]);
+            }
+
+            String[] array = new String[512];
+            for (int i = 0; i < length; i += array.length) {
+                int n = sst.get(i, array);
+                assert n == Math.min(array.length, length - i);
+                for (int j = 0; j < n; j++) {
+                    assert array[j].equals(buf[i + j]);
+                }
+            }
+        }
+    }
+}
@@ -22,10 +22,17 @@ import org.junit.Test;
 import org.ttzero.excel.util.ExtBufferedWriter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 import static org.ttzero.excel.entity.WorkbookTest.getOutputTestPath;
@@ -63,6 +70,47 @@ public class SharedStringsTest {
         }
     }
 
+    @Test public void testConcurrentGet() throws IOException, InterruptedException {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) list.add(getRandomString() + i);
+        writeTestData(list);
+        try (SharedStrings sst = new SharedStrings(path, 0, 0).load()) {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int seed = t;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 50000; i++) {
+                        int index = random.nextInt(list.size());
+                        if (!list.get(index).equals(sst.get(index))) return false;
+                    }
+                    return true;
+                }));
+            }
+            executor.shutdown();
+            for (Future<Boolean> future : futures) {
+                assert future.get();
+            }
+            SharedStrings.Stats stats = sst.getStats();
+            assert stats.getCount() == 200000;
+            assert stats.getHitRate() > 0 && stats.getHitRate() < 1;
+            assert stats.getAllocations() >= stats.getLoads();
+        } catch (ExecutionException e) {
+            throw new AssertionError(e.getCause());
+        }
+    }
+
+    @Test public void testUnescapeBytes() {
+        StringBuilder buf = new StringBuilder();
+        String[] values = { "abc", "中文&lt;值&gt;", "&quot;a&amp;b&quot;", "&#20013;&#25991;", "a&unknown;b", "x&y" };
+        String[] expect = { "abc", "中文<值>", "\"a&b\"", "中文", "a&unknown;b", "x&y" };
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = ("<t>" + values[i] + "</t>").getBytes(StandardCharsets.UTF_8);
+            assertEquals(expect[i], SharedStrings.unescape(buf, bytes, 3, bytes.length - 4));
+        }
+    }
+
     private void checkTrue(SharedStrings sst, List<String> list) {
         for (int i = 0, size = list.size(); i < size; i++) {
             assertEquals(list.get(i), sst.get(i));
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * @author guanquan.wang at 2023-03-14 09:50
+ */
+public class XMLRowTest {
+
+    @Test public void testParseInteger() {
+        XMLRow row = new XMLRow();
+        assert parse(row, "0") == Cell.NUMERIC && row.nl == 0L;
+        assert parse(row, "-123") == Cell.NUMERIC && row.nl == -123L;
+        assert parse(row, "2147483647") == Cell.NUMERIC && row.nl == Integer.MAX_VALUE;
+        assert parse(row, "-2147483648") == Cell.NUMERIC && row.nl == Integer.MIN_VALUE;
+        assert parse(row, "2147483648") == Cell.LONG && row.nl == 2147483648L;
+        assert parse(row, "9223372036854775807") == Cell.LONG && row.nl == Long.MAX_VALUE;
+        assert parse(row, "92233720368547758070") == Cell.DOUBLE && row.nd == 9.223372036854775807E19;
+    }
+
+    @Test public void testParseDecimal() {
+        XMLRow row = new XMLRow();
+        assert parse(row, "1.5") == Cell.DOUBLE && row.nd == 1.5D;
+        assert parse(row, "-0.0") == Cell.DOUBLE && Double.doubleToRawLongBits(row.nd) == Double.doubleToRawLongBits(-0.0D);
+        assert parse(row, ".25") == Cell.DOUBLE && row.nd == 0.25D;
+        assert parse(row, "1.0000000000000001E5") == Cell.DOUBLE && row.nd == 1.0000000000000001E5;
+        assert parse(row, "3E30") == Cell.DOUBLE && row.nd == 3E30;
+        // The signed exponent is kept as string
+        assert parse(row, "7.0000000000000007E-2") == Cell.UNALLOCATED;
+        assert parse(row, "0.1000000000000000055511151231257827") == Cell.DOUBLE && row.nd == 0.1D;
+    }
+
+    @Test public void testNotNumber() {
+        XMLRow row = new XMLRow();
+        for (String s : new String[] { "", "-", ".", "abc", "12a", "1.2.3", "1e", "1e-", "e5", "1,000", "--1" }) {
+            assert parse(row, s) == Cell.UNALLOCATED : s;
+        }
+    }
+
+    @Test public void testCorrectlyRounded() {
+        XMLRow row = new XMLRow();
+        Random random = new Random();
+        for (int i = 0; i < 100000; i++) {
+            double d;
+            switch (i & 3) {
+                case 0:  d = random.nextDouble();                                 break;
+                case 1:  d = random.nextInt(1000000) / 100.0D;                    break;
+                case 2:  d = Double.longBitsToDouble(random.nextLong() & ~(1L << 63)); break;
+                default: d = random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+            }
+            if (Double.isNaN(d) || Double.isInfinite(d)) continue;
+            String s = Double.toString(d);
+            if (s.contains("E-")) s = new BigDecimal(s).toPlainString();
+            char t = parse(row, s);
+            assert t == Cell.DOUBLE && row.nd == Double.parseDouble(s) : s;
+        }
+    }
+
+    @Test public void testToDouble() {
+        XMLRow row = new XMLRow();
+        assert toDouble(row, "1.5") == 1.5D;
+        // The integer follows a decimal
+        assert toDouble(row, "3") == 3.0D;
+        assert toDouble(row, "-9223372036854775807") == -9223372036854775807.0D;
+        assert toDouble(row, "7.0000000000000007E-2") == 7.0000000000000007E-2;
+    }
+
+    private static double toDouble(XMLRow row, String s) {
+        row.cb = s.getBytes(StandardCharsets.US_ASCII);
+        return row.toDouble(0, row.cb.length);
+    }
+
+    private static char parse(XMLRow row, String s) {
+        row.cb = s.getBytes(StandardCharsets.US_ASCII);
+        return row.parseNumber(0, row.cb.length);
+    }
+}
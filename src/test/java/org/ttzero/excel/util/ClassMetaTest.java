@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.junit.Test;
+import org.ttzero.excel.annotation.ExcelColumn;
+
+import java.beans.IntrospectionException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author guanquan.wang at 2023-03-16 14:05
+ */
+public class ClassMetaTest {
+    @Test public void testSameAsReflectUtil() throws IntrospectionException {
+        ClassMeta meta = ClassMeta.of(ReflectUtilTest.C.class);
+        assert meta == ClassMeta.of(ReflectUtilTest.C.class);
+        assert meta.getType() == ReflectUtilTest.C.class;
+
+        assert Arrays.equals(ReflectUtil.listDeclaredFields(ReflectUtilTest.C.class), meta.listDeclaredFields(null));
+        assert Arrays.equals(ReflectUtil.listDeclaredMethods(ReflectUtilTest.C.class), meta.listDeclaredMethods(null));
+        assert Arrays.equals(ReflectUtil.listReadMethods(ReflectUtilTest.C.class), meta.listReadMethods(null));
+
+        Method[] methods = meta.listReadMethods(m -> m.getAnnotation(ExcelColumn.class) != null);
+        assert methods.length == 1 && methods[0].getName().equals("getC");
+
+        assert meta.getReadMethods().containsKey("a") && meta.getReadMethods().containsKey("c");
+        assert meta.getWriteMethods().containsKey("a") && meta.getWriteMethods().containsKey("c");
+    }
+
+    @Test public void testCopyOnList() {
+        ClassMeta meta = ClassMeta.of(ReflectUtilTest.A.class);
+        Field[] fields = meta.listDeclaredFields(null);
+        fields[0] = null;
+        assert meta.listDeclaredFields(null)[0] != null;
+        assert meta.listDeclaredFields(f -> false).length == 0;
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test public void testLazyAccessible() {
+        // The fields are made accessible when they are bound
+        Field field = ClassMeta.of(Lazy.class).listDeclaredFields(f -> f.getName().equals("a"))[0];
+        assert !field.isAccessible();
+        assert ClassMeta.setAccessible(field) && field.isAccessible();
+    }
+
+    public static class Lazy {
+        private int a;
+    }
+
+    @Test public void testComputeIfAbsent() {
+        ClassMeta meta = ClassMeta.of(ReflectUtilTest.B.class);
+        AtomicInteger counter = new AtomicInteger();
+        String a = meta.computeIfAbsent("key", k -> k + ":" + counter.incrementAndGet());
+        String b = meta.computeIfAbsent("key", k -> k + ":" + counter.incrementAndGet());
+        assert a == b && counter.get() == 1;
+
+        // Null is not cached
+        assert meta.computeIfAbsent("null", k -> { counter.incrementAndGet(); return null; }) == null;
+        assert meta.computeIfAbsent("null", k -> { counter.incrementAndGet(); return null; }) == null;
+        assert counter.get() == 3;
+    }
+}
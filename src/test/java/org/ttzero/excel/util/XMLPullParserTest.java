@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.dom4j.Element;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.ttzero.excel.util.XMLPullParser.END_DOCUMENT;
+import static org.ttzero.excel.util.XMLPullParser.END_TAG;
+import static org.ttzero.excel.util.XMLPullParser.START_TAG;
+
+/**
+ * @author guanquan.wang at 2023-03-20 10:40
+ */
+public class XMLPullParserTest {
+    private static XMLPullParser parser(String xml) throws IOException {
+        return new XMLPullParser(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test public void testEvents() throws IOException {
+        XMLPullParser parser = parser("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- comment <a/> -->"
+            + "<root xmlns:r=\"urn:r\"><a r:id='rId1' name=\"x &amp; y\"/><b>text</b></root>");
+        assert parser.next() == START_TAG && parser.is("root") && parser.getDepth() == 1;
+        assert parser.getAttribute("r") == null;
+        assert parser.next() == START_TAG && parser.is("a") && parser.getDepth() == 2;
+        assert "rId1".equals(parser.getAttribute("id"));
+        assert "x & y".equals(parser.getAttribute("name"));
+        assert parser.next() == END_TAG && parser.is("a") && parser.getDepth() == 2;
+        assert parser.next() == START_TAG && "b".equals(parser.getName());
+        assert parser.next() == END_TAG && parser.is("b");
+        assert parser.next() == END_TAG && parser.is("root") && parser.getDepth() == 1;
+        assert parser.next() == END_DOCUMENT;
+    }
+
+    @Test public void testText() throws IOException {
+        XMLPullParser parser = parser("<cp:coreProperties xmlns:cp=\"urn:cp\" xmlns:dc=\"urn:dc\">"
+            + "<dc:title>A &lt;title&gt; &#20013;&#x6587;</dc:title><dc:subject><![CDATA[<raw>]]> tail<x>skip</x></dc:subject>"
+            + "<cp:keywords/><dc:creator>中文</dc:creator></cp:coreProperties>");
+        assert parser.next() == START_TAG && parser.is("coreProperties");
+        assert parser.next() == START_TAG && parser.is("title");
+        assert "A <title> 中文".equals(parser.getText());
+        assert parser.getEventType() == END_TAG && parser.is("title");
+        assert parser.next() == START_TAG && parser.is("subject");
+        assert "<raw> tail".equals(parser.getText());
+        assert parser.next() == START_TAG && parser.is("keywords");
+        assert "".equals(parser.getText());
+        assert parser.next() == START_TAG && parser.is("creator");
+        assert "中文".equals(parser.getText());
+        assert parser.next() == END_TAG && parser.getDepth() == 1;
+    }
+
+    @Test public void testSkipAndToElement() throws IOException {
+        XMLPullParser parser = parser("<styleSheet><numFmts count=\"1\"><numFmt numFmtId=\"176\" formatCode=\"0.00&quot;%&quot;\"/></numFmts>"
+            + "<fonts><font><sz val=\"11\"/><name val=\"Arial\"/></font></fonts><cellXfs/></styleSheet>");
+        assert parser.next() == START_TAG && parser.is("styleSheet");
+        assert parser.next() == START_TAG && parser.is("numFmts");
+        parser.skip();
+        assert parser.getEventType() == END_TAG && parser.is("numFmts");
+        assert parser.next() == START_TAG && parser.is("fonts");
+        Element fonts = parser.toElement();
+        assert parser.getEventType() == END_TAG && parser.is("fonts");
+        Element font = fonts.element("font");
+        assert font != null && font.elements().size() == 2;
+        assert "Arial".equals(font.element("name").attributeValue("val"));
+        assert parser.next() == START_TAG && parser.is("cellXfs");
+        assert parser.next() == END_TAG && parser.is("cellXfs");
+        assert parser.next() == END_TAG && parser.is("styleSheet");
+        assert parser.next() == END_DOCUMENT;
+    }
+
+    @Test(expected = IOException.class) public void testUnclosedTag() throws IOException {
+        XMLPullParser parser = parser("<root><a name=\"x\"");
+        for (; parser.next() != END_DOCUMENT; ) ;
+    }
+}
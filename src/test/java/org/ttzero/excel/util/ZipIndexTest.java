@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.ttzero.excel.entity.WorkbookTest.getOutputTestPath;
+import static org.ttzero.excel.reader.ExcelReaderTest.testResourceRoot;
+
+/**
+ * @author guanquan.wang at 2023-03-04 18:02
+ */
+public class ZipIndexTest {
+
+    @Test public void testEntries() throws IOException {
+        Path path = testResourceRoot().resolve("1.xlsx");
+        try (ZipIndex zip = ZipIndex.open(path); ZipFile zipFile = new ZipFile(path.toFile())) {
+            int n = 0;
+            for (Enumeration<? extends ZipEntry> it = zipFile.entries(); it.hasMoreElements(); ) {
+                ZipEntry e = it.nextElement();
+                if (e.isDirectory()) continue;
+                ZipIndex.Entry entry = zip.getEntry(e.getName());
+                assert entry != null : e.getName();
+                assert entry.getSize() == e.getSize();
+                try (InputStream a = zipFile.getInputStream(e); InputStream b = zip.getInputStream(entry)) {
+                    assert Arrays.equals(readAll(a), readAll(b)) : e.getName();
+                }
+                n++;
+            }
+            assert zip.size() == n;
+            assert zip.getEntry("/xl/workbook.xml") != null;
+            assert zip.getEntry("xl/not-exists.xml") == null;
+        }
+    }
+
+    @Test public void testStoredChannel() throws IOException {
+        Path path = getOutputTestPath().resolve("stored.zip");
+        byte[] bytes = new byte[10000];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = (byte) ('a' + i % 26);
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(path))) {
+            ZipEntry entry = new ZipEntry("a.txt");
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(bytes.length);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            entry.setCrc(crc.getValue());
+            zos.putNextEntry(entry);
+            zos.write(bytes);
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry("b.txt"));
+            zos.write(bytes);
+            zos.closeEntry();
+        }
+
+        try (ZipIndex zip = ZipIndex.open(path)) {
+            for (String name : new String[] { "a.txt", "b.txt" }) {
+                ZipIndex.Entry entry = zip.getEntry(name);
+                assert entry.getMethod() == ("a.txt".equals(name) ? ZipIndex.STORED : ZipIndex.DEFLATED);
+                try (SeekableByteChannel channel = zip.newChannel(entry)) {
+                    assert channel.size() == bytes.length;
+                    ByteBuffer buffer = ByteBuffer.allocate(26);
+                    // Tail
+                    channel.position(bytes.length - 26);
+                    channel.read(buffer);
+                    assert new String(buffer.array(), StandardCharsets.US_ASCII).equals(new String(bytes, bytes.length - 26, 26, StandardCharsets.US_ASCII));
+                    assert channel.read(buffer) == 0 && channel.read(ByteBuffer.allocate(1)) == -1;
+                    // Backward
+                    buffer.clear();
+                    channel.position(52);
+                    channel.read(buffer);
+                    assert new String(buffer.array(), StandardCharsets.US_ASCII).equals("abcdefghijklmnopqrstuvwxyz");
+                }
+            }
+        }
+    }
+
+    @Test public void testInflaterChannelTail() throws IOException {
+        Path path = getOutputTestPath().resolve("tail.zip");
+        byte[] bytes = new byte[300000];
+        new Random(7).nextBytes(bytes);
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(path))) {
+            zos.putNextEntry(new ZipEntry("a.bin"));
+            zos.write(bytes);
+            zos.closeEntry();
+        }
+
+        try (ZipIndex zip = ZipIndex.open(path); SeekableByteChannel channel = zip.newChannel(zip.getEntry("a.bin"))) {
+            ByteBuffer buffer = ByteBuffer.allocate(2048);
+            // Scan backward block by block like the tail scanning
+            for (long position = bytes.length - buffer.capacity(); position > -buffer.capacity(); position -= buffer.capacity()) {
+                buffer.clear();
+                channel.position(Math.max(0L, position));
+                int n = channel.read(buffer);
+                assert n == buffer.capacity();
+                assert Arrays.equals(buffer.array(), Arrays.copyOfRange(bytes, (int) Math.max(0L, position), (int) Math.max(0L, position) + n));
+            }
+            // Read forward cross the buffered tail
+            buffer = ByteBuffer.allocate(100000);
+            channel.position(100);
+            assert channel.read(buffer) == buffer.capacity();
+            assert Arrays.equals(buffer.array(), Arrays.copyOfRange(bytes, 100, 100 + buffer.capacity()));
+            buffer.clear();
+            channel.position(bytes.length - 10);
+            assert channel.read(buffer) == 10 && channel.read(buffer) == -1;
+        }
+    }
+
+    @Test public void testEntryByPath() throws IOException {
+        try (ZipIndex zip = ZipIndex.open(testResourceRoot().resolve("1.xlsx"))) {
+            ZipIndex.Entry entry = zip.getEntry("xl/workbook.xml");
+            assert entry != null;
+            assert zip.getEntry(Paths.get("xl", "worksheets", "..", "workbook.xml")) == entry;
+            assert zip.getEntry(Paths.get("xl/workbook.xml")) == entry;
+            assert zip.getEntry(Paths.get("xl/not-exists.xml")) == null;
+            assert zip.getEntry(Paths.get("")) == null;
+        }
+    }
+
+    @Test public void testZip64() throws IOException {
+        Path path = getOutputTestPath().resolve("zip64.zip");
+        // More than 65535 entries will write the ZIP64 END header
+        int n = 0xFFFF + 10;
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(path))) {
+            for (int i = 0; i < n; i++) {
+                zos.putNextEntry(new ZipEntry("e/" + i));
+                zos.write(Integer.toString(i).getBytes(StandardCharsets.US_ASCII));
+                zos.closeEntry();
+            }
+        }
+
+        try (ZipIndex zip = ZipIndex.open(path)) {
+            assert zip.size() == n;
+            for (int i : new int[] { 0, 0xFFFF, n - 1 }) {
+                try (InputStream is = zip.getInputStream(zip.getEntry("e/" + i))) {
+                    assert Integer.toString(i).equals(new String(readAll(is), StandardCharsets.US_ASCII));
+                }
+            }
+        }
+    }
+
+    static byte[] readAll(InputStream is) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        byte[] buf = new byte[1024];
+        for (int n; (n = is.read(buf)) > 0; ) os.write(buf, 0, n);
+        return os.toByteArray();
+    }
+}